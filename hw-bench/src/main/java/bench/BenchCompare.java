@@ -0,0 +1,108 @@
+package bench;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH result files written with -rf json, such as those of the jmh task on
+ * two commits, printing for every benchmark in both the baseline and current scores and
+ * how much the current one changed. A change counts as a regression when the score got
+ * worse by more than the threshold and by more than both score errors together, so noise
+ * alone is not reported. Exits with status 1 if there is a regression.
+ *
+ * Usage: BenchCompare baseline.json current.json [threshold percent, default 10]
+ */
+public class BenchCompare {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchCompare baseline.json current.json [threshold percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) / 100 : 0.10;
+        Map<String, JsonObject> baseline = read(args[0]);
+        Map<String, JsonObject> current = read(args[1]);
+        int regressions = 0;
+        System.out.printf("%-70s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, JsonObject> i : current.entrySet()) {
+            JsonObject before = baseline.get(i.getKey());
+            JsonObject after = i.getValue();
+            if (before == null) {
+                System.out.printf("%-70s %14s %14s %9s%n", i.getKey(), "-", score(after), "new");
+                continue;
+            }
+            double old = metric(before, "score");
+            double now = metric(after, "score");
+            double change = (now - old) / old;
+            // in the time modes a higher score is worse, in the throughput modes a lower one
+            boolean higherIsWorse = !after.get("mode").getAsString().equals("thrpt");
+            double worse = higherIsWorse ? now - old : old - now;
+            boolean regressed = worse > threshold * old
+                    && worse > errorOf(before) + errorOf(after);
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-70s %14s %14s %+8.1f%%%s%n", i.getKey(), score(before), score(after),
+                              100 * change, regressed ? "  REGRESSION" : "");
+        }
+        for (String i : baseline.keySet()) {
+            if (!current.containsKey(i)) {
+                System.out.printf("%-70s %14s %14s %9s%n", i, score(baseline.get(i)), "-", "gone");
+            }
+        }
+        System.out.printf("%d benchmarks, %d regressions over %.0f%%%n", current.size(), regressions,
+                          100 * threshold);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    // helper method reading a result file into a map from each benchmark's name and
+    // parameters to its result, in name order
+    private static Map<String, JsonObject> read(String file) throws IOException {
+        Map<String, JsonObject> results = new TreeMap<>();
+        try (Reader reader = Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8)) {
+            JsonArray all = new JsonParser().parse(reader).getAsJsonArray();
+            for (JsonElement i : all) {
+                JsonObject result = i.getAsJsonObject();
+                String name = result.get("benchmark").getAsString();
+                name = name.startsWith("bench.") ? name.substring("bench.".length()) : name;
+                Map<String, String> params = new LinkedHashMap<>();
+                if (result.has("params")) {
+                    for (Map.Entry<String, JsonElement> p : result.getAsJsonObject("params").entrySet()) {
+                        params.put(p.getKey(), p.getValue().getAsString());
+                    }
+                }
+                results.put(params.isEmpty() ? name : name + params, result);
+            }
+        }
+        return results;
+    }
+
+    // helper method returning a value of the primary metric of a result
+    private static double metric(JsonObject result, String name) {
+        JsonElement value = result.getAsJsonObject("primaryMetric").get(name);
+        return value == null || !value.isJsonPrimitive() ? Double.NaN : value.getAsDouble();
+    }
+
+    // helper method returning the score error of a result, 0 if JMH could not compute one
+    private static double errorOf(JsonObject result) {
+        double error = metric(result, "scoreError");
+        return Double.isNaN(error) ? 0 : error;
+    }
+
+    // helper method formatting the score of a result with its unit
+    private static String score(JsonObject result) {
+        String unit = result.getAsJsonObject("primaryMetric").get("scoreUnit").getAsString();
+        return String.format("%.3f %s", metric(result, "score"), unit);
+    }
+}
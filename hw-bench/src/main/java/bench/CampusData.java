@@ -0,0 +1,50 @@
+package bench;
+
+import graph.DirectedLabeledGraph;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusBuilding;
+import pathfinder.parser.CampusPathsParser;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Loads the campus data files shared by the benchmarks.
+ */
+public class CampusData {
+    public static final String BUILDINGS = "campus_buildings.csv";
+    public static final String PATHS = "campus_paths.csv";
+
+    /**
+     * @return The campus paths as a graph with points as nodes and distances as edge labels,
+     * built the same way CampusMap builds it.
+     */
+    public static DirectedLabeledGraph<Point, Double> graph() {
+        DirectedLabeledGraph<Point, Double> graph = new DirectedLabeledGraph<>();
+        CampusPathsParser.parseCampusPaths(PATHS, (x1, y1, x2, y2, distance) -> {
+            DirectedLabeledGraph.Node<Point> start = new DirectedLabeledGraph.Node<>(new Point(x1, y1));
+            DirectedLabeledGraph.Node<Point> end = new DirectedLabeledGraph.Node<>(new Point(x2, y2));
+            graph.addNode(start);
+            graph.addNode(end);
+            graph.addEdge(new DirectedLabeledGraph.Edge<>(start, end, distance));
+        });
+        return graph;
+    }
+
+    /**
+     * @param count The number of queries to make.
+     * @param seed  The seed used to pick the buildings.
+     * @return {@code count} pairs of building locations, each as {start, end}.
+     */
+    public static Point[][] buildingQueries(int count, long seed) {
+        List<CampusBuilding> buildings = CampusPathsParser.parseCampusBuildings(BUILDINGS);
+        Random random = new Random(seed);
+        Point[][] queries = new Point[count][];
+        for (int i = 0; i < count; i++) {
+            CampusBuilding start = buildings.get(random.nextInt(buildings.size()));
+            CampusBuilding end = buildings.get(random.nextInt(buildings.size()));
+            queries[i] = new Point[] {new Point(start.getX(), start.getY()), new Point(end.getX(), end.getY())};
+        }
+        return queries;
+    }
+}
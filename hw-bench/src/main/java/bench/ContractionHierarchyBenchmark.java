@@ -0,0 +1,32 @@
+package bench;
+
+import graph.CompactGraph;
+import graph.ContractionHierarchy;
+import org.openjdk.jmh.annotations.*;
+import pathfinder.datastructures.Point;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long building the contraction hierarchy of the campus graph takes. Query
+ * times are compared with the other search modes in SearchModeBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContractionHierarchyBenchmark {
+    private CompactGraph<Point> graph;
+
+    @Setup
+    public void setup() {
+        graph = CampusData.graph().freeze(Double::doubleValue);
+    }
+
+    @Benchmark
+    public ContractionHierarchy<Point> preprocess() {
+        return new ContractionHierarchy<>(graph);
+    }
+}
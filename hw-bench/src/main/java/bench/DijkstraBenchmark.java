@@ -0,0 +1,62 @@
+package bench;
+
+import graph.CompactGraph;
+import org.openjdk.jmh.annotations.*;
+import pathfinder.Dijkstra;
+import pathfinder.datastructures.Path;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Dijkstra.findPath, from the search to the finished Path, between random nodes
+ * of the campus graph and of synthetic grids of 10,000 and 90,000 nodes, to show how the
+ * cost of a query grows with the graph. The size of each graph is printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DijkstraBenchmark {
+    @Param({"campus", "grid100", "grid300"})
+    public String graphName;
+
+    private CompactGraph<Object> graph;
+    private Object[][] queries;
+    private int next;
+
+    @Setup
+    public void setup() {
+        switch (graphName) {
+            case "campus":
+                graph = generic(CampusData.graph().freeze(Double::doubleValue));
+                break;
+            case "grid100":
+                graph = generic(SyntheticGraphs.grid(100, 331));
+                break;
+            default:
+                graph = generic(SyntheticGraphs.grid(300, 331));
+        }
+        Random random = new Random(331);
+        queries = new Object[64][];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = new Object[] {graph.valueOf(random.nextInt(graph.nodeNum())),
+                                       graph.valueOf(random.nextInt(graph.nodeNum()))};
+        }
+        System.out.printf("%n%s: %d nodes, %d edges%n", graphName, graph.nodeNum(), graph.edgeNum());
+    }
+
+    // the graphs have different node types, this lets one field hold any of them
+    @SuppressWarnings("unchecked")
+    private static CompactGraph<Object> generic(CompactGraph<?> graph) {
+        return (CompactGraph<Object>) graph;
+    }
+
+    @Benchmark
+    public Path<Object> findPath() {
+        next = (next + 1) % queries.length;
+        return Dijkstra.findPath(graph, queries[next][0], queries[next][1]);
+    }
+}
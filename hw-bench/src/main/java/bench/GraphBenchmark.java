@@ -0,0 +1,74 @@
+package bench;
+
+import graph.DirectedLabeledGraph;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building a DirectedLabeledGraph edge by edge with addEdge, listing the
+ * children of every node with listChildren, and freezing it into a CompactGraph, on the
+ * campus graph and on a synthetic grid of 10,000 nodes. The size of each graph is printed
+ * at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GraphBenchmark {
+    @Param({"campus", "grid"})
+    public String graphName;
+
+    private DirectedLabeledGraph<Object, Double> graph;
+    private List<DirectedLabeledGraph.Edge<Object, Double>> edges;
+    private List<DirectedLabeledGraph.Node<Object>> nodes;
+
+    @Setup
+    public void setup() {
+        graph = generic(graphName.equals("campus") ? CampusData.graph() : SyntheticGraphs.labeledGrid(100, 331));
+        nodes = graph.listNode();
+        edges = new ArrayList<>();
+        for (DirectedLabeledGraph.Node<Object> i : nodes) {
+            edges.addAll(graph.listChildren(i));
+        }
+        System.out.printf("%n%s: %d nodes, %d edges%n", graphName, graph.nodeNum(), graph.edgeNum());
+    }
+
+    // the two graphs have different node types, this lets one field hold either
+    @SuppressWarnings("unchecked")
+    private static DirectedLabeledGraph<Object, Double> generic(DirectedLabeledGraph<?, Double> graph) {
+        return (DirectedLabeledGraph<Object, Double>) graph;
+    }
+
+    /** Adds every node and then every edge to an empty graph. */
+    @Benchmark
+    public DirectedLabeledGraph<Object, Double> addEdge() {
+        DirectedLabeledGraph<Object, Double> built = new DirectedLabeledGraph<>();
+        for (DirectedLabeledGraph.Node<Object> i : nodes) {
+            built.addNode(i);
+        }
+        for (DirectedLabeledGraph.Edge<Object, Double> i : edges) {
+            built.addEdge(i);
+        }
+        return built;
+    }
+
+    /** Lists the outgoing edges of every node once. */
+    @Benchmark
+    public void listChildren(Blackhole blackhole) {
+        for (DirectedLabeledGraph.Node<Object> i : nodes) {
+            blackhole.consume(graph.listChildren(i));
+        }
+    }
+
+    /** Takes the compact snapshot searches run on. */
+    @Benchmark
+    public Object freeze() {
+        return graph.freeze(Double::doubleValue);
+    }
+}
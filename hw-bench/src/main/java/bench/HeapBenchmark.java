@@ -0,0 +1,72 @@
+package bench;
+
+import graph.CompactGraph;
+import graph.Route;
+import graph.ShortestPath;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the IndexedHeap frontier of ShortestPath with the PriorityQueue frontier it
+ * replaced, on the campus graph and on a synthetic grid with about a million edges.
+ * The size of each graph is printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class HeapBenchmark {
+    @Param({"campus", "grid"})
+    public String graphName;
+
+    private CompactGraph<Object> graph;
+    private ShortestPath<Object> shortestPath;
+    private Object[][] queries;
+    private int next;
+
+    @Setup
+    public void setup() {
+        if (graphName.equals("campus")) {
+            graph = generic(CampusData.graph().freeze(Double::doubleValue));
+        } else {
+            graph = generic(SyntheticGraphs.grid(500, 331));
+        }
+        shortestPath = new ShortestPath<>(graph);
+        Random random = new Random(331);
+        queries = new Object[64][];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = new Object[] {graph.valueOf(random.nextInt(graph.nodeNum())),
+                                       graph.valueOf(random.nextInt(graph.nodeNum()))};
+        }
+        System.out.printf("%n%s: %d nodes, %d edges%n", graphName, graph.nodeNum(), graph.edgeNum());
+    }
+
+    // the two graphs have different node types, this lets one field hold either
+    @SuppressWarnings("unchecked")
+    private static CompactGraph<Object> generic(CompactGraph<?> graph) {
+        return (CompactGraph<Object>) graph;
+    }
+
+    private Object[] nextQuery() {
+        next = (next + 1) % queries.length;
+        return queries[next];
+    }
+
+    /** java.util.PriorityQueue with an entry per relaxation. */
+    @Benchmark
+    public Route<Object> priorityQueue() {
+        Object[] query = nextQuery();
+        return LazyQueueDijkstra.find(graph, query[0], query[1]);
+    }
+
+    /** IndexedHeap with decrease-key, at most one entry per node. */
+    @Benchmark
+    public Route<Object> indexedHeap() {
+        Object[] query = nextQuery();
+        return shortestPath.find(query[0], query[1]);
+    }
+}
@@ -0,0 +1,96 @@
+package bench;
+
+import campuspaths.RouteFormat;
+import org.openjdk.jmh.annotations.*;
+import pathfinder.CampusMap;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures rendering /path responses for random building-to-building paths: the list of
+ * maps handed to Gson that SparkServer used to build, the streaming renderer of the legacy
+ * format that replaced it, and each compact RouteFormat. The average size of each
+ * format is printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark {
+    private List<Path<Point>> paths;
+    private int next;
+
+    @Setup
+    public void setup() {
+        CampusMap campus = new CampusMap(CampusData.BUILDINGS, CampusData.PATHS);
+        List<String> names = new ArrayList<>(campus.buildingNames().keySet());
+        names.sort(null);
+        Random random = new Random(331);
+        paths = new ArrayList<>();
+        while (paths.size() < 256) {
+            Path<Point> path = campus.findShortestPath(names.get(random.nextInt(names.size())),
+                                                       names.get(random.nextInt(names.size())));
+            if (path != null) {
+                paths.add(path);
+            }
+        }
+        long gson = 0;
+        for (Path<Point> path : paths) {
+            gson += gsonMaps(path).length;
+        }
+        System.out.printf("%ngson: %d bytes", gson / paths.size());
+        for (RouteFormat i : RouteFormat.values()) {
+            long total = 0;
+            for (Path<Point> path : paths) {
+                total += i.render(path).length;
+            }
+            System.out.printf(", %s: %d bytes", i.formatName(), total / paths.size());
+        }
+        System.out.println();
+    }
+
+    // helper method rendering a path with Gson and encoding it to UTF-8, as Spark would
+    private static byte[] gsonMaps(Path<Point> path) {
+        return LegacyPathJson.render(path).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private Path<Point> nextPath() {
+        next = (next + 1) % paths.size();
+        return paths.get(next);
+    }
+
+    /** The list of maps and Gson, encoded to UTF-8 as Spark would. */
+    @Benchmark
+    public byte[] gsonMaps() {
+        return gsonMaps(nextPath());
+    }
+
+    /** The streaming renderer of the same JSON. */
+    @Benchmark
+    public byte[] legacy() {
+        return RouteFormat.LEGACY.render(nextPath());
+    }
+
+    @Benchmark
+    public byte[] polyline() {
+        return RouteFormat.POLYLINE.render(nextPath());
+    }
+
+    @Benchmark
+    public byte[] delta() {
+        return RouteFormat.DELTA.render(nextPath());
+    }
+
+    @Benchmark
+    public byte[] binary() {
+        return RouteFormat.BINARY.render(nextPath());
+    }
+}
@@ -0,0 +1,99 @@
+package bench;
+
+import graph.CompactGraph;
+import graph.Route;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * The search graph.ShortestPath ran before it moved to graph.IndexedHeap: a
+ * java.util.PriorityQueue that takes a new entry on every relaxation and skips stale
+ * entries once they are polled. Kept as the baseline for HeapBenchmark.
+ */
+public class LazyQueueDijkstra {
+
+    /**
+     * @param graph The graph to search.
+     * @param start The start node of the route.
+     * @param end   The end node of the route.
+     * @param <N>   Type of the nodes in the graph.
+     * @return The shortest route between the nodes, or null if there is none.
+     */
+    public static <N> Route<N> find(CompactGraph<N> graph, N start, N end) {
+        int source = graph.idOf(start);
+        int target = graph.idOf(end);
+        if (source < 0 || target < 0) {
+            return null;
+        }
+        int n = graph.nodeNum();
+        double[] dist = new double[n];
+        int[] predEdge = new int[n];
+        boolean[] finished = new boolean[n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        dist[source] = 0;
+        PriorityQueue<Frontier> active = new PriorityQueue<>();
+        long added = 0;
+        int settled = 0;
+        active.add(new Frontier(source, 0, added++));
+        while (!active.isEmpty()) {
+            Frontier min = active.poll();
+            if (finished[min.node]) {
+                continue;
+            }
+            settled++;
+            if (min.node == target) {
+                List<N> nodes = new ArrayList<>();
+                List<Double> costs = new ArrayList<>();
+                for (int i = target; i != source; i = graph.edgeSource(predEdge[i])) {
+                    nodes.add(graph.valueOf(i));
+                    costs.add(graph.edgeWeight(predEdge[i]));
+                }
+                nodes.add(start);
+                double[] steps = new double[costs.size()];
+                for (int i = 0; i < steps.length; i++) {
+                    steps[i] = costs.get(steps.length - 1 - i);
+                }
+                List<N> ordered = new ArrayList<>(nodes.size());
+                for (int i = nodes.size() - 1; i >= 0; i--) {
+                    ordered.add(nodes.get(i));
+                }
+                return new Route<>(ordered, steps, settled);
+            }
+            finished[min.node] = true;
+            for (int i = graph.edgeStart(min.node); i < graph.edgeEnd(min.node); i++) {
+                int child = graph.edgeTarget(i);
+                double cost = dist[min.node] + graph.edgeWeight(i);
+                if (!finished[child] && cost < dist[child]) {
+                    dist[child] = cost;
+                    predEdge[child] = i;
+                    active.add(new Frontier(child, cost, added++));
+                }
+            }
+        }
+        return null;
+    }
+
+    private static class Frontier implements Comparable<Frontier> {
+        private final int node;
+        private final double cost;
+        private final long order;
+
+        private Frontier(int node, double cost, long order) {
+            this.node = node;
+            this.cost = cost;
+            this.order = order;
+        }
+
+        @Override
+        public int compareTo(Frontier other) {
+            int result = Double.compare(this.cost, other.cost);
+            if (result == 0) {
+                result = Long.compare(other.order, this.order);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package bench;
+
+import graph.DirectedLabeledGraph;
+import pathfinder.datastructures.Path;
+
+import java.util.*;
+
+/**
+ * The search used by the DirectedLabeledGraph overloads of Dijkstra.findPath before they
+ * were replaced by graph.ShortestPath, kept as the baseline for ShortestPathBenchmark.
+ */
+public class LegacyDijkstra {
+
+    /**
+     * @param graph A graph with nodes of type P and Edge as Double.
+     * @param start The start point of the path.
+     * @param end   The end point of the path.
+     * @param <P>   Type of the nodes in the graph.
+     * @return The shortest path between the nodes, or null if there is none.
+     */
+    public static <P> Path<P> findPath(DirectedLabeledGraph<P, Double> graph, P start, P end) {
+        Set<P> finished = new HashSet<>();
+        PriorityQueue<Candidate<P>> active = new PriorityQueue<>();
+        active.add(new Candidate<>(start, 0, null, 0));
+        while (!active.isEmpty()) {
+            Candidate<P> min = active.poll();
+            if (min.node.equals(end)) {
+                List<Candidate<P>> steps = new ArrayList<>();
+                for (Candidate<P> i = min; i.pred != null; i = i.pred) {
+                    steps.add(i);
+                }
+                Path<P> path = new Path<>(start);
+                for (int i = steps.size() - 1; i >= 0; i--) {
+                    path = path.extend(steps.get(i).node, steps.get(i).step);
+                }
+                return path;
+            }
+            if (finished.contains(min.node)) {
+                continue;
+            }
+            DirectedLabeledGraph.Node<P> node = new DirectedLabeledGraph.Node<>(min.node);
+            for (DirectedLabeledGraph.Edge<P, Double> i : graph.listChildren(node)) {
+                P child = i.getChild().getValue();
+                if (!finished.contains(child)) {
+                    active.add(new Candidate<>(child, min.cost + i.getLabel(), min, i.getLabel()));
+                }
+            }
+            finished.add(min.node);
+        }
+        return null;
+    }
+
+    private static class Candidate<P> implements Comparable<Candidate<P>> {
+        private final P node;
+        private final double cost;
+        private final Candidate<P> pred;
+        private final double step;
+
+        private Candidate(P node, double cost, Candidate<P> pred, double step) {
+            this.node = node;
+            this.cost = cost;
+            this.pred = pred;
+            this.step = step;
+        }
+
+        @Override
+        public int compareTo(Candidate<P> other) {
+            return Double.compare(this.cost, other.cost);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package bench;
+
+import com.google.gson.Gson;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.*;
+
+/**
+ * The rendering of /path responses SparkServer used before campuspaths.PathJson replaced
+ * it, a list of maps handed to Gson, kept as the baseline for JsonBenchmark.
+ */
+public class LegacyPathJson {
+
+    /**
+     * @param path The path to render.
+     * @return The JSON list of the segments of path, each with StartX, StartY, EndX, EndY
+     * and Cost, or one segment from the start to itself if path has none.
+     */
+    public static String render(Path<Point> path) {
+        List<Map<String, String>> list = new LinkedList<>();
+        if (path.getStart().equals(path.getEnd())) {
+            list.add(segment(path.getStart(), path.getEnd(), path.getCost()));
+        } else {
+            for (Path<Point>.Segment i : path) {
+                list.add(segment(i.getStart(), i.getEnd(), i.getCost()));
+            }
+        }
+        Gson gson = new Gson();
+        return gson.toJson(list);
+    }
+
+    // helper method returning the map of one segment
+    private static Map<String, String> segment(Point start, Point end, double cost) {
+        Map<String, String> cur = new HashMap<>();
+        cur.put("StartX", Double.toString(start.getX()));
+        cur.put("StartY", Double.toString(start.getY()));
+        cur.put("EndX", Double.toString(end.getX()));
+        cur.put("EndY", Double.toString(end.getY()));
+        cur.put("Cost", Double.toString(cost));
+        return cur;
+    }
+}
@@ -0,0 +1,195 @@
+package bench;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Drives a running campus paths server, such as one started by runSpark, with a fixed
+ * number of concurrent clients, each asking /path for a route between random buildings
+ * as soon as its last answer arrives, and prints the latency percentiles of the answers.
+ * Every client keeps its own connection busy, so the concurrency is also the number of
+ * open connections. Answers of 200 and shed requests answered with 503 are counted and
+ * timed apart, and the first seconds are a warmup that is not counted. The buildings are
+ * read from /building and the pairs drawn with a fixed seed, so a run can be repeated.
+ *
+ * Usage: LoadTest url [concurrency, default 256] [seconds, default 30]
+ *                     [warmup seconds, default 5] [seed, default 331]
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.err.println("Usage: LoadTest <url> [concurrency] [seconds] [warmup seconds] [seed]");
+            System.exit(2);
+        }
+        String url = args[0].endsWith("/") ? args[0].substring(0, args[0].length() - 1) : args[0];
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int warmup = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 331;
+
+        HttpClient client = HttpClient.newBuilder()
+                                      .version(HttpClient.Version.HTTP_1_1)
+                                      .connectTimeout(Duration.ofSeconds(10))
+                                      .build();
+        HttpResponse<String> buildings = client.send(HttpRequest.newBuilder(URI.create(url + "/building")).build(),
+                                                     HttpResponse.BodyHandlers.ofString());
+        JsonObject names = new JsonParser().parse(buildings.body()).getAsJsonObject();
+        List<String> shortNames = new ArrayList<>(names.keySet());
+        Random random = new Random(seed);
+        URI[] queries = new URI[4096];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = URI.create(url + "/path?start=" + encode(shortNames.get(random.nextInt(shortNames.size())))
+                                    + "&end=" + encode(shortNames.get(random.nextInt(shortNames.size()))));
+        }
+
+        System.out.printf("%d clients on %s for %d s after %d s of warmup, %d buildings%n", concurrency, url,
+                          seconds, warmup, shortNames.size());
+        long begin = System.nanoTime();
+        long measureFrom = begin + warmup * 1_000_000_000L;
+        long end = measureFrom + seconds * 1_000_000_000L;
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Client> clients = new ArrayList<>(concurrency);
+        List<CompletableFuture<Void>> done = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            Client c = new Client(client, queries, i, measureFrom, running);
+            clients.add(c);
+            done.add(c.start());
+        }
+        Thread.sleep(Math.max(0, (end - System.nanoTime()) / 1_000_000));
+        running.set(false);
+        CompletableFuture.allOf(done.toArray(new CompletableFuture<?>[0])).join();
+
+        Samples ok = new Samples();
+        Samples shed = new Samples();
+        long errors = 0;
+        for (Client c : clients) {
+            ok.addAll(c.ok);
+            shed.addAll(c.shed);
+            errors += c.errors;
+        }
+        double elapsed = (System.nanoTime() - measureFrom) / 1e9;
+        System.out.printf("%d answered (%.0f/s), %d shed with 503, %d failed%n", ok.size, ok.size / elapsed,
+                          shed.size, errors);
+        ok.print("200");
+        shed.print("503");
+    }
+
+    // helper method encoding a building name as a query parameter value
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * One client, which sends its next request when the last one is answered until told
+     * to stop, recording the latency of every answer after the warmup
+     */
+    private static final class Client {
+        private final HttpClient http;
+        private final URI[] queries;
+        private final long measureFrom;
+        private final AtomicBoolean running;
+        private final Samples ok = new Samples();
+        private final Samples shed = new Samples();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private int next;
+        private long errors;
+
+        Client(HttpClient http, URI[] queries, int first, long measureFrom, AtomicBoolean running) {
+            this.http = http;
+            this.queries = queries;
+            this.next = first;
+            this.measureFrom = measureFrom;
+            this.running = running;
+        }
+
+        // helper method sending requests one after another, completing the returned
+        // future once running is cleared
+        CompletableFuture<Void> start() {
+            send();
+            return done;
+        }
+
+        // helper method sending the next request, whose answer sends the one after it;
+        // answers arrive one at a time, so the samples need no lock
+        private void send() {
+            if (!running.get()) {
+                done.complete(null);
+                return;
+            }
+            URI query = queries[next];
+            next = (next + 1) % queries.length;
+            long sent = System.nanoTime();
+            http.sendAsync(HttpRequest.newBuilder(query).timeout(Duration.ofSeconds(30)).build(),
+                           HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, failure) -> {
+                    long now = System.nanoTime();
+                    if (sent >= measureFrom) {
+                        if (failure != null) {
+                            errors++;
+                        } else if (response.statusCode() == 503) {
+                            shed.add(now - sent);
+                        } else if (response.statusCode() == 200) {
+                            ok.add(now - sent);
+                        } else {
+                            errors++;
+                        }
+                    }
+                    send();
+                });
+        }
+    }
+
+    /**
+     * A growing list of latencies in nanoseconds
+     */
+    private static final class Samples {
+        private long[] nanos = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, 2 * size);
+            }
+            nanos[size++] = value;
+        }
+
+        void addAll(Samples other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.nanos[i]);
+            }
+        }
+
+        // helper method printing the percentiles of the samples, in milliseconds
+        void print(String label) {
+            if (size == 0) {
+                return;
+            }
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            System.out.printf("%s latency ms: p50 %.2f  p90 %.2f  p99 %.2f  p99.9 %.2f  max %.2f%n", label,
+                              percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                              percentile(sorted, 0.999), sorted[sorted.length - 1] / 1e6);
+        }
+
+        // helper method returning a percentile of sorted samples, in milliseconds
+        private static double percentile(long[] sorted, double fraction) {
+            return sorted[Math.min(sorted.length - 1, (int) (fraction * sorted.length))] / 1e6;
+        }
+    }
+}
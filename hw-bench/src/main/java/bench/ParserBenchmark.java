@@ -0,0 +1,94 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+import pathfinder.CampusMap;
+import pathfinder.parser.CampusBuilding;
+import pathfinder.parser.CampusPath;
+import pathfinder.parser.CampusPathsParser;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading the campus data: scanning the paths file into a callback, into a list,
+ * and with the String.split loop the parser used to have, each from bytes already in
+ * memory so the file system is not measured, as well as parsing the buildings and
+ * loading a whole CampusMap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+    private byte[] paths;
+
+    @Setup
+    public void setup() {
+        try (InputStream stream = CampusPathsParser.class.getResourceAsStream("/data/" + CampusData.PATHS)) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            stream.transferTo(bytes);
+            paths = bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        System.out.printf("%n%s: %d bytes%n", CampusData.PATHS, paths.length);
+    }
+
+    /** The streaming scanner, adding up the distances so nothing is kept. */
+    @Benchmark
+    public double scanToCallback() {
+        double[] total = new double[1];
+        CampusPathsParser.parseCampusPaths(new ByteArrayInputStream(paths),
+                (x1, y1, x2, y2, distance) -> total[0] += distance);
+        return total[0];
+    }
+
+    /** The streaming scanner collecting a CampusPath per line, as the list API does. */
+    @Benchmark
+    public List<CampusPath> scanToList() {
+        List<CampusPath> list = new ArrayList<>();
+        CampusPathsParser.parseCampusPaths(new ByteArrayInputStream(paths),
+                (x1, y1, x2, y2, distance) -> list.add(new CampusPath(x1, y1, x2, y2, distance)));
+        return list;
+    }
+
+    /** The reader, String.split and Double.parseDouble loop the scanner replaced. */
+    @Benchmark
+    public double splitLines() throws IOException {
+        double total = 0;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ByteArrayInputStream(paths), StandardCharsets.UTF_8))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                String[] fields = line.split(",");
+                total += Double.parseDouble(fields[0]) + Double.parseDouble(fields[1])
+                         + Double.parseDouble(fields[2]) + Double.parseDouble(fields[3])
+                         + Double.parseDouble(fields[4]);
+            }
+        }
+        return total;
+    }
+
+    /** The buildings file, read from the classpath. */
+    @Benchmark
+    public List<CampusBuilding> parseBuildings() {
+        return CampusPathsParser.parseCampusBuildings(CampusData.BUILDINGS);
+    }
+
+    /** Everything the server does at startup without a compiled graph file. */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public CampusMap loadCampusMap() {
+        return new CampusMap(CampusData.BUILDINGS, CampusData.PATHS);
+    }
+}
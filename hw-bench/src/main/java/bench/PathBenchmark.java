@@ -0,0 +1,50 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures growing a Path one segment at a time with Path#extend, and iterating over
+ * the result once, for paths of several lengths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PathBenchmark {
+    @Param({"10", "100", "1000"})
+    public int length;
+
+    private Point[] points;
+
+    @Setup
+    public void setup() {
+        points = new Point[length + 1];
+        for (int i = 0; i <= length; i++) {
+            points[i] = new Point(i, i % 7);
+        }
+    }
+
+    @Benchmark
+    public Path<Point> extend() {
+        Path<Point> path = new Path<>(points[0]);
+        for (int i = 1; i <= length; i++) {
+            path = path.extend(points[i], 1.0);
+        }
+        return path;
+    }
+
+    @Benchmark
+    public double extendAndIterate() {
+        double total = 0;
+        for (Path<Point>.Segment i : extend()) {
+            total += i.getCost();
+        }
+        return total;
+    }
+}
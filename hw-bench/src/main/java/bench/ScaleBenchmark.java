@@ -0,0 +1,70 @@
+package bench;
+
+import graph.Route;
+import org.openjdk.jmh.annotations.*;
+import pathfinder.CampusMap;
+import pathfinder.SearchMode;
+import pathfinder.datastructures.Point;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures uncached searches between random buildings of the campuses written by the
+ * generateCampuses task, from 10,000 to a million paths of each shape, to show how query
+ * latency grows with the graph. Run by the jmhScale task rather than the jmh task, since
+ * its 27 configurations take about fifteen minutes and need the campuses on the classpath
+ * under data/, where only jmhScale puts them; other sizes can be run with
+ * -Pcampuses=road-10000000 after generating them. The size and load time of each campus
+ * are printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ScaleBenchmark {
+    @Param({"grid-10000", "grid-100000", "grid-1000000",
+            "geometric-10000", "geometric-100000", "geometric-1000000",
+            "road-10000", "road-100000", "road-1000000"})
+    public String campusName;
+
+    @Param({"DIJKSTRA", "A_STAR", "BIDIRECTIONAL"})
+    public SearchMode mode;
+
+    private CampusMap campus;
+    private String[][] queries;
+    private int next;
+
+    @Setup
+    public void setup() throws IOException, URISyntaxException {
+        URL paths = ScaleBenchmark.class.getResource("/data/" + campusName + "_paths.csv");
+        if (paths == null) {
+            throw new IllegalStateException("No " + campusName + " campus, run the generateCampuses task first");
+        }
+        long begin = System.nanoTime();
+        campus = CampusMap.fromPathFile(campusName + "_buildings.csv", Paths.get(paths.toURI()), mode);
+        System.out.printf("%n%s: %d nodes, %d edges, loaded in %.1f ms%n", campusName, campus.graph().nodeNum(),
+                          campus.graph().edgeNum(), (System.nanoTime() - begin) / 1e6);
+        List<String> buildings = new ArrayList<>(campus.buildingNames().keySet());
+        Random random = new Random(331);
+        queries = new String[256][];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = new String[] {buildings.get(random.nextInt(buildings.size())),
+                                       buildings.get(random.nextInt(buildings.size()))};
+        }
+    }
+
+    @Benchmark
+    public Route<Point> findRoute() {
+        next = (next + 1) % queries.length;
+        return campus.findRoute(queries[next][0], queries[next][1], mode);
+    }
+}
@@ -0,0 +1,118 @@
+package bench;
+
+import graph.Route;
+import pathfinder.CampusMap;
+import pathfinder.SearchMode;
+import pathfinder.datastructures.Point;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Shows how the routing stack scales with the size of the graph: for each campus written
+ * by SyntheticCampus, prints the time ParallelPathLoader and CampusMap take to load it,
+ * the heap the loaded CampusMap keeps, and the median and 99th percentile latency and the
+ * nodes settled of uncached searches between random buildings in each search mode. The
+ * directory holding the files must also be on the classpath, as data/, so the buildings
+ * file can be read the way CampusMap reads the real one.
+ *
+ * Usage: ScaleReport directory [name,...], where the names default to every campus in the
+ * directory, such as grid-100000.
+ */
+public class ScaleReport {
+
+    /**
+     * The search modes compared. The contraction hierarchy and route table are left out
+     * since preprocessing a large graph takes far longer than loading it.
+     */
+    private static final SearchMode[] MODES = {SearchMode.DIJKSTRA, SearchMode.A_STAR, SearchMode.BIDIRECTIONAL};
+
+    private static final int WARMUP_QUERIES = 50;
+    private static final int QUERIES = 200;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: ScaleReport <directory> [name,...]");
+            System.exit(1);
+        }
+        Path directory = Paths.get(args[0]);
+        List<String> names = args.length > 1 ? Arrays.asList(args[1].split(",")) : campuses(directory);
+        System.out.printf("%-20s %9s %10s %8s %9s %9s", "campus", "nodes", "edges", "MB", "load ms", "heap MB");
+        for (SearchMode i : MODES) {
+            System.out.printf(" %28s", i + " p50/p99 us, settled");
+        }
+        System.out.println();
+        for (String name : names) {
+            report(directory, name.trim());
+        }
+    }
+
+    // helper method returning the names of the campuses in a directory, by shape and then size
+    private static List<String> campuses(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(i -> i.getFileName().toString())
+                        .filter(i -> i.endsWith("_paths.csv"))
+                        .map(i -> i.substring(0, i.length() - "_paths.csv".length()))
+                        .sorted(Comparator.comparing((String i) -> i.substring(0, i.lastIndexOf('-')))
+                                          .thenComparingLong(i -> Long.parseLong(i.substring(i.lastIndexOf('-') + 1))))
+                        .collect(Collectors.toList());
+        }
+    }
+
+    // helper method printing the row of one campus
+    private static void report(Path directory, String name) throws IOException {
+        Path paths = directory.resolve(name + "_paths.csv");
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long before = usedHeap(memory);
+        long begin = System.nanoTime();
+        CampusMap campus = CampusMap.fromPathFile(name + "_buildings.csv", paths, SearchMode.DIJKSTRA);
+        long loadNanos = System.nanoTime() - begin;
+        long retained = usedHeap(memory) - before;
+        System.out.printf("%-20s %9d %10d %8.1f %9.1f %9.1f", name, campus.graph().nodeNum(),
+                          campus.graph().edgeNum(), Files.size(paths) / 1e6, loadNanos / 1e6, retained / 1e6);
+
+        List<String> buildings = new ArrayList<>(campus.buildingNames().keySet());
+        Random random = new Random(331);
+        String[][] queries = new String[WARMUP_QUERIES + QUERIES][];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = new String[] {buildings.get(random.nextInt(buildings.size())),
+                                       buildings.get(random.nextInt(buildings.size()))};
+        }
+        for (SearchMode mode : MODES) {
+            long[] nanos = new long[QUERIES];
+            long settled = 0;
+            for (int i = 0; i < queries.length; i++) {
+                long start = System.nanoTime();
+                Route<Point> route = campus.findRoute(queries[i][0], queries[i][1], mode);
+                if (i >= WARMUP_QUERIES) {
+                    nanos[i - WARMUP_QUERIES] = System.nanoTime() - start;
+                    settled += route == null ? 0 : route.getSettled();
+                }
+            }
+            Arrays.sort(nanos);
+            System.out.printf(" %28s", String.format("%.0f/%.0f, %d", nanos[QUERIES / 2] / 1e3,
+                                                     nanos[QUERIES * 99 / 100] / 1e3, settled / QUERIES));
+        }
+        System.out.println();
+    }
+
+    // helper method returning the heap in use after a full collection, which is only a
+    // request to the JVM and so gives an estimate
+    private static long usedHeap(MemoryMXBean memory) {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
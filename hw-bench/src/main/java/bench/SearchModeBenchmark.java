@@ -0,0 +1,71 @@
+package bench;
+
+import graph.ContractionHierarchy;
+import graph.Route;
+import graph.RouteTable;
+import org.openjdk.jmh.annotations.*;
+import pathfinder.CampusMap;
+import pathfinder.SearchMode;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusBuilding;
+import pathfinder.parser.CampusPathsParser;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the CampusMap search modes over every building-to-building query. The average
+ * number of nodes each mode settles per query is printed when the benchmark is set up,
+ * along with the preprocessing time and shortcut count of the contraction hierarchy and
+ * the build time and size of the route table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchModeBenchmark {
+    @Param({"DIJKSTRA", "A_STAR", "BIDIRECTIONAL", "CONTRACTION_HIERARCHY", "ROUTE_TABLE"})
+    public SearchMode mode;
+
+    private CampusMap campus;
+    private String[] starts;
+    private String[] ends;
+    private int next;
+
+    @Setup
+    public void setup() {
+        campus = new CampusMap(CampusData.BUILDINGS, CampusData.PATHS, mode);
+        if (mode == SearchMode.CONTRACTION_HIERARCHY) {
+            ContractionHierarchy<Point> hierarchy = campus.hierarchy();
+            System.out.printf("%ncontraction hierarchy built in %.1f ms with %d shortcuts%n",
+                              hierarchy.getPreprocessNanos() / 1e6, hierarchy.shortcutNum());
+        } else if (mode == SearchMode.ROUTE_TABLE) {
+            RouteTable<Point> table = campus.routeTable();
+            System.out.printf("%nroute table of %d buildings built in %.1f ms, %d KB%n",
+                              table.size(), table.getBuildNanos() / 1e6, table.memoryBytes() / 1024);
+        }
+        List<CampusBuilding> buildings = CampusPathsParser.parseCampusBuildings(CampusData.BUILDINGS);
+        starts = new String[buildings.size() * buildings.size()];
+        ends = new String[starts.length];
+        for (int i = 0; i < buildings.size(); i++) {
+            for (int j = 0; j < buildings.size(); j++) {
+                starts[i * buildings.size() + j] = buildings.get(i).getShortName();
+                ends[i * buildings.size() + j] = buildings.get(j).getShortName();
+            }
+        }
+        long settled = 0;
+        for (int i = 0; i < starts.length; i++) {
+            settled += campus.findRoute(starts[i], ends[i], mode).getSettled();
+        }
+        System.out.printf("%n%s settles %.1f nodes per query over %d queries%n",
+                          mode, settled / (double) starts.length, starts.length);
+    }
+
+    @Benchmark
+    public Route<Point> route() {
+        next = (next + 1) % starts.length;
+        return campus.findRoute(starts[next], ends[next], mode);
+    }
+}
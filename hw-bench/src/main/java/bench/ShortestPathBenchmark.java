@@ -0,0 +1,63 @@
+package bench;
+
+import graph.DirectedLabeledGraph;
+import graph.Route;
+import graph.ShortestPath;
+import org.openjdk.jmh.annotations.*;
+import pathfinder.Dijkstra;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the generic ShortestPath engine with the search it replaced on
+ * random building-to-building queries over the campus graph, and with
+ * Dijkstra.findPath, which searches the labeled graph itself for callers that
+ * have not frozen it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShortestPathBenchmark {
+    private DirectedLabeledGraph<Point, Double> graph;
+    private ShortestPath<Point> shortestPath;
+    private Point[][] queries;
+    private int next;
+
+    @Setup
+    public void setup() {
+        graph = CampusData.graph();
+        shortestPath = ShortestPath.of(graph, Double::doubleValue);
+        queries = CampusData.buildingQueries(256, 331);
+    }
+
+    private Point[] nextQuery() {
+        next = (next + 1) % queries.length;
+        return queries[next];
+    }
+
+    /** The search behind the old Point and String overloads of Dijkstra.findPath. */
+    @Benchmark
+    public Path<Point> legacyOverload() {
+        Point[] query = nextQuery();
+        return LegacyDijkstra.findPath(graph, query[0], query[1]);
+    }
+
+    /** ShortestPath over a graph that was frozen once. */
+    @Benchmark
+    public Route<Point> shortestPath() {
+        Point[] query = nextQuery();
+        return shortestPath.find(query[0], query[1]);
+    }
+
+    /** Dijkstra.findPath on a DirectedLabeledGraph, which searches the graph in place without freezing it. */
+    @Benchmark
+    public Path<Point> dijkstraOnLabeledGraph() {
+        Point[] query = nextQuery();
+        return Dijkstra.findPath(graph, query[0], query[1]);
+    }
+}
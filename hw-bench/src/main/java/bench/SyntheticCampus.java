@@ -0,0 +1,401 @@
+package bench;
+
+import pathfinder.parser.PathConsumer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * A synthetic campus of any size, written as a campus buildings file and a campus paths
+ * file that CampusMap, CampusGraphCompiler and ParallelPathLoader read like the real ones,
+ * so load time, memory and query latency can be measured far past the 5.5k edges of the
+ * campus. Every path is listed once in each direction, with a distance no shorter than the
+ * straight line between its points, and the same shape, size and seed always give the same
+ * files. The buildings are spread at random over the largest connected part of the graph,
+ * so any two of them have a route between them.
+ *
+ * Usage: SyntheticCampus directory shapes edges [seed], where shapes is a comma separated
+ * list of grid, geometric and road and edges a comma separated list of approximate path
+ * counts. The files for a shape and count are written as shape-edges_buildings.csv and
+ * shape-edges_paths.csv.
+ */
+public final class SyntheticCampus {
+    // RI: x != null && y != null && x.length == y.length && x.length >= 2
+    // AF(this) = the campus of the given shape whose i-th node is at (x[i], y[i]), with
+    //            edges given by shape, side and seed
+
+    /**
+     * The distance between neighbouring nodes, about that of the campus paths
+     */
+    public static final double SPACING = 50;
+
+    /**
+     * The number of buildings in each generated campus
+     */
+    public static final int BUILDINGS = 256;
+
+    /**
+     * Each road is an arterial every this many rows and columns, the rest are local streets
+     */
+    private static final int ARTERIAL_EVERY = 8;
+
+    /**
+     * The share of the horizontal local streets that exist in a road campus
+     */
+    private static final double LOCAL_STREETS = 0.7;
+
+    /**
+     * The average number of neighbours of a node of a geometric campus
+     */
+    private static final double GEOMETRIC_DEGREE = 6;
+
+    /**
+     * The layouts a synthetic campus can have.
+     */
+    public enum Shape {
+        /**
+         * A square grid with a path each way between horizontal and vertical neighbours.
+         */
+        GRID,
+
+        /**
+         * Nodes placed uniformly at random, with a path each way between every two nodes
+         * closer than a radius chosen so each node has GEOMETRIC_DEGREE neighbours on
+         * average. Paths may cross and the graph may have small disconnected parts.
+         */
+        GEOMETRIC,
+
+        /**
+         * A planar street grid with its nodes moved at random by up to a third of the
+         * spacing, fast arterials every ARTERIAL_EVERY rows and columns, and slower local
+         * streets of which some horizontal blocks are missing, so routes favour arterials.
+         */
+        ROAD
+    }
+
+    private final Shape shape;
+    private final int side;
+    private final long seed;
+    private final double[] x;
+    private final double[] y;
+
+    private SyntheticCampus(Shape shape, int side, long seed, double[] x, double[] y) {
+        this.shape = shape;
+        this.side = side;
+        this.seed = seed;
+        this.x = x;
+        this.y = y;
+        checkRep();
+    }
+
+    /**
+     * @param shape The layout of the campus.
+     * @param edges The approximate number of paths to generate, counting each direction.
+     * @param seed  The seed of every random choice.
+     * @spec.requires shape != null && edges > 0
+     * @return A campus of the given shape with about {@code edges} paths.
+     * @throws IllegalArgumentException if the campus would have more than Integer.MAX_VALUE nodes
+     */
+    public static SyntheticCampus generate(Shape shape, long edges, long seed) {
+        Random random = new Random(seed);
+        switch (shape) {
+            case GRID: {
+                // 4 * side * (side - 1) paths
+                int side = side(1 + Math.sqrt(edges / 4.0));
+                double[] x = new double[side * side];
+                double[] y = new double[side * side];
+                for (int i = 0; i < x.length; i++) {
+                    x[i] = (i % side) * SPACING;
+                    y[i] = (i / side) * SPACING;
+                }
+                return new SyntheticCampus(shape, side, seed, x, y);
+            }
+            case ROAD: {
+                // 2 * side * (side - 1) vertical paths and the share of the horizontal ones kept
+                double kept = 1.0 / ARTERIAL_EVERY + (1 - 1.0 / ARTERIAL_EVERY) * LOCAL_STREETS;
+                int side = side(1 + Math.sqrt(edges / (2 * (1 + kept))));
+                double[] x = new double[side * side];
+                double[] y = new double[side * side];
+                for (int i = 0; i < x.length; i++) {
+                    x[i] = round((i % side + (random.nextDouble() - 0.5) * 2 / 3) * SPACING);
+                    y[i] = round((i / side + (random.nextDouble() - 0.5) * 2 / 3) * SPACING);
+                }
+                return new SyntheticCampus(shape, side, seed, x, y);
+            }
+            default: {
+                // GEOMETRIC_DEGREE paths leave each node, in a square with one node per
+                // SPACING by SPACING cell on average
+                long nodes = Math.max(2, Math.round(edges / GEOMETRIC_DEGREE));
+                if (nodes > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Too many nodes: " + nodes);
+                }
+                double extent = Math.sqrt(nodes) * SPACING;
+                double[] x = new double[(int) nodes];
+                double[] y = new double[(int) nodes];
+                for (int i = 0; i < x.length; i++) {
+                    x[i] = round(random.nextDouble() * extent);
+                    y[i] = round(random.nextDouble() * extent);
+                }
+                return new SyntheticCampus(shape, (int) Math.ceil(extent / radius()), seed, x, y);
+            }
+        }
+    }
+
+    // helper method checking that a square grid of the given side fits in an int
+    private static int side(double side) {
+        if (side * side > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many nodes: " + side * side);
+        }
+        return Math.max(2, (int) Math.round(side));
+    }
+
+    // helper method returning the radius within which geometric nodes are connected
+    private static double radius() {
+        return SPACING * Math.sqrt(GEOMETRIC_DEGREE / Math.PI);
+    }
+
+    // helper method rounding a coordinate to 4 decimals as in the campus files, which
+    // keeps the files short
+    private static double round(double coordinate) {
+        return Math.round(coordinate * 1e4) / 1e4;
+    }
+
+    /**
+     * @return The shape of this campus.
+     */
+    public Shape getShape() {
+        return shape;
+    }
+
+    /**
+     * @return The number of nodes of this campus.
+     */
+    public int nodeNum() {
+        return x.length;
+    }
+
+    /**
+     * Generates the paths of this campus one at a time, each direction separately, in the
+     * same order on every call and without keeping them.
+     *
+     * @param consumer The callback receiving each path.
+     * @spec.requires consumer != null
+     */
+    public void paths(PathConsumer consumer) {
+        checkRep();
+        edges((a, b, distance) -> consumer.accept(x[a], y[a], x[b], y[b], distance));
+    }
+
+    /**
+     * A callback receiving the paths of a campus as the ids of their nodes.
+     */
+    @FunctionalInterface
+    private interface EdgeConsumer {
+        void accept(int a, int b, double distance);
+    }
+
+    // helper method generating the paths of this campus as node ids, in the same order on
+    // every call
+    private void edges(EdgeConsumer consumer) {
+        Random random = new Random(seed ^ 0x5DEECE66DL);
+        switch (shape) {
+            case GRID:
+                for (int i = 0; i < x.length; i++) {
+                    if (i % side + 1 < side) {
+                        connect(consumer, i, i + 1, 1, 1.5, random);
+                    }
+                    if (i + side < x.length) {
+                        connect(consumer, i, i + side, 1, 1.5, random);
+                    }
+                }
+                break;
+            case ROAD:
+                for (int i = 0; i < x.length; i++) {
+                    int row = i / side;
+                    int col = i % side;
+                    if (col + 1 < side) {
+                        if (row % ARTERIAL_EVERY == 0) {
+                            connect(consumer, i, i + 1, 1, 1.1, random);
+                        } else if (random.nextDouble() < LOCAL_STREETS) {
+                            connect(consumer, i, i + 1, 1.5, 2.5, random);
+                        }
+                    }
+                    if (row + 1 < side) {
+                        boolean arterial = col % ARTERIAL_EVERY == 0;
+                        connect(consumer, i, i + side, arterial ? 1 : 1.5, arterial ? 1.1 : 2.5, random);
+                    }
+                }
+                break;
+            default:
+                geometricPaths(consumer, random);
+        }
+    }
+
+    // helper method connecting every two geometric nodes closer than radius(), finding the
+    // neighbours of a node among the nodes of its own and the adjacent cells of a grid of
+    // side by side cells of that size
+    private void geometricPaths(EdgeConsumer consumer, Random random) {
+        double radius = radius();
+        int[] cellOf = new int[x.length];
+        int[] cellStart = new int[side * side + 1];
+        for (int i = 0; i < x.length; i++) {
+            cellOf[i] = cell(y[i], radius) * side + cell(x[i], radius);
+            cellStart[cellOf[i] + 1]++;
+        }
+        for (int i = 0; i < side * side; i++) {
+            cellStart[i + 1] += cellStart[i];
+        }
+        int[] byCell = new int[x.length];
+        int[] filled = new int[side * side];
+        for (int i = 0; i < x.length; i++) {
+            byCell[cellStart[cellOf[i]] + filled[cellOf[i]]++] = i;
+        }
+        for (int i = 0; i < x.length; i++) {
+            int row = cellOf[i] / side;
+            int col = cellOf[i] % side;
+            for (int r = Math.max(0, row - 1); r <= Math.min(side - 1, row + 1); r++) {
+                for (int c = Math.max(0, col - 1); c <= Math.min(side - 1, col + 1); c++) {
+                    for (int k = cellStart[r * side + c]; k < cellStart[r * side + c + 1]; k++) {
+                        int j = byCell[k];
+                        if (j > i && Math.hypot(x[j] - x[i], y[j] - y[i]) < radius) {
+                            connect(consumer, i, j, 1, 1.5, random);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // helper method returning the cell of a coordinate in a geometric campus
+    private int cell(double coordinate, double radius) {
+        return Math.min(side - 1, (int) (coordinate / radius));
+    }
+
+    // helper method passing a path each way between nodes a and b, each with a distance
+    // of the straight line between them times an independent factor in [low, high)
+    private void connect(EdgeConsumer consumer, int a, int b, double low, double high, Random random) {
+        double length = Math.hypot(x[b] - x[a], y[b] - y[a]);
+        consumer.accept(a, b, length * (low + (high - low) * random.nextDouble()));
+        consumer.accept(b, a, length * (low + (high - low) * random.nextDouble()));
+    }
+
+    /**
+     * Writes this campus as name_buildings.csv and name_paths.csv in a directory, creating
+     * the directory if needed. Buildings are named S0 to S255, or one per node if there
+     * are fewer connected nodes than that.
+     *
+     * @param directory The directory to write to.
+     * @param name      The name the two files start with.
+     * @spec.requires directory != null && name != null
+     * @return The number of paths written.
+     * @throws IOException if a file cannot be written
+     */
+    public long write(Path directory, String name) throws IOException {
+        checkRep();
+        Files.createDirectories(directory);
+        int[] buildings = buildingNodes();
+        try (Writer out = Files.newBufferedWriter(directory.resolve(name + "_buildings.csv"),
+                                                  StandardCharsets.UTF_8)) {
+            for (int i = 0; i < buildings.length; i++) {
+                int node = buildings[i];
+                out.write("S" + i + ",Synthetic Building " + i + "," + x[node] + "," + y[node] + "\n");
+            }
+        }
+        long[] written = new long[1];
+        try (BufferedWriter out = Files.newBufferedWriter(directory.resolve(name + "_paths.csv"),
+                                                          StandardCharsets.UTF_8)) {
+            paths((x1, y1, x2, y2, distance) -> {
+                try {
+                    out.write(x1 + "," + y1 + "," + x2 + "," + y2 + "," + distance + "\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                written[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return written[0];
+    }
+
+    // helper method picking BUILDINGS distinct nodes at random, all in the largest
+    // connected part of the campus, found with a union-find over its paths
+    private int[] buildingNodes() {
+        int[] parent = new int[x.length];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        edges((a, b, distance) -> union(parent, a, b));
+        int[] size = new int[x.length];
+        int largest = 0;
+        for (int i = 0; i < x.length; i++) {
+            int root = find(parent, i);
+            if (++size[root] > size[largest]) {
+                largest = root;
+            }
+        }
+        int count = Math.min(BUILDINGS, size[largest]);
+        int[] chosen = new int[count];
+        boolean[] taken = new boolean[x.length];
+        Random random = new Random(seed + 1);
+        for (int i = 0; i < count; ) {
+            int node = random.nextInt(x.length);
+            if (!taken[node] && find(parent, node) == largest) {
+                taken[node] = true;
+                chosen[i++] = node;
+            }
+        }
+        return chosen;
+    }
+
+    // helper method returning the root of a node, halving the path to it on the way
+    private static int find(int[] parent, int node) {
+        while (parent[node] != node) {
+            parent[node] = parent[parent[node]];
+            node = parent[node];
+        }
+        return node;
+    }
+
+    // helper method joining the parts of two nodes
+    private static void union(int[] parent, int a, int b) {
+        parent[find(parent, a)] = find(parent, b);
+    }
+
+    /**
+     * Throws an exception if the representation invariant is violated.
+     */
+    private void checkRep() {
+        assert x != null && y != null && x.length == y.length && x.length >= 2 : "bad nodes";
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: SyntheticCampus <directory> <grid,geometric,road> <edges,...> [seed]");
+            System.exit(1);
+        }
+        Path directory = Paths.get(args[0]);
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 331;
+        for (String shapeName : args[1].split(",")) {
+            Shape shape = Shape.valueOf(shapeName.trim().toUpperCase(Locale.ROOT));
+            for (String edgeCount : args[2].split(",")) {
+                long edges = Long.parseLong(edgeCount.trim());
+                String name = shapeName.trim().toLowerCase(Locale.ROOT) + "-" + edges;
+                long begin = System.nanoTime();
+                SyntheticCampus campus = generate(shape, edges, seed);
+                long written = campus.write(directory, name);
+                System.out.printf("%s: %d nodes, %d paths, %.1f MB in %.1f s%n", name, campus.nodeNum(),
+                                  written, Files.size(directory.resolve(name + "_paths.csv")) / 1e6,
+                                  (System.nanoTime() - begin) / 1e9);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package bench;
+
+import graph.CompactGraph;
+import graph.DirectedLabeledGraph;
+
+import java.util.Random;
+
+/**
+ * Synthetic graphs much larger than the campus graph, for benchmarks that need to show
+ * how a search scales.
+ */
+public class SyntheticGraphs {
+
+    /**
+     * @param side The number of nodes along each side of the grid.
+     * @param seed The seed used to pick the edge weights.
+     * @return A side by side grid whose nodes are numbered row by row, with an edge each way
+     * between horizontal and vertical neighbours, weighted uniformly in [1, 10).
+     * A side of 500 gives 250,000 nodes and just under a million edges.
+     */
+    public static CompactGraph<Integer> grid(int side, long seed) {
+        return labeledGrid(side, seed).freeze(Double::doubleValue);
+    }
+
+    /**
+     * @param side The number of nodes along each side of the grid.
+     * @param seed The seed used to pick the edge weights.
+     * @return The same grid as {@code grid(side, seed)}, before it is frozen, with the
+     * weights as edge labels.
+     */
+    public static DirectedLabeledGraph<Integer, Double> labeledGrid(int side, long seed) {
+        Random random = new Random(seed);
+        DirectedLabeledGraph<Integer, Double> graph = new DirectedLabeledGraph<>();
+        for (int i = 0; i < side * side; i++) {
+            graph.addNode(new DirectedLabeledGraph.Node<>(i));
+        }
+        for (int row = 0; row < side; row++) {
+            for (int col = 0; col < side; col++) {
+                int node = row * side + col;
+                if (col + 1 < side) {
+                    connect(graph, node, node + 1, random);
+                }
+                if (row + 1 < side) {
+                    connect(graph, node, node + side, random);
+                }
+            }
+        }
+        return graph;
+    }
+
+    // helper method adding an edge each way between a and b with independent weights
+    private static void connect(DirectedLabeledGraph<Integer, Double> graph, int a, int b, Random random) {
+        DirectedLabeledGraph.Node<Integer> first = new DirectedLabeledGraph.Node<>(a);
+        DirectedLabeledGraph.Node<Integer> second = new DirectedLabeledGraph.Node<>(b);
+        graph.addEdge(new DirectedLabeledGraph.Edge<>(first, second, 1 + 9 * random.nextDouble()));
+        graph.addEdge(new DirectedLabeledGraph.Edge<>(second, first, 1 + 9 * random.nextDouble()));
+    }
+}
@@ -0,0 +1,81 @@
+package campuspaths;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * An immutable response body rendered once, together with a strong ETag computed from its
+ * bytes, so a response that never changes is neither rebuilt nor resent to a client that
+ * already has it.
+ */
+public final class JsonPayload {
+    // RI: bytes != null && etag != null && etag is a quoted hex string
+    // AF(this) = the response body bytes, identified by the entity tag etag
+    private final byte[] bytes;
+    private final String etag;
+
+    /**
+     * Creates a payload of the UTF-8 encoding of a JSON string
+     *
+     * @param json the JSON text of the response
+     * @spec.requires json != null
+     */
+    public JsonPayload(String json) {
+        this.bytes = json.getBytes(StandardCharsets.UTF_8);
+        this.etag = "\"" + digest(bytes) + "\"";
+    }
+
+    /**
+     * @return the body of the response; callers must not modify it
+     */
+    public byte[] bytes() {
+        return bytes;
+    }
+
+    /**
+     * @return the strong entity tag of the body, including its quotes
+     */
+    public String etag() {
+        return etag;
+    }
+
+    /**
+     * Checks a request's If-None-Match header against this payload, comparing tags weakly
+     * as RFC 7232 requires for that header
+     *
+     * @param ifNoneMatch the value of the If-None-Match header, null if there is none
+     * @return true iff the client already has this payload, so a 304 can be sent instead
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // helper method returning the first 128 bits of the SHA-256 digest of bytes, in hex
+    private static String digest(byte[] bytes) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(bytes);
+            StringBuilder hex = new StringBuilder(32);
+            for (int i = 0; i < 16; i++) {
+                hex.append(Character.forDigit((hash[i] >> 4) & 0xf, 16));
+                hex.append(Character.forDigit(hash[i] & 0xf, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package campuspaths;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of non-negative long values, such as latencies in nanoseconds or the number
+ * of nodes a search settled, in the style of an HDR histogram: every power of two is split
+ * into SUB_BUCKETS equal buckets, so any value is kept to within 25% with a fixed array of
+ * counters covering the whole range of long. Recording is one atomic increment of a bucket
+ * and one atomic add to the sum, without locks or allocation, so it is cheap enough for
+ * every request. Reading while values are being recorded sees each of them either
+ * entirely or not at all, but not necessarily all from the same instant.
+ */
+public final class LogHistogram {
+    // RI: counts != null && counts.length == BUCKETS && sum != null
+    // AF(this) = the multiset of recorded values, where counts[i] is how many recorded
+    //            values lie in [lowerBound(i), lowerBound(i + 1)) and sum is their total
+
+    /**
+     * The number of buckets each power of two is split into
+     */
+    public static final int SUB_BUCKETS = 4;
+
+    private static final int SUB_BITS = 2;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong sum = new AtomicLong();
+
+    /**
+     * Records a value, negative values being recorded as 0
+     *
+     * @param value the value to record
+     * @spec.modifies this
+     * @spec.effects adds value to this
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        counts.incrementAndGet(bucketOf(v));
+        sum.addAndGet(v);
+    }
+
+    /**
+     * @return the number of values recorded
+     */
+    public long count() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * @return the sum of the values recorded
+     */
+    public long sum() {
+        return sum.get();
+    }
+
+    /**
+     * Finds the number of recorded values below a power of two, which is exact since powers
+     * of two are bucket boundaries
+     *
+     * @param exponent the exponent of the power of two
+     * @spec.requires 0 &lt;= exponent &lt;= 62
+     * @return the number of recorded values less than 2 to the power exponent
+     */
+    public long countBelow(int exponent) {
+        long bound = 1L << exponent;
+        long count = 0;
+        for (int i = 0; i < BUCKETS && lowerBound(i) < bound; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Estimates a quantile of the recorded values
+     *
+     * @param quantile the quantile to find, such as 0.99
+     * @spec.requires 0 &lt;= quantile &lt;= 1
+     * @return the middle of the bucket holding the value of that rank, so within 12.5% of
+     *         it, or 0 if nothing was recorded
+     */
+    public long quantile(double quantile) {
+        long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                long low = lowerBound(i);
+                long high = i + 1 < BUCKETS ? lowerBound(i + 1) : Long.MAX_VALUE;
+                return low + (high - 1 - low) / 2;
+            }
+        }
+        return lowerBound(BUCKETS - 1);
+    }
+
+    // helper method returning the bucket of a non-negative value. Values below
+    // 2 * SUB_BUCKETS have a bucket each; above that, a value whose highest bit is bit e
+    // falls in the SUB_BUCKETS buckets of [2^e, 2^(e+1)) by its next SUB_BITS bits
+    private static int bucketOf(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    // helper method returning the smallest value of a bucket
+    private static long lowerBound(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BITS);
+    }
+}
@@ -0,0 +1,192 @@
+package campuspaths;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonWriter;
+import pathfinder.CampusMap;
+import pathfinder.RouteCache;
+import pathfinder.SearchMode;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A request of the /paths route for many routes at once, read from a JSON body that is
+ * either {"pairs": [["CSE", "MGH"], ...]}, asking for the path between each pair of
+ * buildings, or {"sources": ["CSE", ...], "targets": ["MGH", ...]}, asking for the
+ * distance matrix from every source to every target without the paths themselves.
+ *
+ * <p>Pairs are answered with a JSON array holding, in order, each path as the /path route
+ * renders it in the negotiated format, or null where there is no path. A matrix is
+ * answered with {"sources": [...], "targets": [...], "costs": [[...], ...]} where
+ * costs[i][j] is the distance from sources[i] to targets[j], null where there is no
+ * path.</p>
+ */
+public final class PathBatch {
+    // RI: exactly one of pairs and (sources, targets) is non-null, every pair has two
+    //     elements, and the number of routes asked for is at most MAX_ROUTES
+    // AF(this) = the paths between each of pairs if pairs != null, and the distances from
+    //            every one of sources to every one of targets otherwise
+
+    /**
+     * The most routes, pairs or matrix cells, one request may ask for
+     */
+    public static final int MAX_ROUTES = 10000;
+
+    private static final Gson GSON = new Gson();
+
+    // set by Gson from the request body
+    private List<List<String>> pairs;
+    private List<String> sources;
+    private List<String> targets;
+
+    private PathBatch() {
+    }
+
+    /**
+     * Reads a batch request
+     *
+     * @param json the body of the request
+     * @return the batch the body asks for
+     * @throws IllegalArgumentException if json is not a well formed batch request, or asks
+     *                                  for more than MAX_ROUTES routes
+     */
+    public static PathBatch parse(String json) {
+        PathBatch batch;
+        try {
+            batch = GSON.fromJson(json, PathBatch.class);
+        } catch (JsonParseException e) {
+            throw new IllegalArgumentException("Malformed batch: " + e.getMessage());
+        }
+        if (batch == null) {
+            throw new IllegalArgumentException("Empty batch");
+        }
+        if (batch.pairs != null) {
+            if (batch.sources != null || batch.targets != null) {
+                throw new IllegalArgumentException("A batch has either pairs or sources and targets");
+            }
+            if (batch.pairs.size() > MAX_ROUTES) {
+                throw new IllegalArgumentException("At most " + MAX_ROUTES + " pairs");
+            }
+            for (List<String> i : batch.pairs) {
+                if (i == null || i.size() != 2) {
+                    throw new IllegalArgumentException("Every pair needs a start and an end");
+                }
+            }
+        } else {
+            if (batch.sources == null || batch.targets == null) {
+                throw new IllegalArgumentException("Missing pairs, or sources and targets");
+            }
+            if ((long) batch.sources.size() * batch.targets.size() > MAX_ROUTES) {
+                throw new IllegalArgumentException("At most " + MAX_ROUTES + " sources times targets");
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * @return true iff this batch asks for a distance matrix rather than paths
+     */
+    public boolean isMatrix() {
+        return pairs == null;
+    }
+
+    /**
+     * Answers a batch of pairs, taking the responses already rendered from payloads and
+     * adding the ones it renders. The paths are found by Dijkstra's algorithm, so they are
+     * kept apart from responses rendered from paths another search mode found, which may
+     * take a different route of the same cost
+     *
+     * @param campus the campus map to find the paths in
+     * @param format the format to render each path in
+     * @param payloads the rendered /path responses, keyed by start, end, search mode name
+     *                 and format name
+     * @spec.requires !isMatrix() && format != RouteFormat.BINARY
+     * @return the body of the response
+     * @throws IllegalArgumentException if a pair names a building that does not exist
+     */
+    public byte[] routes(CampusMap campus, RouteFormat format, RouteCache<List<String>, byte[]> payloads) {
+        List<String> starts = new ArrayList<>(pairs.size());
+        List<String> ends = new ArrayList<>(pairs.size());
+        for (List<String> i : pairs) {
+            starts.add(i.get(0));
+            ends.add(i.get(1));
+        }
+        List<Path<Point>> paths = campus.findShortestPaths(starts, ends);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 * pairs.size() + 2);
+        bytes.write('[');
+        for (int i = 0; i < paths.size(); i++) {
+            if (i > 0) {
+                bytes.write(',');
+            }
+            Path<Point> path = paths.get(i);
+            byte[] body = path == null ? null
+                    : payloads.get(Arrays.asList(starts.get(i), ends.get(i), SearchMode.DIJKSTRA.name(),
+                                                 format.formatName()),
+                                   key -> format.render(path));
+            if (body == null) {
+                bytes.write('n');
+                bytes.write('u');
+                bytes.write('l');
+                bytes.write('l');
+            } else {
+                bytes.write(body, 0, body.length);
+            }
+        }
+        bytes.write(']');
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Answers a distance matrix
+     *
+     * @param campus the campus map to find the distances in
+     * @spec.requires isMatrix()
+     * @return the body of the response
+     * @throws IllegalArgumentException if a source or target names a building that does
+     *                                  not exist
+     */
+    public byte[] matrix(CampusMap campus) {
+        double[][] costs = campus.distanceMatrix(sources, targets);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 * sources.size() * targets.size() + 64);
+        try (JsonWriter json = new JsonWriter(new OutputStreamWriter(bytes, StandardCharsets.UTF_8))) {
+            json.beginObject();
+            json.name("sources").beginArray();
+            for (String i : sources) {
+                json.value(i);
+            }
+            json.endArray();
+            json.name("targets").beginArray();
+            for (String i : targets) {
+                json.value(i);
+            }
+            json.endArray();
+            json.name("costs").beginArray();
+            for (double[] row : costs) {
+                json.beginArray();
+                for (double i : row) {
+                    if (Double.isInfinite(i)) {
+                        json.nullValue();
+                    } else {
+                        json.value(i);
+                    }
+                }
+                json.endArray();
+            }
+            json.endArray();
+            json.endObject();
+        } catch (IOException e) {
+            // a ByteArrayOutputStream never fails
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
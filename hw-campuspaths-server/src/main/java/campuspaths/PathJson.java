@@ -0,0 +1,61 @@
+package campuspaths;
+
+import com.google.gson.stream.JsonWriter;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Renders paths as the JSON the /path route responds with: a list with one object per
+ * segment whose StartX, StartY, EndX, EndY and Cost are strings of Double.toString. The
+ * JSON is written by a streaming writer straight from the segments, with the keys in the
+ * order the React application has always received them.
+ */
+public final class PathJson {
+
+    private PathJson() {
+    }
+
+    /**
+     * Renders a path, a path without segments being rendered as one segment from its
+     * start to itself
+     *
+     * @param path the path to render
+     * @spec.requires path != null
+     * @return the UTF-8 bytes of the JSON of path
+     */
+    public static byte[] render(Path<Point> path) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        try (JsonWriter json = new JsonWriter(new OutputStreamWriter(bytes, StandardCharsets.UTF_8))) {
+            json.beginArray();
+            if (path.getStart().equals(path.getEnd())) {
+                segment(json, path.getStart(), path.getEnd(), path.getCost());
+            } else {
+                for (Path<Point>.Segment i : path) {
+                    segment(json, i.getStart(), i.getEnd(), i.getCost());
+                }
+            }
+            json.endArray();
+        } catch (IOException e) {
+            // a ByteArrayOutputStream never fails
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    // helper method writing one segment object
+    private static void segment(JsonWriter json, Point start, Point end, double cost) throws IOException {
+        json.beginObject();
+        json.name("StartX").value(Double.toString(start.getX()));
+        json.name("StartY").value(Double.toString(start.getY()));
+        json.name("EndX").value(Double.toString(end.getX()));
+        json.name("Cost").value(Double.toString(cost));
+        json.name("EndY").value(Double.toString(end.getY()));
+        json.endObject();
+    }
+}
@@ -0,0 +1,204 @@
+package campuspaths;
+
+import com.google.gson.stream.JsonWriter;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The representations the /path route can respond with. The route picks one per request
+ * from its format query parameter or, failing that, its Accept header, and falls back to
+ * LEGACY, the list of string-valued segment objects the React application reads.
+ *
+ * <p>The other formats list every point of a path once, as the polyline x0, y0, x1, y1,
+ * ..., instead of once as the end of a segment and again as the start of the next, and
+ * give the cost of the segment from point i to point i + 1 as costs[i]:</p>
+ * <ul>
+ *   <li>POLYLINE: {"cost": total, "points": [x0, y0, ...], "costs": [c0, ...]} with plain
+ *       JSON numbers</li>
+ *   <li>DELTA: like POLYLINE, but every coordinate is rounded to a multiple of 1 / scale
+ *       and, after the first point, given as the integer number of those steps from the
+ *       previous point, so {"scale": 10000, "points": [19145103, 17866130, -42700, 1300,
+ *       ...]} decodes as x1 = (19145103 - 42700) / 10000. Rounding happens before the
+ *       differences are taken, so decoding never accumulates error</li>
+ *   <li>BINARY: little-endian, a 32-bit unsigned count n of points followed by 2n
+ *       float32 coordinates and n - 1 float32 segment costs, every value 4-byte aligned
+ *       so it can be viewed directly as a Float32Array</li>
+ * </ul>
+ */
+public enum RouteFormat {
+    LEGACY("legacy", "text/plain"),
+    POLYLINE("polyline", "application/vnd.campuspaths.polyline+json"),
+    DELTA("delta", "application/vnd.campuspaths.polyline-delta+json"),
+    BINARY("binary", "application/octet-stream");
+
+    /**
+     * The number of steps per unit coordinates are rounded to in DELTA, finer than the
+     * four decimal places nearly every point of the campus data has
+     */
+    public static final int DELTA_SCALE = 10000;
+
+    private final String name;
+    private final String contentType;
+
+    RouteFormat(String name, String contentType) {
+        this.name = name;
+        this.contentType = contentType;
+    }
+
+    /**
+     * @return the name the format query parameter selects this format by
+     */
+    public String formatName() {
+        return name;
+    }
+
+    /**
+     * @return the content type of responses in this format
+     */
+    public String contentType() {
+        return contentType;
+    }
+
+    /**
+     * Picks the format of a response. The format parameter wins when present; otherwise
+     * the media type of the Accept header naming one of the formats' content types with the
+     * highest quality value selects it, the first such one on a tie. Media types with q=0
+     * are not acceptable and never selected, and anything else, such as a missing header or
+     * *&#47;*, selects LEGACY.
+     *
+     * @param format the value of the format query parameter, null if there is none
+     * @param accept the value of the Accept header, null if there is none
+     * @return the format to respond with
+     * @throws IllegalArgumentException if format is not null and names no format
+     */
+    public static RouteFormat negotiate(String format, String accept) {
+        if (format != null) {
+            String wanted = format.trim().toLowerCase(Locale.ROOT);
+            for (RouteFormat i : values()) {
+                if (i.name.equals(wanted)) {
+                    return i;
+                }
+            }
+            throw new IllegalArgumentException("Unknown format " + format);
+        }
+        RouteFormat best = LEGACY;
+        double bestQuality = 0;
+        if (accept != null) {
+            for (String range : accept.split(",")) {
+                String[] parts = range.split(";");
+                String type = parts[0].trim().toLowerCase(Locale.ROOT);
+                double quality = quality(parts);
+                if (quality <= bestQuality) {
+                    continue;
+                }
+                for (RouteFormat i : values()) {
+                    if (i != LEGACY && i.contentType.equals(type)) {
+                        best = i;
+                        bestQuality = quality;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    // helper method returning the quality value of a media range split at its semicolons,
+    // 1 if it has none and 0, so it is never selected, if the value is not a number from 0 to 1
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            int equals = parameter.indexOf('=');
+            if (equals < 0 || !parameter.substring(0, equals).trim().equalsIgnoreCase("q")) {
+                continue;
+            }
+            try {
+                double quality = Double.parseDouble(parameter.substring(equals + 1).trim());
+                return quality >= 0 && quality <= 1 ? quality : 0;
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Renders a path in this format
+     *
+     * @param path the path to render
+     * @spec.requires path != null
+     * @return the bytes of the response body
+     */
+    public byte[] render(Path<Point> path) {
+        if (this == LEGACY) {
+            return PathJson.render(path);
+        }
+        List<Point> points = new ArrayList<>();
+        List<Double> costs = new ArrayList<>();
+        points.add(path.getStart());
+        for (Path<Point>.Segment i : path) {
+            points.add(i.getEnd());
+            costs.add(i.getCost());
+        }
+        if (this == BINARY) {
+            return binary(points, costs);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 * points.size() + 64);
+        try (JsonWriter json = new JsonWriter(new OutputStreamWriter(bytes, StandardCharsets.UTF_8))) {
+            json.beginObject();
+            json.name("cost").value(path.getCost());
+            if (this == DELTA) {
+                json.name("scale").value(DELTA_SCALE);
+            }
+            json.name("points").beginArray();
+            long previousX = 0;
+            long previousY = 0;
+            for (Point i : points) {
+                if (this == DELTA) {
+                    long x = Math.round(i.getX() * DELTA_SCALE);
+                    long y = Math.round(i.getY() * DELTA_SCALE);
+                    json.value(x - previousX).value(y - previousY);
+                    previousX = x;
+                    previousY = y;
+                } else {
+                    json.value(i.getX()).value(i.getY());
+                }
+            }
+            json.endArray();
+            json.name("costs").beginArray();
+            for (double i : costs) {
+                json.value(i);
+            }
+            json.endArray();
+            json.endObject();
+        } catch (IOException e) {
+            // a ByteArrayOutputStream never fails
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    // helper method packing points and costs into the BINARY layout
+    private static byte[] binary(List<Point> points, List<Double> costs) {
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 8 * points.size() + 4 * costs.size())
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(points.size());
+        for (Point i : points) {
+            buffer.putFloat((float) i.getX()).putFloat((float) i.getY());
+        }
+        for (double i : costs) {
+            buffer.putFloat((float) i);
+        }
+        return buffer.array();
+    }
+}
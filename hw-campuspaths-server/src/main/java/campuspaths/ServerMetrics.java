@@ -0,0 +1,270 @@
+package campuspaths;
+
+import campuspaths.utils.AdmissionFilter;
+import graph.Route;
+import graph.RouteTable;
+import pathfinder.RouteCache;
+import spark.Filter;
+import spark.Spark;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.DoubleSupplier;
+
+/**
+ * The measurements of the Spark server, rendered for the /metrics route in the Prometheus
+ * text exposition format: the latency of each route and of each phase of answering a
+ * path request, the work each search did, and the counters of the caches and of the
+ * admission filter. Everything recorded while answering a request goes into a
+ * LogHistogram, so recording takes no lock and allocates nothing.
+ */
+public final class ServerMetrics {
+    // RI: routes, caches and gauges have no null keys or values
+    // AF(this) = the latency of requests to each key of routes, the latencies of the phases
+    //            lookup, search and serialization of path requests, the settled nodes and
+    //            queue pushes of each search, and the counters of each key of caches and
+    //            the current value of each key of gauges, read when rendered, and the build
+//            time, memory and starts of the route table when there is one
+
+    /**
+     * The powers of two, in nanoseconds, exposed as latency buckets: 1024ns to about 34s
+     */
+    private static final int MIN_NANOS_EXPONENT = 10;
+    private static final int MAX_NANOS_EXPONENT = 35;
+
+    /**
+     * The powers of two exposed as buckets of per-search counts: 1 to about a million
+     */
+    private static final int MAX_COUNT_EXPONENT = 20;
+
+    /**
+     * The start of the request each server thread is answering, in nanoseconds. A
+     * request is answered on one thread from the first filter to the last, and a
+     * per-thread array is reused by every request instead of allocating an attribute
+     */
+    private static final ThreadLocal<long[]> REQUEST_START = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final Map<String, LogHistogram> routes = new LinkedHashMap<>();
+    private final LogHistogram lookup = new LogHistogram();
+    private final LogHistogram search = new LogHistogram();
+    private final LogHistogram serialization = new LogHistogram();
+    private final LogHistogram settled = new LogHistogram();
+    private final LogHistogram pushes = new LogHistogram();
+    private final Map<String, RouteCache<?, ?>> caches = new LinkedHashMap<>();
+    private final Map<String, DoubleSupplier> gauges = new LinkedHashMap<>();
+    private AdmissionFilter admission;
+    private RouteTable<?> table;
+
+    /**
+     * Times every request for the given paths, from its first filter until its response
+     * is complete. Must be applied before any other filter of the paths, so the time spent
+     * waiting for admission is included.
+     *
+     * @param paths the paths of the routes to time, as given to Spark
+     * @spec.modifies this
+     */
+    public void apply(String... paths) {
+        for (String i : paths) {
+            LogHistogram latency = new LogHistogram();
+            routes.put(i, latency);
+            Filter begin = (request, response) -> REQUEST_START.get()[0] = System.nanoTime();
+            Filter end = (request, response) -> latency.record(System.nanoTime() - REQUEST_START.get()[0]);
+            Spark.before(i, begin);
+            Spark.afterAfter(i, end);
+        }
+    }
+
+    /**
+     * Exposes the counters of a cache under a name
+     *
+     * @param name the value of the cache label
+     * @param cache the cache to expose
+     * @spec.modifies this
+     */
+    public void watch(String name, RouteCache<?, ?> cache) {
+        caches.put(name, cache);
+    }
+
+    /**
+     * Exposes the counters of the admission filter
+     *
+     * @param filter the filter to expose
+     * @spec.modifies this
+     */
+    public void watch(AdmissionFilter filter) {
+        admission = filter;
+    }
+
+    /**
+     * Exposes the build time, memory and number of starts of a route table
+     *
+     * @param routeTable the route table to expose
+     * @spec.modifies this
+     */
+    public void watch(RouteTable<?> routeTable) {
+        table = routeTable;
+    }
+
+    /**
+     * Exposes a value read each time the metrics are rendered
+     *
+     * @param name the name of the metric, which must follow the Prometheus naming rules
+     * @param value the function reading the value
+     * @spec.modifies this
+     */
+    public void gauge(String name, DoubleSupplier value) {
+        gauges.put(name, value);
+    }
+
+    /**
+     * Records the time taken to find a response that was already cached, or being
+     * computed by another request
+     *
+     * @param nanos the time taken, in nanoseconds
+     */
+    public void recordLookup(long nanos) {
+        lookup.record(nanos);
+    }
+
+    /**
+     * Records a search and the work it did
+     *
+     * @param route the route found, null if there was none
+     * @param nanos the time the search took, in nanoseconds
+     */
+    public void recordSearch(Route<?> route, long nanos) {
+        search.record(nanos);
+        if (route != null) {
+            settled.record(route.getSettled());
+            pushes.record(route.getPushes());
+        }
+    }
+
+    /**
+     * Records the time taken to render a response
+     *
+     * @param nanos the time taken, in nanoseconds
+     */
+    public void recordSerialization(long nanos) {
+        serialization.record(nanos);
+    }
+
+    /**
+     * @return the metrics in the Prometheus text exposition format, version 0.0.4
+     */
+    public String render() {
+        StringBuilder out = new StringBuilder(16384);
+        family(out, "campus_request_duration_seconds", "histogram",
+                "Time from the first filter of a request until its response is complete.");
+        for (Map.Entry<String, LogHistogram> i : routes.entrySet()) {
+            histogram(out, "campus_request_duration_seconds", "route", i.getKey(), i.getValue(),
+                      MIN_NANOS_EXPONENT, MAX_NANOS_EXPONENT, 9);
+        }
+        family(out, "campus_phase_duration_seconds", "histogram",
+                "Time spent in each phase of answering a path request.");
+        histogram(out, "campus_phase_duration_seconds", "phase", "lookup", lookup,
+                  MIN_NANOS_EXPONENT, MAX_NANOS_EXPONENT, 9);
+        histogram(out, "campus_phase_duration_seconds", "phase", "search", search,
+                  MIN_NANOS_EXPONENT, MAX_NANOS_EXPONENT, 9);
+        histogram(out, "campus_phase_duration_seconds", "phase", "serialization", serialization,
+                  MIN_NANOS_EXPONENT, MAX_NANOS_EXPONENT, 9);
+        family(out, "campus_search_settled_nodes", "histogram", "Nodes settled by each search.");
+        histogram(out, "campus_search_settled_nodes", null, null, settled, 0, MAX_COUNT_EXPONENT, 0);
+        family(out, "campus_search_heap_pushes", "histogram",
+                "Priority queue additions and key changes of each search.");
+        histogram(out, "campus_search_heap_pushes", null, null, pushes, 0, MAX_COUNT_EXPONENT, 0);
+
+        Map<String, long[]> cacheCounters = new LinkedHashMap<>();
+        for (Map.Entry<String, RouteCache<?, ?>> i : caches.entrySet()) {
+            RouteCache<?, ?> cache = i.getValue();
+            cacheCounters.put(i.getKey(), new long[] {cache.hits(), cache.misses(), cache.coalesced(),
+                                                      cache.evictions(), cache.size()});
+        }
+        String[][] cacheMetrics = {
+            {"campus_cache_hits_total", "counter", "Lookups that found a cached value."},
+            {"campus_cache_misses_total", "counter", "Lookups that did not find a cached value."},
+            {"campus_cache_coalesced_total", "counter",
+             "Missed lookups that shared a computation already running for the same key."},
+            {"campus_cache_evictions_total", "counter", "Entries evicted to make room for newer ones."},
+            {"campus_cache_entries", "gauge", "Entries in the cache."}
+        };
+        for (int k = 0; k < cacheMetrics.length; k++) {
+            family(out, cacheMetrics[k][0], cacheMetrics[k][1], cacheMetrics[k][2]);
+            for (Map.Entry<String, long[]> i : cacheCounters.entrySet()) {
+                sample(out, cacheMetrics[k][0], "cache", i.getKey(), null, Long.toString(i.getValue()[k]));
+            }
+        }
+
+        if (admission != null) {
+            family(out, "campus_admission_admitted_total", "counter", "Requests admitted.");
+            sample(out, "campus_admission_admitted_total", null, null, null, Long.toString(admission.admitted()));
+            family(out, "campus_admission_shed_total", "counter", "Requests shed with a 503.");
+            sample(out, "campus_admission_shed_total", null, null, null, Long.toString(admission.shed()));
+            family(out, "campus_admission_waiting", "gauge", "Requests waiting for admission.");
+            sample(out, "campus_admission_waiting", null, null, null, Long.toString(admission.waiting()));
+        }
+        if (table != null) {
+            family(out, "campus_route_table_build_seconds", "gauge", "Time taken to build the route table.");
+            sample(out, "campus_route_table_build_seconds", null, null, null, decimal(table.getBuildNanos(), 9));
+            family(out, "campus_route_table_bytes", "gauge",
+                    "Estimated memory of the route table, not counting the graph.");
+            sample(out, "campus_route_table_bytes", null, null, null, Long.toString(table.memoryBytes()));
+            family(out, "campus_route_table_starts", "gauge", "Buildings the route table has routes from.");
+            sample(out, "campus_route_table_starts", null, null, null, Integer.toString(table.size()));
+        }
+        for (Map.Entry<String, DoubleSupplier> i : gauges.entrySet()) {
+            family(out, i.getKey(), "gauge", null);
+            sample(out, i.getKey(), null, null, null, Double.toString(i.getValue().getAsDouble()));
+        }
+        return out.toString();
+    }
+
+    // helper method writing the HELP and TYPE lines of a metric family
+    private static void family(StringBuilder out, String name, String type, String help) {
+        if (help != null) {
+            out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        }
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    // helper method writing the buckets, sum and count of a histogram, with buckets at the
+    // powers of two from minExponent to maxExponent, every value being divided by
+    // 10^decimals, such as 9 to turn nanoseconds into seconds. Values are whole numbers, so
+    // fewer than 2^k of them is the same as at most 2^k - 1, which is the bound written
+    private static void histogram(StringBuilder out, String name, String label, String value,
+                                  LogHistogram histogram, int minExponent, int maxExponent, int decimals) {
+        long count = histogram.count();
+        for (int k = minExponent; k <= maxExponent; k++) {
+            sample(out, name + "_bucket", label, value, decimal((1L << k) - 1, decimals),
+                   Long.toString(Math.min(count, histogram.countBelow(k))));
+        }
+        sample(out, name + "_bucket", label, value, "+Inf", Long.toString(count));
+        sample(out, name + "_sum", label, value, null, decimal(histogram.sum(), decimals));
+        sample(out, name + "_count", label, value, null, Long.toString(count));
+    }
+
+    // helper method writing value / 10^decimals exactly, without trailing zeros
+    private static String decimal(long value, int decimals) {
+        return BigDecimal.valueOf(value, decimals).stripTrailingZeros().toPlainString();
+    }
+
+    // helper method writing one sample, with a label when label is not null and an le
+    // label when le is not null
+    private static void sample(StringBuilder out, String name, String label, String value, String le,
+                               String sample) {
+        out.append(name);
+        if (label != null || le != null) {
+            out.append('{');
+            if (label != null) {
+                out.append(label).append("=\"").append(value.replace("\\", "\\\\").replace("\"", "\\\""))
+                   .append('"');
+            }
+            if (le != null) {
+                out.append(label != null ? "," : "").append("le=\"").append(le).append('"');
+            }
+            out.append('}');
+        }
+        out.append(' ').append(sample).append('\n');
+    }
+}
@@ -11,23 +11,45 @@
 
 package campuspaths;
 
+import campuspaths.utils.AdmissionFilter;
 import campuspaths.utils.CORSFilter;
+import campuspaths.utils.ExecutorMode;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
+import graph.Route;
+import graph.RouteTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import pathfinder.CampusMap;
+import pathfinder.Dijkstra;
+import pathfinder.RouteCache;
+import pathfinder.SearchMode;
 import pathfinder.datastructures.Path;
 import pathfinder.datastructures.Path.Segment;
 import pathfinder.datastructures.Point;
 import spark.Spark;
 
+import java.io.IOException;
 import java.lang.reflect.Type;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.function.Supplier;
 
 public class SparkServer {
     private static final String BUILDINGPATH = "campus_buildings.csv";
     private static final String EDGEPATH = "campus_paths.csv";
+    private static final Logger LOGGER = LoggerFactory.getLogger("CampusPaths Server");
 
     public static void main(String[] args) {
+        // Jetty's thread pool can only be set up before the first route or filter is added,
+        // in the mode named by campus.executor. Waiting requests hold a thread, so the
+        // admission queue below is kept smaller than the pool: a burst is shed with a 503
+        // before it can pile up in Jetty's own unbounded queue, where requests wait without
+        // any limit
+        int threads = Integer.getInteger("campus.threads", 256);
+        int concurrency = Integer.getInteger("campus.concurrency", 2 * Runtime.getRuntime().availableProcessors());
+        ExecutorMode executor = ExecutorMode.fromProperty().apply(threads, concurrency);
+
         CORSFilter corsFilter = new CORSFilter();
         corsFilter.apply();
         // The above two lines help set up some settings that allow the
@@ -38,61 +60,220 @@ public class SparkServer {
         // TODO: Create all the Spark Java routes you need here.
         // Stores the campus map object that stores all information of on campus
         // buildings and paths
-        CampusMap campus = new CampusMap(BUILDINGPATH, EDGEPATH);
+        long loadStart = System.nanoTime();
+        CampusMap campus = loadCampus();
+        long loadNanos = System.nanoTime() - loadStart;
+        LOGGER.info(String.format("Campus map loaded in %.1f ms, searching with %s, running requests on the %s",
+                                  loadNanos / 1e6, campus.searchMode(), executor));
+
+        // Time every request, including any wait for admission, for the /metrics route
+        ServerMetrics metrics = new ServerMetrics();
+        metrics.apply("/building", "/path", "/paths");
+
+        // Work on a few requests at a time, since routes are cheap to compute, queueing up
+        // to campus.queue more for at most campus.queueMillis each and shedding the rest
+        AdmissionFilter admission = new AdmissionFilter(concurrency,
+                Integer.getInteger("campus.queue", threads / 2),
+                Long.getLong("campus.queueMillis", 250), 1);
+        admission.apply("/building", "/path", "/paths");
+
+        // The buildings never change, so their JSON is rendered once and tagged, letting a
+        // client that already has it get a 304 instead
+        JsonPayload buildings = new JsonPayload(new Gson().toJson(campus.buildingNames()));
+        // The rendered responses of recently requested paths between buildings, keyed by
+        // start, end, search mode and format, each rendered from the path the campus map
+        // caches, so that requests for the same pair in different formats share a single
+        // search. /paths searches with DIJKSTRA whatever campus.mode is, and the mode in the
+        // key keeps its responses from being served for /path in another mode or the reverse
+        RouteCache<List<String>, byte[]> pathPayloads = new RouteCache<>(CampusMap.ROUTE_CACHE_CAPACITY);
+
+        metrics.watch(admission);
+        metrics.watch("payload", pathPayloads);
+        metrics.watch("route", campus.routeCache());
+        metrics.gauge("campus_load_seconds", () -> loadNanos / 1e9);
+        if (campus.searchMode() == SearchMode.ROUTE_TABLE) {
+            // built with the campus map, so its cost is known before deciding to keep it on
+            RouteTable<Point> table = campus.routeTable();
+            metrics.watch(table);
+            LOGGER.info(String.format("Route table of %d buildings built in %.1f ms, taking %.1f MB",
+                                      table.size(), table.getBuildNanos() / 1e6, table.memoryBytes() / 1e6));
+        }
+        metrics.gauge("campus_graph_nodes", () -> campus.graph().nodeNum());
 
         // Return the list of avaliable buildings
         Spark.get("/building", (req, res) -> {
-            Gson gson = new Gson();
-            Map<String, String> building = campus.buildingNames();
-            String gsonString = gson.toJson(building);
             res.type("text/plain");
-            return gsonString;
+            res.header("ETag", buildings.etag());
+            res.header("Cache-Control", "no-cache");
+            if (buildings.matches(req.headers("If-None-Match"))) {
+                res.status(304);
+                return "";
+            }
+            return buildings.bytes();
         });
 
 
-        // Return the shortest path given the start and end buildings
+        // Return the shortest path given the start and end buildings, or given the
+        // coordinates fromX, fromY, toX and toY, which are snapped to the nearest path nodes.
+        // The format parameter or the Accept header may ask for one of the compact
+        // representations of RouteFormat instead of the list of segments
         Spark.get("/path", (req, res) -> {
             String start = req.queryParams("start");
             String end = req.queryParams("end");
-            if (start == null || end == null) {
+            RouteFormat format;
+            try {
+                format = RouteFormat.negotiate(req.queryParams("format"), req.headers("Accept"));
+            } catch (IllegalArgumentException e) {
                 res.status(400);
-                return "Missing start or end";
-            } else {
-                res.type("text/plain");
-                Path<Point> path = campus.findShortestPath(start, end);
-                if (path == null) {
+                return e.getMessage();
+            }
+            res.header("Vary", "Accept");
+            if (start != null && end != null) {
+                // the time spent searching and rendering on this thread, which is not lookup
+                long[] computing = new long[1];
+                long begin = System.nanoTime();
+                List<String> payloadKey = Arrays.asList(start, end, campus.searchMode().name(), format.formatName());
+                byte[] body = pathPayloads.get(payloadKey, key -> {
+                    Path<Point> path = campus.findShortestPath(start, end, campus.searchMode(), (route, nanos) -> {
+                        metrics.recordSearch(route, nanos);
+                        computing[0] += nanos;
+                    });
+                    long renderStart = System.nanoTime();
+                    byte[] rendered = render(metrics, path, format);
+                    computing[0] += System.nanoTime() - renderStart;
+                    return rendered;
+                });
+                metrics.recordLookup(System.nanoTime() - begin - computing[0]);
+                if (body == null) {
+                    res.type("text/plain");
                     return "no Path found";
-                // Edge case when the path does not contain any segment
-                } else if (path.getStart().equals(path.getEnd())) {
-                    Map<String, String> cur = new HashMap<>();
-                    cur.put("StartX", Double.toString(path.getStart().getX()));
-                    cur.put("StartY", Double.toString(path.getStart().getY()));
-                    cur.put("EndX", Double.toString(path.getEnd().getX()));
-                    cur.put("EndY", Double.toString(path.getEnd().getY()));
-                    cur.put("Cost", Double.toString(path.getCost()));
-                    List<Map<String, String>> list = new LinkedList<>();
-                    list.add(cur);
-                    Gson gson = new Gson();
-                    String json = gson.toJson(list);
-                    return json;
-                } else {
-                    List<Map<String, String>> list = new LinkedList<>();
-                    Iterator<Path<Point>.Segment> itr = path.iterator();
-                    while (itr.hasNext()) {
-                        Path<Point>.Segment seg =itr.next();
-                        Map<String, String> cur = new HashMap<>();
-                        cur.put("StartX", Double.toString(seg.getStart().getX()));
-                        cur.put("StartY", Double.toString(seg.getStart().getY()));
-                        cur.put("EndX", Double.toString(seg.getEnd().getX()));
-                        cur.put("EndY", Double.toString(seg.getEnd().getY()));
-                        cur.put("Cost", Double.toString(seg.getCost()));
-                        list.add(cur);
+                }
+                res.type(format.contentType());
+                return body;
+            } else if (req.queryParams("fromX") != null) {
+                double[] coordinates = new double[4];
+                String[] names = {"fromX", "fromY", "toX", "toY"};
+                for (int i = 0; i < names.length; i++) {
+                    String value = req.queryParams(names[i]);
+                    try {
+                        coordinates[i] = Double.parseDouble(value == null ? "" : value);
+                    } catch (NumberFormatException e) {
+                        coordinates[i] = Double.NaN;
+                    }
+                    if (!Double.isFinite(coordinates[i])) {
+                        res.status(400);
+                        return "Missing or invalid " + names[i];
                     }
-                    Gson gson = new Gson();
-                    String json = gson.toJson(list);
-                    return json;
                 }
+                Route<Point> route = search(metrics, () -> campus.findRoute(
+                        coordinates[0], coordinates[1], coordinates[2], coordinates[3], campus.searchMode()));
+                byte[] body = render(metrics, Dijkstra.toPath(route), format);
+                if (body == null) {
+                    res.type("text/plain");
+                    return "no Path found";
+                }
+                res.type(format.contentType());
+                return body;
+            } else {
+                res.status(400);
+                return "Missing start or end";
             }
         });
+
+        // Return many routes at once, given a JSON body of building pairs, or the distance
+        // matrix between lists of sources and targets as described in PathBatch. Pairs
+        // sharing a start building are answered by one search from it
+        Spark.post("/paths", (req, res) -> {
+            PathBatch batch;
+            RouteFormat format;
+            try {
+                batch = PathBatch.parse(req.body());
+                format = RouteFormat.negotiate(req.queryParams("format"), req.headers("Accept"));
+            } catch (IllegalArgumentException e) {
+                res.status(400);
+                return e.getMessage();
+            }
+            try {
+                if (batch.isMatrix()) {
+                    res.type("application/json");
+                    return batch.matrix(campus);
+                }
+                if (format == RouteFormat.BINARY) {
+                    res.status(406);
+                    return "A batch of routes cannot be binary";
+                }
+                res.header("Vary", "Accept");
+                res.type(format == RouteFormat.LEGACY ? "application/json" : format.contentType());
+                return batch.routes(campus, format, pathPayloads);
+            } catch (IllegalArgumentException e) {
+                res.type("text/plain");
+                res.status(400);
+                return e.getMessage();
+            }
+        });
+
+        // Return the measurements of the server in the Prometheus text format. Not behind
+        // the admission filter, so the server can still be watched while it sheds load
+        Spark.get("/metrics", (req, res) -> {
+            res.type("text/plain; version=0.0.4; charset=utf-8");
+            return metrics.render();
+        });
+    }
+
+    // Runs a search, recording its time and the work it did in metrics. Returns the route
+    // found, null if there is none
+    private static Route<Point> search(ServerMetrics metrics, Supplier<Route<Point>> search) {
+        long searchStart = System.nanoTime();
+        Route<Point> route = search.get();
+        metrics.recordSearch(route, System.nanoTime() - searchStart);
+        return route;
+    }
+
+    // Renders a path in a format, recording the time taken in metrics. Returns null if
+    // there is no path
+    private static byte[] render(ServerMetrics metrics, Path<Point> path, RouteFormat format) {
+        if (path == null) {
+            return null;
+        }
+        long renderStart = System.nanoTime();
+        byte[] rendered = format.render(path);
+        metrics.recordSerialization(System.nanoTime() - renderStart);
+        return rendered;
+    }
+
+    // Loads the campus map from the compiled campus graph named by the campus.graph system
+    // property, which the runSpark task builds beforehand. If that file cannot be read the
+    // CSV files are compiled into it instead. Without the property the CSV files are parsed
+    // on every start and nothing is written, since a graph file in a shared directory such
+    // as the temporary one could be replaced by another user and its checksum forged.
+    // The map searches with the mode named by the campus.mode property, DIJKSTRA by default,
+    // and builds what that mode needs, such as a contraction hierarchy, before returning
+    private static CampusMap loadCampus() {
+        SearchMode mode = searchMode();
+        String compiled = System.getProperty("campus.graph");
+        if (compiled != null) {
+            try {
+                return CampusMap.load(Paths.get(compiled), mode);
+            } catch (IOException e) {
+                LOGGER.warn("Could not load " + compiled + ", compiling it", e);
+                return CampusMap.cached(BUILDINGPATH, EDGEPATH, Paths.get(compiled), mode);
+            }
+        }
+        return new CampusMap(BUILDINGPATH, EDGEPATH, mode);
+    }
+
+    // Returns the SearchMode named by the campus.mode system property, in any case, or
+    // DIJKSTRA if it is missing or names no mode
+    private static SearchMode searchMode() {
+        String name = System.getProperty("campus.mode");
+        if (name == null) {
+            return SearchMode.DIJKSTRA;
+        }
+        try {
+            return SearchMode.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Unknown campus.mode " + name + ", searching with " + SearchMode.DIJKSTRA);
+            return SearchMode.DIJKSTRA;
+        }
     }
 }
@@ -0,0 +1,175 @@
+package campuspaths.utils;
+
+import spark.Filter;
+import spark.Request;
+import spark.Response;
+import spark.Spark;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The AdmissionFilter bounds how many requests the Spark server works on at once. A
+ * request over the limit waits in a bounded queue, in arrival order, for at most a fixed
+ * time; a request that finds the queue full, or waits too long, is shed at once with a
+ * 503 and a Retry-After header instead of holding a Jetty thread and adding to the
+ * latency of everyone behind it. Routes are cheap to compute, so a burst is served
+ * fastest by a few requests at a time running without contention.
+ */
+public class AdmissionFilter {
+    // RI: permits != null && queueLimit >= 0 && maxWaitMillis >= 0 && retryAfterSeconds >= 1
+    //     && 0 <= waiting <= queueLimit
+    // AF(this) = a gate letting at most the initial number of permits requests run at once,
+    //            with waiting requests queued behind them; admitted and shed count the
+    //            requests let in and turned away
+
+    /**
+     * The request attribute marking a request as holding a permit, so the permit is
+     * released exactly once and only by requests that took one
+     */
+    private static final String ADMITTED = AdmissionFilter.class.getName() + ".admitted";
+
+    private final Semaphore permits;
+    private final int queueLimit;
+    private final long maxWaitMillis;
+    private final int retryAfterSeconds;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+
+    /**
+     * Creates a filter, which does nothing until it is applied
+     *
+     * @param concurrency the most requests to work on at once
+     * @param queueLimit the most requests to keep waiting for a turn
+     * @param maxWaitMillis the longest a request may wait for its turn, in milliseconds
+     * @param retryAfterSeconds the Retry-After sent with a shed request, in seconds
+     * @throws IllegalArgumentException if concurrency &lt; 1, queueLimit &lt; 0,
+     *                                  maxWaitMillis &lt; 0 or retryAfterSeconds &lt; 1
+     */
+    public AdmissionFilter(int concurrency, int queueLimit, long maxWaitMillis, int retryAfterSeconds) {
+        if (concurrency < 1 || queueLimit < 0 || maxWaitMillis < 0 || retryAfterSeconds < 1) {
+            throw new IllegalArgumentException("invalid admission limits");
+        }
+        this.permits = new Semaphore(concurrency, true);
+        this.queueLimit = queueLimit;
+        this.maxWaitMillis = maxWaitMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+        checkRep();
+    }
+
+    /**
+     * Applies the filter to requests for the given paths: each request takes a turn before
+     * its route runs and gives it back once its response is complete, even if the route
+     * halts or throws.
+     *
+     * @param paths the paths of the routes to bound, as given to Spark
+     */
+    public void apply(String... paths) {
+        Filter enter = enterFilter();
+        Filter leave = leaveFilter();
+        for (String i : paths) {
+            Spark.before(i, enter);
+            Spark.afterAfter(i, leave);
+        }
+    }
+
+    /**
+     * @return the filter run before a route, which takes a turn for the request or halts
+     *         it with a 503 and a Retry-After header if it cannot get one
+     */
+    public Filter enterFilter() {
+        return (Request request, Response response) -> {
+            if (!tryEnter()) {
+                response.header("Retry-After", Integer.toString(retryAfterSeconds));
+                Spark.halt(503, "Server busy, retry later");
+            }
+            request.attribute(ADMITTED, Boolean.TRUE);
+        };
+    }
+
+    /**
+     * @return the filter run once a response is complete, which gives back the turn of a
+     *         request that took one, at most once per request
+     */
+    public Filter leaveFilter() {
+        return (Request request, Response response) -> {
+            if (request.attribute(ADMITTED) != null) {
+                request.attribute(ADMITTED, null);
+                exit();
+            }
+        };
+    }
+
+    /**
+     * Takes a turn, waiting for one if every turn is taken and the queue has room
+     *
+     * @spec.modifies this
+     * @return true iff a turn was taken, which must be given back with exit()
+     */
+    public boolean tryEnter() {
+        boolean entered;
+        try {
+            // a timed tryAcquire keeps to arrival order, so this never overtakes the queue
+            entered = permits.tryAcquire(0, TimeUnit.MILLISECONDS);
+            if (!entered) {
+                if (waiting.incrementAndGet() > queueLimit) {
+                    waiting.decrementAndGet();
+                    shed.increment();
+                    return false;
+                }
+                try {
+                    entered = permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+                } finally {
+                    waiting.decrementAndGet();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            entered = false;
+        }
+        if (entered) {
+            admitted.increment();
+        } else {
+            shed.increment();
+        }
+        return entered;
+    }
+
+    /**
+     * Gives back a turn taken by tryEnter
+     *
+     * @spec.modifies this
+     */
+    public void exit() {
+        permits.release();
+    }
+
+    /**
+     * @return the number of requests let in so far
+     */
+    public long admitted() {
+        return admitted.sum();
+    }
+
+    /**
+     * @return the number of requests shed so far
+     */
+    public long shed() {
+        return shed.sum();
+    }
+
+    /**
+     * @return the number of requests waiting for a turn right now
+     */
+    public int waiting() {
+        return waiting.get();
+    }
+
+    private void checkRep() {
+        assert permits != null : "permits is null";
+        assert queueLimit >= 0 && maxWaitMillis >= 0 && retryAfterSeconds >= 1 : "invalid limits";
+    }
+}
@@ -0,0 +1,71 @@
+package campuspaths.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import spark.Spark;
+
+import java.util.Locale;
+
+/**
+ * The ways the Spark server can run its requests, chosen with the campus.executor system
+ * property. Whichever is used, the AdmissionFilter still bounds how many requests run at
+ * once and sheds the rest, so the executor only decides what a waiting request costs.
+ */
+public enum ExecutorMode {
+    /**
+     * Jetty's bounded thread pool, tuned so the threads the admission filter lets run are
+     * always started: at most campus.threads threads, keeping at least one per admission
+     * permit alive between bursts instead of starting them when a burst arrives.
+     */
+    POOL,
+
+    /**
+     * One virtual thread per request, so a request waiting on a slow client or for
+     * admission holds no platform thread. Virtual threads need Java 21, and Spark 2.8 only
+     * lets the size of Jetty's pool be set, not its executor, so on this build it falls
+     * back to POOL with a warning. This is the hook for a newer JDK: apply is the one
+     * place the executor is chosen, and it is where a Spark embedded server whose Jetty
+     * pool runs tasks on Executors.newVirtualThreadPerTaskExecutor() would be installed,
+     * such as through Jetty's QueuedThreadPool#setVirtualThreadsExecutor.
+     */
+    VIRTUAL;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExecutorMode.class);
+
+    /**
+     * Returns the mode named by the campus.executor system property, in any case
+     *
+     * @return the mode named by campus.executor, or POOL if it is missing or names no mode
+     */
+    public static ExecutorMode fromProperty() {
+        String name = System.getProperty("campus.executor");
+        if (name == null) {
+            return POOL;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Unknown campus.executor " + name + ", running requests on the " + POOL);
+            return POOL;
+        }
+    }
+
+    /**
+     * Sets Spark up to run requests in this mode. Must be called before the first route or
+     * filter is added, since Spark sizes Jetty's pool when it starts the server
+     *
+     * @param threads the most threads Jetty's pool may have
+     * @param concurrency the most requests the admission filter lets run at once
+     * @spec.requires threads &gt;= 1 &amp;&amp; concurrency &gt;= 1
+     * @return the mode requests will run in, POOL when this mode is not available
+     */
+    public ExecutorMode apply(int threads, int concurrency) {
+        if (this == VIRTUAL) {
+            LOGGER.warn("campus.executor=" + VIRTUAL + " needs Java 21 and a Spark build whose Jetty "
+                        + "accepts a virtual thread executor, running requests on the " + POOL);
+            return POOL.apply(threads, concurrency);
+        }
+        Spark.threadPool(threads, Math.min(threads, Math.max(8, concurrency)), 60000);
+        return POOL;
+    }
+}
@@ -0,0 +1,214 @@
+package campuspaths.junitTests;
+
+import campuspaths.utils.AdmissionFilter;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import spark.Filter;
+import spark.HaltException;
+import spark.Request;
+import spark.Response;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * AdmissionFilterTest is a glassbox test of the AdmissionFilter class: how many requests
+ * it lets in, how long it queues the rest, and the 503 and release of its Spark filters,
+ * which are run here on stub requests without starting a server.
+ */
+public class AdmissionFilterTest {
+    @Rule public Timeout globalTimeout = Timeout.seconds(20);
+
+    /**
+     * A request holding only attributes
+     */
+    private static class StubRequest extends Request {
+        private final Map<String, Object> attributes = new HashMap<>();
+
+        @Override
+        public void attribute(String name, Object value) {
+            if (value == null) {
+                attributes.remove(name);
+            } else {
+                attributes.put(name, value);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T attribute(String name) {
+            return (T) attributes.get(name);
+        }
+    }
+
+    /**
+     * A response holding only headers
+     */
+    private static class StubResponse extends Response {
+        private final Map<String, String> headers = new HashMap<>();
+
+        @Override
+        public void header(String name, String value) {
+            headers.put(name, value);
+        }
+    }
+
+    // helper method returning how many turns are free, taking and giving them all back
+    private static int freeTurns(AdmissionFilter filter) {
+        int free = 0;
+        while (filter.tryEnter()) {
+            free++;
+        }
+        for (int i = 0; i < free; i++) {
+            filter.exit();
+        }
+        return free;
+    }
+
+    // helper method waiting until the filter has the given number of waiting requests
+    private static void awaitWaiting(AdmissionFilter filter, int count) throws InterruptedException {
+        while (filter.waiting() != count) {
+            Thread.sleep(1);
+        }
+    }
+
+    /** Tests invalid limits are rejected */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidLimits() {
+        new AdmissionFilter(0, 1, 1, 1);
+    }
+
+    /** Tests no more than the concurrency is let in and a turn given back is taken again */
+    @Test
+    public void testConcurrency() {
+        AdmissionFilter filter = new AdmissionFilter(2, 0, 0, 1);
+        assertTrue(filter.tryEnter());
+        assertTrue(filter.tryEnter());
+        assertFalse(filter.tryEnter());
+        filter.exit();
+        assertTrue(filter.tryEnter());
+        assertEquals(3, filter.admitted());
+        assertEquals(1, filter.shed());
+    }
+
+    /** Tests a queued request is shed after its wait and one finding the queue full at once */
+    @Test
+    public void testQueueTimeout() throws InterruptedException {
+        AdmissionFilter filter = new AdmissionFilter(1, 1, 200, 1);
+        assertTrue(filter.tryEnter());
+        AtomicBoolean entered = new AtomicBoolean(true);
+        long[] waited = new long[1];
+        Thread queued = new Thread(() -> {
+            long begin = System.nanoTime();
+            entered.set(filter.tryEnter());
+            waited[0] = System.nanoTime() - begin;
+        });
+        queued.start();
+        awaitWaiting(filter, 1);
+        long begin = System.nanoTime();
+        assertFalse(filter.tryEnter());
+        assertTrue("a full queue made a request wait", System.nanoTime() - begin < 150_000_000L);
+        queued.join();
+        assertFalse(entered.get());
+        assertTrue("gave up after " + waited[0] + "ns", waited[0] >= 190_000_000L);
+        assertEquals(0, filter.waiting());
+        assertEquals(1, filter.admitted());
+        assertEquals(2, filter.shed());
+    }
+
+    /** Tests a queued request is let in as soon as a turn is given back */
+    @Test
+    public void testQueuedRequestAdmitted() throws InterruptedException {
+        AdmissionFilter filter = new AdmissionFilter(1, 1, 10000, 1);
+        assertTrue(filter.tryEnter());
+        AtomicBoolean entered = new AtomicBoolean();
+        Thread queued = new Thread(() -> entered.set(filter.tryEnter()));
+        queued.start();
+        awaitWaiting(filter, 1);
+        filter.exit();
+        queued.join();
+        assertTrue(entered.get());
+        assertEquals(2, filter.admitted());
+        assertEquals(0, filter.shed());
+    }
+
+    /** Tests the enter filter halts with a 503 and Retry-After, and the leave filter releases once */
+    @Test
+    public void testFilters() throws Exception {
+        AdmissionFilter filter = new AdmissionFilter(1, 0, 0, 7);
+        Filter enter = filter.enterFilter();
+        Filter leave = filter.leaveFilter();
+        StubRequest first = new StubRequest();
+        StubResponse firstResponse = new StubResponse();
+        enter.handle(first, firstResponse);
+        assertTrue(firstResponse.headers.isEmpty());
+
+        StubRequest second = new StubRequest();
+        StubResponse secondResponse = new StubResponse();
+        try {
+            enter.handle(second, secondResponse);
+            fail("admitted a request over the limit");
+        } catch (HaltException e) {
+            assertEquals(503, e.statusCode());
+        }
+        assertEquals("7", secondResponse.headers.get("Retry-After"));
+
+        // a shed request holds no turn, so completing it gives none back
+        leave.handle(second, secondResponse);
+        assertEquals(0, freeTurns(filter));
+        leave.handle(first, firstResponse);
+        assertEquals(1, freeTurns(filter));
+        // completing the same request twice gives its turn back once
+        leave.handle(first, firstResponse);
+        assertEquals(1, freeTurns(filter));
+    }
+
+    /** Tests a burst of 64 requests never has more than the concurrency running at once */
+    @Test
+    public void testBurst() throws InterruptedException {
+        int concurrency = 4;
+        AdmissionFilter filter = new AdmissionFilter(concurrency, 8, 50, 1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger mostRunning = new AtomicInteger();
+        CountDownLatch go = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    go.await();
+                    if (filter.tryEnter()) {
+                        try {
+                            mostRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                            Thread.sleep(20);
+                        } finally {
+                            running.decrementAndGet();
+                            filter.exit();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        go.countDown();
+        for (Thread i : threads) {
+            i.join();
+        }
+        assertTrue("ran " + mostRunning.get() + " at once", mostRunning.get() <= concurrency);
+        assertEquals(64, filter.admitted() + filter.shed());
+        assertTrue(filter.admitted() >= concurrency);
+        assertTrue(filter.shed() > 0);
+        assertEquals(0, filter.waiting());
+        assertEquals(concurrency, freeTurns(filter));
+    }
+}
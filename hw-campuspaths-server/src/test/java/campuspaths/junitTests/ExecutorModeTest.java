@@ -0,0 +1,41 @@
+package campuspaths.junitTests;
+
+import campuspaths.utils.ExecutorMode;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import static org.junit.Assert.*;
+
+/**
+ * ExecutorModeTest is a glassbox test of choosing how the server runs its requests with
+ * the campus.executor system property.
+ */
+public class ExecutorModeTest {
+    @Rule public Timeout globalTimeout = Timeout.seconds(10);
+
+    @After
+    public void clearProperty() {
+        System.clearProperty("campus.executor");
+    }
+
+    /** Tests campus.executor names a mode in any case, and POOL is used otherwise */
+    @Test
+    public void testFromProperty() {
+        assertEquals(ExecutorMode.POOL, ExecutorMode.fromProperty());
+        System.setProperty("campus.executor", " virtual ");
+        assertEquals(ExecutorMode.VIRTUAL, ExecutorMode.fromProperty());
+        System.setProperty("campus.executor", "POOL");
+        assertEquals(ExecutorMode.POOL, ExecutorMode.fromProperty());
+        System.setProperty("campus.executor", "fibers");
+        assertEquals(ExecutorMode.POOL, ExecutorMode.fromProperty());
+    }
+
+    /** Tests VIRTUAL falls back to the pool, since Spark 2.8 cannot take another executor */
+    @Test
+    public void testVirtualFallsBack() {
+        assertEquals(ExecutorMode.POOL, ExecutorMode.VIRTUAL.apply(16, 4));
+        assertEquals(ExecutorMode.POOL, ExecutorMode.POOL.apply(16, 4));
+    }
+}
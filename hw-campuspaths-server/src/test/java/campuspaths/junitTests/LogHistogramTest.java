@@ -0,0 +1,95 @@
+package campuspaths.junitTests;
+
+import campuspaths.LogHistogram;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import static org.junit.Assert.*;
+
+/**
+ * LogHistogramTest is a glassbox test of the LogHistogram class: its buckets, its exact
+ * counts below powers of two and its quantile estimates.
+ */
+public class LogHistogramTest {
+    @Rule public Timeout globalTimeout = Timeout.seconds(10);
+
+    /** Tests an empty histogram counts, sums and estimates nothing */
+    @Test
+    public void testEmpty() {
+        LogHistogram histogram = new LogHistogram();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.sum());
+        assertEquals(0, histogram.countBelow(0));
+        assertEquals(0, histogram.countBelow(62));
+        assertEquals(0, histogram.quantile(0.5));
+    }
+
+    /** Tests the count and sum are exact, negative values being recorded as 0 */
+    @Test
+    public void testCountAndSum() {
+        LogHistogram histogram = new LogHistogram();
+        histogram.record(5);
+        histogram.record(1000);
+        histogram.record(-7);
+        histogram.record(1L << 40);
+        assertEquals(4, histogram.count());
+        assertEquals(1005 + (1L << 40), histogram.sum());
+        assertEquals(1, histogram.countBelow(0));
+    }
+
+    /** Tests counts below every power of two are exact for every small value */
+    @Test
+    public void testCountBelowSmallValues() {
+        LogHistogram histogram = new LogHistogram();
+        for (int i = 0; i < 300; i++) {
+            histogram.record(i);
+        }
+        for (int k = 0; k <= 62; k++) {
+            assertEquals("below 2^" + k, Math.min(300, 1L << k), histogram.countBelow(k));
+        }
+    }
+
+    /** Tests 2^k - 1 is counted below 2^k and 2^k is not, for every power of two */
+    @Test
+    public void testCountBelowBoundaries() {
+        for (int k = 1; k <= 62; k++) {
+            LogHistogram histogram = new LogHistogram();
+            histogram.record((1L << k) - 1);
+            histogram.record(1L << k);
+            assertEquals("below 2^" + k, 1, histogram.countBelow(k));
+            assertEquals("below 2^" + (k - 1), 0, histogram.countBelow(k - 1));
+            if (k < 62) {
+                assertEquals("below 2^" + (k + 1), 2, histogram.countBelow(k + 1));
+            }
+        }
+    }
+
+    /** Tests the largest long has a bucket, above every power of two countBelow accepts */
+    @Test
+    public void testLargestValue() {
+        LogHistogram histogram = new LogHistogram();
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(1, histogram.count());
+        assertEquals(0, histogram.countBelow(62));
+        assertTrue(histogram.quantile(1) >= 3 * (1L << 61));
+    }
+
+    /** Tests quantiles are within 12.5% of the value of their rank */
+    @Test
+    public void testQuantile() {
+        LogHistogram histogram = new LogHistogram();
+        for (int i = 1; i <= 100000; i++) {
+            histogram.record(i);
+        }
+        double[] quantiles = {0.01, 0.1, 0.5, 0.9, 0.99, 0.999, 1};
+        for (double q : quantiles) {
+            double exact = Math.ceil(q * 100000);
+            assertEquals("quantile " + q, exact, histogram.quantile(q), exact * 0.125);
+        }
+        LogHistogram small = new LogHistogram();
+        small.record(3);
+        assertEquals(3, small.quantile(0));
+        assertEquals(3, small.quantile(1));
+    }
+}
@@ -0,0 +1,41 @@
+package campuspaths.junitTests;
+
+import campuspaths.PathBatch;
+import campuspaths.RouteFormat;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.CampusMap;
+import pathfinder.RouteCache;
+import pathfinder.SearchMode;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * PathBatchTest is a glassbox test of how the PathBatch class shares rendered paths with
+ * the /path route.
+ */
+public class PathBatchTest {
+    @Rule public Timeout globalTimeout = Timeout.seconds(10);
+
+    /** Tests a batch only shares the rendered paths of its own search mode */
+    @Test
+    public void testPayloadsKeyedByMode() {
+        CampusMap campus = new CampusMap("campus_buildings.csv", "campus_paths.csv", SearchMode.A_STAR);
+        RouteCache<List<String>, byte[]> payloads = new RouteCache<>(16);
+        List<String> other = Arrays.asList("CSE", "MGH", SearchMode.A_STAR.name(), RouteFormat.POLYLINE.formatName());
+        byte[] marker = "\"from A_STAR\"".getBytes(StandardCharsets.UTF_8);
+        payloads.get(other, key -> marker);
+
+        byte[] body = PathBatch.parse("{\"pairs\": [[\"CSE\", \"MGH\"]]}").routes(campus, RouteFormat.POLYLINE, payloads);
+        byte[] rendered = RouteFormat.POLYLINE.render(campus.findShortestPath("CSE", "MGH", SearchMode.DIJKSTRA));
+        assertEquals("[" + new String(rendered, StandardCharsets.UTF_8) + "]", new String(body, StandardCharsets.UTF_8));
+        assertTrue(payloads.contains(Arrays.asList("CSE", "MGH", SearchMode.DIJKSTRA.name(),
+                                                   RouteFormat.POLYLINE.formatName())));
+        assertSame(marker, payloads.get(other, key -> null));
+    }
+}
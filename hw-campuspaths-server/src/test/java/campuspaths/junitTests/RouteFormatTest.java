@@ -0,0 +1,251 @@
+package campuspaths.junitTests;
+
+import campuspaths.RouteFormat;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.CampusMap;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * RouteFormatTest is a glassbox test of the RouteFormat class: choosing a format from the
+ * format parameter and the Accept header, and rendering paths in every format.
+ */
+public class RouteFormatTest {
+    @Rule public Timeout globalTimeout = Timeout.seconds(10);
+
+    private static final double DELTA = 0;
+
+    private static List<Path<Point>> campusPaths;
+
+    @BeforeClass
+    public static void loadCampus() {
+        CampusMap campus = new CampusMap("campus_buildings.csv", "campus_paths.csv");
+        campusPaths = new ArrayList<>();
+        String[][] pairs = {{"CSE", "MGH"}, {"KNE", "SUZ"}, {"BAG", "CS2"}, {"MGH", "MGH"}};
+        for (String[] i : pairs) {
+            campusPaths.add(campus.findShortestPath(i[0], i[1]));
+        }
+    }
+
+    // helper method returning the path (0, 0) -> (3, 4) -> (3, 10.5) with costs 5 and 6.5
+    private static Path<Point> smallPath() {
+        return new Path<>(new Point(0, 0)).extend(new Point(3, 4), 5).extend(new Point(3, 10.5), 6.5);
+    }
+
+    // helper method returning the points of a path, start first
+    private static List<Point> points(Path<Point> path) {
+        List<Point> points = new ArrayList<>();
+        points.add(path.getStart());
+        for (Path<Point>.Segment i : path) {
+            points.add(i.getEnd());
+        }
+        return points;
+    }
+
+    // helper method parsing a JSON response body
+    private static JsonObject parse(byte[] body) {
+        return new JsonParser().parse(new String(body, StandardCharsets.UTF_8)).getAsJsonObject();
+    }
+
+    // helper method rendering a path as the server did with a list of HashMaps and Gson
+    private static String gsonMaps(Path<Point> path) {
+        List<Map<String, String>> list = new LinkedList<>();
+        if (path.getStart().equals(path.getEnd())) {
+            list.add(segment(path.getStart(), path.getEnd(), path.getCost()));
+        } else {
+            for (Path<Point>.Segment i : path) {
+                list.add(segment(i.getStart(), i.getEnd(), i.getCost()));
+            }
+        }
+        return new Gson().toJson(list);
+    }
+
+    // helper method returning the map of one segment, as the server built it
+    private static Map<String, String> segment(Point start, Point end, double cost) {
+        Map<String, String> cur = new HashMap<>();
+        cur.put("StartX", Double.toString(start.getX()));
+        cur.put("StartY", Double.toString(start.getY()));
+        cur.put("EndX", Double.toString(end.getX()));
+        cur.put("EndY", Double.toString(end.getY()));
+        cur.put("Cost", Double.toString(cost));
+        return cur;
+    }
+
+    /** Tests the format parameter picks a format by name, in any case, over the Accept header */
+    @Test
+    public void testNegotiateFormatParameter() {
+        assertEquals(RouteFormat.LEGACY, RouteFormat.negotiate("legacy", null));
+        assertEquals(RouteFormat.POLYLINE, RouteFormat.negotiate("polyline", null));
+        assertEquals(RouteFormat.DELTA, RouteFormat.negotiate("DELTA", null));
+        assertEquals(RouteFormat.BINARY, RouteFormat.negotiate(" Binary ", "application/octet-stream"));
+        assertEquals(RouteFormat.LEGACY, RouteFormat.negotiate("legacy", "application/octet-stream"));
+        try {
+            RouteFormat.negotiate("xml", null);
+            fail("negotiated an unknown format");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /** Tests a media type of the Accept header naming a format picks it */
+    @Test
+    public void testNegotiateAccept() {
+        assertEquals(RouteFormat.LEGACY, RouteFormat.negotiate(null, null));
+        assertEquals(RouteFormat.LEGACY, RouteFormat.negotiate(null, "*/*"));
+        assertEquals(RouteFormat.LEGACY, RouteFormat.negotiate(null, "text/html, application/json;q=0.9"));
+        assertEquals(RouteFormat.BINARY, RouteFormat.negotiate(null, "application/octet-stream"));
+        assertEquals(RouteFormat.DELTA, RouteFormat.negotiate(null,
+                "text/html, application/vnd.campuspaths.polyline-delta+json;q=0.9, */*;q=0.1"));
+        assertEquals(RouteFormat.POLYLINE, RouteFormat.negotiate(null,
+                " Application/VND.campuspaths.polyline+JSON ; q=1"));
+        assertEquals(RouteFormat.BINARY, RouteFormat.negotiate(null,
+                "application/octet-stream, application/vnd.campuspaths.polyline+json"));
+        // the content type of LEGACY is too generic to select it over the default
+        assertEquals(RouteFormat.LEGACY, RouteFormat.negotiate(null, "text/plain"));
+    }
+
+    /** Tests the Accept header picks the format with the highest quality value, never one with q=0 */
+    @Test
+    public void testNegotiateQuality() {
+        assertEquals(RouteFormat.LEGACY, RouteFormat.negotiate(null,
+                "application/octet-stream;q=0, application/json"));
+        assertEquals(RouteFormat.LEGACY, RouteFormat.negotiate(null, "application/octet-stream; Q=0.000"));
+        assertEquals(RouteFormat.POLYLINE, RouteFormat.negotiate(null,
+                "application/octet-stream;q=0, application/vnd.campuspaths.polyline+json;q=0.2"));
+        assertEquals(RouteFormat.DELTA, RouteFormat.negotiate(null,
+                "application/octet-stream;q=0.5, application/vnd.campuspaths.polyline-delta+json;q=0.8"));
+        assertEquals(RouteFormat.BINARY, RouteFormat.negotiate(null,
+                "application/vnd.campuspaths.polyline+json;q=0.5, application/octet-stream"));
+        // a tie goes to the first
+        assertEquals(RouteFormat.DELTA, RouteFormat.negotiate(null,
+                "application/vnd.campuspaths.polyline-delta+json;level=1;q=0.7, application/octet-stream;q=0.7"));
+        // a malformed or out of range quality value makes the range unacceptable
+        assertEquals(RouteFormat.POLYLINE, RouteFormat.negotiate(null,
+                "application/octet-stream;q=high, application/vnd.campuspaths.polyline+json;q=0.1"));
+        assertEquals(RouteFormat.LEGACY, RouteFormat.negotiate(null, "application/octet-stream;q=2"));
+    }
+
+    /** Tests LEGACY renders the same bytes as the list of HashMaps the server used to serialize */
+    @Test
+    public void testLegacyMatchesGsonMaps() {
+        for (Path<Point> i : campusPaths) {
+            assertEquals(gsonMaps(i), new String(RouteFormat.LEGACY.render(i), StandardCharsets.UTF_8));
+        }
+        Path<Point> empty = new Path<>(new Point(1.5, 2.5));
+        assertEquals(gsonMaps(empty), new String(RouteFormat.LEGACY.render(empty), StandardCharsets.UTF_8));
+    }
+
+    /** Tests POLYLINE lists every point once and the cost of every segment */
+    @Test
+    public void testPolyline() {
+        JsonObject json = parse(RouteFormat.POLYLINE.render(smallPath()));
+        assertEquals(11.5, json.get("cost").getAsDouble(), DELTA);
+        assertEquals(new JsonParser().parse("[0.0, 0.0, 3.0, 4.0, 3.0, 10.5]"), json.get("points"));
+        assertEquals(new JsonParser().parse("[5.0, 6.5]"), json.get("costs"));
+        assertFalse(json.has("scale"));
+    }
+
+    /** Tests POLYLINE decodes back to the exact points and costs of campus paths */
+    @Test
+    public void testPolylineRoundTrip() {
+        for (Path<Point> path : campusPaths) {
+            JsonObject json = parse(RouteFormat.POLYLINE.render(path));
+            JsonArray coordinates = json.getAsJsonArray("points");
+            Path<Point> decoded = new Path<>(new Point(coordinates.get(0).getAsDouble(),
+                                                       coordinates.get(1).getAsDouble()));
+            JsonArray costs = json.getAsJsonArray("costs");
+            for (int i = 0; i < costs.size(); i++) {
+                decoded = decoded.extend(new Point(coordinates.get(2 * i + 2).getAsDouble(),
+                                                   coordinates.get(2 * i + 3).getAsDouble()),
+                                         costs.get(i).getAsDouble());
+            }
+            assertEquals(path, decoded);
+            assertEquals(path.getCost(), json.get("cost").getAsDouble(), DELTA);
+        }
+    }
+
+    /** Tests DELTA gives the first point in steps and every later one as a difference */
+    @Test
+    public void testDelta() {
+        Path<Point> path = new Path<>(new Point(1.5, 2.25)).extend(new Point(1.4999, 2.25), 1)
+                                                           .extend(new Point(-1, 0.00004), 2);
+        JsonObject json = parse(RouteFormat.DELTA.render(path));
+        assertEquals(RouteFormat.DELTA_SCALE, json.get("scale").getAsInt());
+        // 0.00004 rounds to 0 steps
+        assertEquals(new JsonParser().parse("[15000, 22500, -1, 0, -24999, -22500]"), json.get("points"));
+        assertEquals(new JsonParser().parse("[1.0, 2.0]"), json.get("costs"));
+        assertEquals(3, json.get("cost").getAsDouble(), DELTA);
+    }
+
+    /** Tests DELTA decodes every point of campus paths to within half a step, without drift */
+    @Test
+    public void testDeltaRoundTrip() {
+        double step = 1.0 / RouteFormat.DELTA_SCALE;
+        for (Path<Point> path : campusPaths) {
+            JsonArray coordinates = parse(RouteFormat.DELTA.render(path)).getAsJsonArray("points");
+            List<Point> points = points(path);
+            assertEquals(2 * points.size(), coordinates.size());
+            long x = 0;
+            long y = 0;
+            for (int i = 0; i < points.size(); i++) {
+                x += coordinates.get(2 * i).getAsLong();
+                y += coordinates.get(2 * i + 1).getAsLong();
+                assertEquals(points.get(i).getX(), (double) x / RouteFormat.DELTA_SCALE, step / 2);
+                assertEquals(points.get(i).getY(), (double) y / RouteFormat.DELTA_SCALE, step / 2);
+            }
+        }
+    }
+
+    /** Tests BINARY packs the count, float coordinates and float costs little-endian */
+    @Test
+    public void testBinary() {
+        byte[] body = RouteFormat.BINARY.render(smallPath());
+        assertEquals(4 + 8 * 3 + 4 * 2, body.length);
+        ByteBuffer in = ByteBuffer.wrap(body).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(3, in.getInt());
+        float[] expected = {0, 0, 3, 4, 3, 10.5f, 5, 6.5f};
+        for (float i : expected) {
+            assertEquals(i, in.getFloat(), DELTA);
+        }
+        assertFalse(in.hasRemaining());
+
+        byte[] single = RouteFormat.BINARY.render(new Path<>(new Point(1.5, 2.5)));
+        assertArrayEquals(new byte[] {1, 0, 0, 0, 0, 0, (byte) 0xC0, 0x3F, 0, 0, 0x20, 0x40}, single);
+    }
+
+    /** Tests BINARY decodes to the points and costs of campus paths rounded to floats */
+    @Test
+    public void testBinaryRoundTrip() {
+        for (Path<Point> path : campusPaths) {
+            ByteBuffer in = ByteBuffer.wrap(RouteFormat.BINARY.render(path)).order(ByteOrder.LITTLE_ENDIAN);
+            List<Point> points = points(path);
+            assertEquals(points.size(), in.getInt());
+            for (Point i : points) {
+                assertEquals((float) i.getX(), in.getFloat(), DELTA);
+                assertEquals((float) i.getY(), in.getFloat(), DELTA);
+            }
+            for (Path<Point>.Segment i : path) {
+                assertEquals((float) i.getCost(), in.getFloat(), DELTA);
+            }
+            assertFalse(in.hasRemaining());
+        }
+    }
+}
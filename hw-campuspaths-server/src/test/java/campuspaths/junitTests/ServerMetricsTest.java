@@ -0,0 +1,125 @@
+package campuspaths.junitTests;
+
+import campuspaths.ServerMetrics;
+import graph.Route;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.RouteCache;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * ServerMetricsTest is a glassbox test of the Prometheus text ServerMetrics renders for
+ * known recorded values: the inclusive 2^k - 1 bucket bounds, the cumulative bucket
+ * counts, and the sums and counts of every histogram, along with the cache counters and
+ * gauges. Applying the request filters needs Spark running, so route latencies are not
+ * covered.
+ */
+public class ServerMetricsTest {
+    @Rule public Timeout globalTimeout = Timeout.seconds(10);
+
+    // helper method returning the lines of the rendered metrics
+    private static List<String> lines(ServerMetrics metrics) {
+        return Arrays.asList(metrics.render().split("\n"));
+    }
+
+    // helper method checking that the rendered metrics have the given line
+    private static void assertLine(List<String> lines, String line) {
+        assertTrue("missing " + line, lines.contains(line));
+    }
+
+    /** Tests latencies go in cumulative buckets bounded by 2^k - 1 nanoseconds, in seconds */
+    @Test
+    public void testLatencyBuckets() {
+        ServerMetrics metrics = new ServerMetrics();
+        metrics.recordLookup(0);
+        metrics.recordLookup(1023);
+        metrics.recordLookup(1024);
+        metrics.recordLookup(5000);
+        List<String> lines = lines(metrics);
+        String bucket = "campus_phase_duration_seconds_bucket{phase=\"lookup\",le=";
+        assertLine(lines, bucket + "\"0.000001023\"} 2");
+        assertLine(lines, bucket + "\"0.000002047\"} 3");
+        assertLine(lines, bucket + "\"0.000004095\"} 3");
+        assertLine(lines, bucket + "\"0.000008191\"} 4");
+        assertLine(lines, bucket + "\"34.359738367\"} 4");
+        assertLine(lines, bucket + "\"+Inf\"} 4");
+        assertLine(lines, "campus_phase_duration_seconds_sum{phase=\"lookup\"} 0.000007047");
+        assertLine(lines, "campus_phase_duration_seconds_count{phase=\"lookup\"} 4");
+        assertLine(lines, "# TYPE campus_phase_duration_seconds histogram");
+    }
+
+    /** Tests the buckets of a histogram are non-decreasing and end with its count */
+    @Test
+    public void testBucketsAreCumulative() {
+        ServerMetrics metrics = new ServerMetrics();
+        long[] nanos = {3, 900, 70000, 70001, 2000000, 1L << 40};
+        for (long i : nanos) {
+            metrics.recordSerialization(i);
+        }
+        long previous = 0;
+        int buckets = 0;
+        for (String i : lines(metrics)) {
+            if (i.startsWith("campus_phase_duration_seconds_bucket{phase=\"serialization\"")) {
+                long count = Long.parseLong(i.substring(i.lastIndexOf(' ') + 1));
+                assertTrue(i, count >= previous);
+                previous = count;
+                buckets++;
+            }
+        }
+        // 2^10 to 2^35 nanoseconds and +Inf
+        assertEquals(27, buckets);
+        assertEquals(nanos.length, previous);
+        // 2^40 nanoseconds is only in +Inf
+        assertLine(lines(metrics), "campus_phase_duration_seconds_bucket{phase=\"serialization\",le=\"34.359738367\"} 5");
+    }
+
+    /** Tests searches record their time, settled nodes and pushes in whole-number buckets */
+    @Test
+    public void testSearchCounts() {
+        ServerMetrics metrics = new ServerMetrics();
+        metrics.recordSearch(new Route<>(Arrays.asList("a", "b"), new double[] {1}, 3, 8), 2048);
+        metrics.recordSearch(null, 1000);
+        List<String> lines = lines(metrics);
+        assertLine(lines, "campus_phase_duration_seconds_count{phase=\"search\"} 2");
+        assertLine(lines, "campus_phase_duration_seconds_sum{phase=\"search\"} 0.000003048");
+        assertLine(lines, "campus_search_settled_nodes_bucket{le=\"0\"} 0");
+        assertLine(lines, "campus_search_settled_nodes_bucket{le=\"1\"} 0");
+        assertLine(lines, "campus_search_settled_nodes_bucket{le=\"3\"} 1");
+        assertLine(lines, "campus_search_settled_nodes_sum 3");
+        assertLine(lines, "campus_search_settled_nodes_count 1");
+        assertLine(lines, "campus_search_heap_pushes_bucket{le=\"7\"} 0");
+        assertLine(lines, "campus_search_heap_pushes_bucket{le=\"15\"} 1");
+        assertLine(lines, "campus_search_heap_pushes_bucket{le=\"1048575\"} 1");
+        assertLine(lines, "campus_search_heap_pushes_bucket{le=\"+Inf\"} 1");
+        assertLine(lines, "campus_search_heap_pushes_sum 8");
+    }
+
+    /** Tests cache counters are labelled with the cache name and gauges read on render */
+    @Test
+    public void testCachesAndGauges() {
+        ServerMetrics metrics = new ServerMetrics();
+        RouteCache<String, String> cache = new RouteCache<>(16);
+        cache.get("a", key -> "A");
+        cache.get("a", key -> "A");
+        cache.get("b", key -> null);
+        metrics.watch("route", cache);
+        double[] gauge = {1.5};
+        metrics.gauge("campus_test_value", () -> gauge[0]);
+        gauge[0] = 2.5;
+        List<String> lines = lines(metrics);
+        assertLine(lines, "campus_cache_hits_total{cache=\"route\"} 1");
+        assertLine(lines, "campus_cache_misses_total{cache=\"route\"} 2");
+        assertLine(lines, "campus_cache_coalesced_total{cache=\"route\"} 0");
+        assertLine(lines, "campus_cache_entries{cache=\"route\"} 2");
+        assertLine(lines, "# TYPE campus_cache_hits_total counter");
+        assertLine(lines, "# TYPE campus_test_value gauge");
+        assertLine(lines, "campus_test_value 2.5");
+        assertFalse(metrics.render().contains("campus_admission"));
+        assertFalse(metrics.render().contains("campus_route_table"));
+    }
+}
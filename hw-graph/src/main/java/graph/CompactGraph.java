@@ -0,0 +1,363 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class represents an immutable snapshot of a directed graph whose edge labels
+ * have been turned into double weights. Nodes are numbered with dense int ids from
+ * 0 to nodeNum() - 1 and edges are stored in compressed sparse row form, so that
+ * the outgoing edges of a node sit next to each other in primitive arrays.
+ * A CompactGraph is meant for read-only routing once a DirectedLabeledGraph is built,
+ * see DirectedLabeledGraph#freeze.
+ *
+ * @param <N> Type for Node value
+ *
+ * Abstract Invariant:
+ *  Every node has exactly one id, no two nodes have the same value and every edge
+ *  goes from a node in the graph to a node in the graph
+ */
+public class CompactGraph<N> {
+//  The outgoing edges of node v are the edge indices offsets[v] .. offsets[v + 1] - 1,
+//  edge i goes from node sources[i] to node targets[i] and has weight weights[i].
+//  The incoming edges of node v are the edge indices inEdges[inOffsets[v]] ..
+//  inEdges[inOffsets[v + 1] - 1], so a search can also walk edges backwards
+//
+//  RI: values, ids, offsets, targets and weights != null,
+//      offsets.length == values.size() + 1, offsets[0] == 0,
+//      offsets[v] <= offsets[v + 1] for all v,
+//      offsets[values.size()] == targets.length == weights.length,
+//      0 <= targets[i] < values.size() for all i,
+//      ids.get(values.get(v)) == v for all v and ids.size() == values.size(),
+//      sources.length == targets.length and offsets[sources[i]] <= i < offsets[sources[i] + 1],
+//      inOffsets.length == offsets.length, inEdges is a permutation of 0 .. targets.length - 1
+//      and targets[inEdges[j]] == v for every inOffsets[v] <= j < inOffsets[v + 1]
+//  AF(this) = A directed weighted graph where
+//             node v has value values.get(v),
+//             there is an edge from v to targets[i] with weight weights[i]
+//             for every offsets[v] <= i < offsets[v + 1]
+    public static final boolean DEBUG = false;
+    private final List<N> values;
+    private final Map<N, Integer> ids;
+    private final int[] offsets;
+    private final int[] sources;
+    private final int[] targets;
+    private final double[] weights;
+    private final int[] inOffsets;
+    private final int[] inEdges;
+
+    /**
+     * Creates a compact graph from arrays already laid out in compressed sparse row form.
+     * The arrays are owned by the new graph and must not be modified afterwards.
+     * @param values the value of each node, indexed by node id
+     * @param offsets the first edge index of each node, followed by the total edge count
+     * @param targets the destination node id of each edge
+     * @param weights the weight of each edge
+     * @spec.requires the arguments satisfy the representation invariant of this class
+     * @spec.effects this = CompactGraph(values, offsets, targets, weights)
+     */
+    CompactGraph(List<N> values, int[] offsets, int[] targets, double[] weights) {
+        this.values = Collections.unmodifiableList(new ArrayList<>(values));
+        this.ids = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            ids.put(values.get(i), i);
+        }
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.sources = new int[targets.length];
+        for (int i = 0; i < values.size(); i++) {
+            for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+                sources[j] = i;
+            }
+        }
+        // counting sort of the edges by target
+        this.inOffsets = new int[offsets.length];
+        for (int target : targets) {
+            inOffsets[target + 1]++;
+        }
+        for (int i = 0; i < values.size(); i++) {
+            inOffsets[i + 1] += inOffsets[i];
+        }
+        this.inEdges = new int[targets.length];
+        int[] next = inOffsets.clone();
+        for (int i = 0; i < targets.length; i++) {
+            inEdges[next[targets[i]]++] = i;
+        }
+        checkRep();
+    }
+
+    /**
+     * Creates a compact graph from arrays already laid out in compressed sparse row form,
+     * such as arrays read back from a file a CompactGraph was saved to. The arrays are
+     * owned by the new graph and must not be modified afterwards.
+     * @param values the value of each node, indexed by node id
+     * @param offsets the first edge index of each node, followed by the total edge count
+     * @param targets the destination node id of each edge
+     * @param weights the weight of each edge
+     * @param <N> Type for Node value
+     * @spec.requires values != null and offsets != null and targets != null and weights != null
+     *                and values contains no null value
+     * @return a graph where node v has value values.get(v) and an edge to targets[i] with
+     *         weight weights[i] for every offsets[v] &lt;= i &lt; offsets[v + 1]
+     * @throws IllegalArgumentException if the arrays are not in compressed sparse row form
+     *         or two nodes have the same value
+     */
+    public static <N> CompactGraph<N> of(List<N> values, int[] offsets, int[] targets, double[] weights) {
+        int n = values.size();
+        if (offsets.length != n + 1 || offsets[0] != 0 || offsets[n] != targets.length
+                || targets.length != weights.length) {
+            throw new IllegalArgumentException("array lengths do not match");
+        }
+        for (int i = 0; i < n; i++) {
+            if (offsets[i] > offsets[i + 1]) {
+                throw new IllegalArgumentException("offsets must not decrease");
+            }
+        }
+        for (int target : targets) {
+            if (target < 0 || target >= n) {
+                throw new IllegalArgumentException("edge target out of range");
+            }
+        }
+        CompactGraph<N> graph = new CompactGraph<>(values, offsets, targets, weights);
+        if (graph.ids.size() != n) {
+            throw new IllegalArgumentException("node values must be distinct");
+        }
+        return graph;
+    }
+
+    /**
+     * Creates a compact graph from a list of edges in any order, such as edges read from
+     * a file. Edges keep their relative order within each node, and an edge that repeats
+     * an earlier edge's source, target and weight is dropped, just as adding it twice to
+     * a DirectedLabeledGraph has no effect.
+     * @param values the value of each node, indexed by node id
+     * @param sources the source node id of each edge
+     * @param targets the destination node id of each edge
+     * @param weights the weight of each edge
+     * @param <N> Type for Node value
+     * @spec.requires values != null and sources != null and targets != null and weights != null
+     *                and values contains no null value
+     * @return a graph where node v has value values.get(v) and there is an edge from
+     *         sources[i] to targets[i] with weight weights[i] for every i
+     * @throws IllegalArgumentException if the arrays have different lengths, an edge
+     *         endpoint is out of range or two nodes have the same value
+     */
+    public static <N> CompactGraph<N> fromEdges(List<N> values, int[] sources, int[] targets, double[] weights) {
+        int n = values.size();
+        if (sources.length != targets.length || targets.length != weights.length) {
+            throw new IllegalArgumentException("array lengths do not match");
+        }
+        // counting sort of the edges by source, stable so each node keeps the input order
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < sources.length; i++) {
+            if (sources[i] < 0 || sources[i] >= n || targets[i] < 0 || targets[i] >= n) {
+                throw new IllegalArgumentException("edge endpoint out of range");
+            }
+            offsets[sources[i] + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] order = new int[sources.length];
+        int[] next = Arrays.copyOf(offsets, n);
+        for (int i = 0; i < sources.length; i++) {
+            order[next[sources[i]]++] = i;
+        }
+        // seenBy[t] == v + 1 once node v has an edge to t, so only those edges are rescanned
+        int[] seenBy = new int[n];
+        int[] sortedTargets = new int[sources.length];
+        double[] sortedWeights = new double[sources.length];
+        int kept = 0;
+        for (int v = 0; v < n; v++) {
+            int start = kept;
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                int target = targets[order[i]];
+                double weight = weights[order[i]];
+                if (seenBy[target] == v + 1 && contains(sortedTargets, sortedWeights, start, kept, target, weight)) {
+                    continue;
+                }
+                seenBy[target] = v + 1;
+                sortedTargets[kept] = target;
+                sortedWeights[kept] = weight;
+                kept++;
+            }
+            offsets[v] = start;
+        }
+        offsets[n] = kept;
+        CompactGraph<N> graph = new CompactGraph<>(values, offsets,
+                Arrays.copyOf(sortedTargets, kept), Arrays.copyOf(sortedWeights, kept));
+        if (graph.ids.size() != n) {
+            throw new IllegalArgumentException("node values must be distinct");
+        }
+        return graph;
+    }
+
+    // helper method returning whether edges from .. to - 1 include one with the given
+    // target and a weight equal to weight in the sense of Double#equals
+    private static boolean contains(int[] targets, double[] weights, int from, int to, int target, double weight) {
+        for (int i = from; i < to; i++) {
+            if (targets[i] == target && Double.compare(weights[i], weight) == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * return the number of nodes in the graph
+     * @return the number of nodes in the graph
+     */
+    public int nodeNum() {
+        return values.size();
+    }
+
+    /**
+     * return the number of edges in the graph
+     * @return the number of edges in the graph
+     */
+    public int edgeNum() {
+        return targets.length;
+    }
+
+    /**
+     * return the id of the node with the input value
+     * @param value the value of the node to look up
+     * @spec.requires value != null
+     * @return the id of the node, or -1 if no node has that value
+     */
+    public int idOf(N value) {
+        Integer id = ids.get(value);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * return the value of the node with the input id
+     * @param id the id of the node
+     * @spec.requires 0 &lt;= id &lt; nodeNum()
+     * @return the value of the node
+     */
+    public N valueOf(int id) {
+        return values.get(id);
+    }
+
+    /**
+     * return all node values, indexed by node id
+     * @return an unmodifiable list of node values
+     */
+    public List<N> values() {
+        return values;
+    }
+
+    /**
+     * return the index of the first outgoing edge of a node
+     * @param id the id of the node
+     * @spec.requires 0 &lt;= id &lt; nodeNum()
+     * @return the index of the first outgoing edge of the node
+     */
+    public int edgeStart(int id) {
+        return offsets[id];
+    }
+
+    /**
+     * return the index just past the last outgoing edge of a node, so the outgoing
+     * edges of a node are edgeStart(id) .. edgeEnd(id) - 1
+     * @param id the id of the node
+     * @spec.requires 0 &lt;= id &lt; nodeNum()
+     * @return the index just past the last outgoing edge of the node
+     */
+    public int edgeEnd(int id) {
+        return offsets[id + 1];
+    }
+
+    /**
+     * return the id of the node an edge goes to
+     * @param edge the index of the edge
+     * @spec.requires 0 &lt;= edge &lt; edgeNum()
+     * @return the id of the child node of the edge
+     */
+    public int edgeTarget(int edge) {
+        return targets[edge];
+    }
+
+    /**
+     * return the id of the node an edge comes from
+     * @param edge the index of the edge
+     * @spec.requires 0 &lt;= edge &lt; edgeNum()
+     * @return the id of the parent node of the edge
+     */
+    public int edgeSource(int edge) {
+        return sources[edge];
+    }
+
+    /**
+     * return the position of the first incoming edge of a node, so the incoming edges of a
+     * node are inEdge(inEdgeStart(id)) .. inEdge(inEdgeEnd(id) - 1)
+     * @param id the id of the node
+     * @spec.requires 0 &lt;= id &lt; nodeNum()
+     * @return the position of the first incoming edge of the node
+     */
+    public int inEdgeStart(int id) {
+        return inOffsets[id];
+    }
+
+    /**
+     * return the position just past the last incoming edge of a node
+     * @param id the id of the node
+     * @spec.requires 0 &lt;= id &lt; nodeNum()
+     * @return the position just past the last incoming edge of the node
+     */
+    public int inEdgeEnd(int id) {
+        return inOffsets[id + 1];
+    }
+
+    /**
+     * return the index of the incoming edge at a position
+     * @param position the position of the incoming edge
+     * @spec.requires 0 &lt;= position &lt; edgeNum()
+     * @return the index of the edge, usable with edgeSource, edgeTarget and edgeWeight
+     */
+    public int inEdge(int position) {
+        return inEdges[position];
+    }
+
+    /**
+     * return the weight of an edge
+     * @param edge the index of the edge
+     * @spec.requires 0 &lt;= edge &lt; edgeNum()
+     * @return the weight of the edge
+     */
+    public double edgeWeight(int edge) {
+        return weights[edge];
+    }
+
+    private void checkRep() {
+        assert values != null : "this.values is null";
+        assert offsets != null && targets != null && weights != null : "edge arrays are null";
+        assert offsets.length == values.size() + 1 : "offsets has the wrong length";
+        assert targets.length == weights.length : "targets and weights differ in length";
+        assert offsets[values.size()] == targets.length : "offsets does not cover every edge";
+        if (DEBUG) {
+            assert ids.size() == values.size() : "duplicate node values";
+            assert offsets[0] == 0 : "offsets does not start at 0";
+            for (int i = 0; i < values.size(); i++) {
+                assert offsets[i] <= offsets[i + 1] : "offsets is not sorted";
+            }
+            for (int target : targets) {
+                assert target >= 0 && target < values.size() : "edge goes outside the graph";
+            }
+            for (int i = 0; i < values.size(); i++) {
+                for (int j = inOffsets[i]; j < inOffsets[i + 1]; j++) {
+                    assert targets[inEdges[j]] == i : "incoming edge indexed under the wrong node";
+                }
+                for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+                    assert sources[j] == i : "edge has the wrong source";
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,525 @@
+package graph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * This class represents a contraction hierarchy of a CompactGraph, a preprocessed form
+ * of a graph that answers shortest path queries much faster than Dijkstra's algorithm.
+ * Preprocessing orders the nodes by importance and contracts them one at a time, adding
+ * a shortcut edge between two neighbors of a contracted node whenever the only shortest
+ * path between them went through it. A query then runs a search forwards from the start
+ * and backwards from the end that only ever moves to more important nodes, and unpacks
+ * the shortcuts on the route it finds back into edges of the original graph.
+ * A ContractionHierarchy does not change after it is created, so one instance may answer
+ * queries from several threads at once.
+ *
+ * @param <N> Type for Node value
+ */
+public class ContractionHierarchy<N> {
+//  Node v has rank rank[v], the order in which it was contracted. The upward edges of v
+//  are up indices upOffsets[v] .. upOffsets[v + 1] - 1, where edge i goes from v to upTo[i]
+//  with weight upWeight[i], and the downward edges of v are down indices downOffsets[v] ..
+//  downOffsets[v + 1] - 1, where edge i goes from downFrom[i] to v with weight downWeight[i].
+//  An edge with middle node m == -1 is an edge of graph, otherwise it is a shortcut for
+//  the edge from its start to m followed by the edge from m to its end.
+//
+//  RI: graph != null, all arrays != null, rank is a permutation of 0 .. graph.nodeNum() - 1,
+//      rank[upTo[i]] > rank[v] for every upward edge i of v,
+//      rank[downFrom[i]] > rank[v] for every downward edge i of v,
+//      the middle node of a shortcut has a lower rank than both of its ends,
+//      shortcuts >= 0 and preprocessNanos >= 0
+//  AF(this) = a contraction hierarchy of graph whose shortest paths are the same as the
+//             shortest paths of graph
+    public static final boolean DEBUG = false;
+
+    /**
+     * How many nodes a witness search may settle before giving up and adding the shortcut,
+     * which keeps preprocessing fast at the cost of a few unneeded shortcuts.
+     */
+    private static final int WITNESS_LIMIT = 500;
+
+    private final CompactGraph<N> graph;
+    private final int[] rank;
+    private final int[] upOffsets;
+    private final int[] upTo;
+    private final double[] upWeight;
+    private final int[] upMiddle;
+    private final int[] downOffsets;
+    private final int[] downFrom;
+    private final double[] downWeight;
+    private final int[] downMiddle;
+    private final int shortcuts;
+    private final long preprocessNanos;
+
+    /**
+     * Builds the contraction hierarchy of a graph
+     * @param graph the graph to preprocess
+     * @spec.requires graph != null
+     * @spec.effects this = ContractionHierarchy(graph)
+     * @throws IllegalArgumentException if an edge weight is negative, infinite or NaN
+     */
+    public ContractionHierarchy(CompactGraph<N> graph) {
+        long begin = System.nanoTime();
+        int n = graph.nodeNum();
+        this.graph = graph;
+        Contractor contractor = new Contractor(graph);
+        contractor.contractAll();
+        this.rank = contractor.rank;
+        this.shortcuts = contractor.shortcuts;
+        // lay out the edges recorded when each node was contracted
+        this.upOffsets = new int[n + 1];
+        this.downOffsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            upOffsets[i + 1] = upOffsets[i] + contractor.up.get(i).size();
+            downOffsets[i + 1] = downOffsets[i] + contractor.down.get(i).size();
+        }
+        this.upTo = new int[upOffsets[n]];
+        this.upWeight = new double[upOffsets[n]];
+        this.upMiddle = new int[upOffsets[n]];
+        this.downFrom = new int[downOffsets[n]];
+        this.downWeight = new double[downOffsets[n]];
+        this.downMiddle = new int[downOffsets[n]];
+        for (int i = 0; i < n; i++) {
+            int j = upOffsets[i];
+            for (Arc arc : contractor.up.get(i)) {
+                upTo[j] = arc.to;
+                upWeight[j] = arc.weight;
+                upMiddle[j] = arc.middle;
+                j++;
+            }
+            j = downOffsets[i];
+            for (Arc arc : contractor.down.get(i)) {
+                downFrom[j] = arc.from;
+                downWeight[j] = arc.weight;
+                downMiddle[j] = arc.middle;
+                j++;
+            }
+        }
+        this.preprocessNanos = System.nanoTime() - begin;
+        checkRep();
+    }
+
+    /**
+     * return the graph this hierarchy was built from
+     * @return the original graph
+     */
+    public CompactGraph<N> getGraph() {
+        return graph;
+    }
+
+    /**
+     * return the number of shortcut edges added during preprocessing
+     * @return the number of shortcuts
+     */
+    public int shortcutNum() {
+        return shortcuts;
+    }
+
+    /**
+     * return how long preprocessing took
+     * @return the preprocessing time in nanoseconds
+     */
+    public long getPreprocessNanos() {
+        return preprocessNanos;
+    }
+
+    /**
+     * find the shortest route between two nodes. When several routes have the same
+     * cost, which one is returned may differ from ShortestPath#find.
+     * @param start value of the node the route starts at
+     * @param end value of the node the route ends at
+     * @spec.requires start != null and end != null
+     * @return the shortest route from start to end, made of edges of the original graph,
+     *         null if there is none or if start or end is not in the graph
+     */
+    public Route<N> find(N start, N end) {
+        checkRep();
+        int source = graph.idOf(start);
+        int target = graph.idOf(end);
+        if (source < 0 || target < 0) {
+            return null;
+        }
+        int n = graph.nodeNum();
+        double[] dist = new double[n];
+        double[] distBack = new double[n];
+        int[] predUp = new int[n];
+        int[] succDown = new int[n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(distBack, Double.POSITIVE_INFINITY);
+        dist[source] = 0;
+        distBack[target] = 0;
+        IndexedHeap active = new IndexedHeap(n);
+        IndexedHeap activeBack = new IndexedHeap(n);
+        active.push(source, 0);
+        activeBack.push(target, 0);
+        double best = Double.POSITIVE_INFINITY;
+        int meet = -1;
+        int settled = 0;
+        // each search may stop once its cheapest entry costs at least as much as the best
+        // meeting point, since every remaining entry can only lead to a more expensive one.
+        // Weights are non-negative, so a node leaves a queue at most once
+        while ((!active.isEmpty() && active.peekKey() < best)
+                || (!activeBack.isEmpty() && activeBack.peekKey() < best)) {
+            boolean forward = !active.isEmpty() && active.peekKey() < best
+                    && (activeBack.isEmpty() || activeBack.peekKey() >= best
+                        || active.peekKey() <= activeBack.peekKey());
+            if (forward) {
+                int min = active.poll();
+                settled++;
+                if (dist[min] + distBack[min] < best) {
+                    best = dist[min] + distBack[min];
+                    meet = min;
+                }
+                for (int i = upOffsets[min]; i < upOffsets[min + 1]; i++) {
+                    double cost = dist[min] + upWeight[i];
+                    if (cost < dist[upTo[i]]) {
+                        dist[upTo[i]] = cost;
+                        predUp[upTo[i]] = i;
+                        active.push(upTo[i], cost);
+                    }
+                }
+            } else {
+                int min = activeBack.poll();
+                settled++;
+                if (dist[min] + distBack[min] < best) {
+                    best = dist[min] + distBack[min];
+                    meet = min;
+                }
+                for (int i = downOffsets[min]; i < downOffsets[min + 1]; i++) {
+                    double cost = distBack[min] + downWeight[i];
+                    if (cost < distBack[downFrom[i]]) {
+                        distBack[downFrom[i]] = cost;
+                        succDown[downFrom[i]] = i;
+                        activeBack.push(downFrom[i], cost);
+                    }
+                }
+            }
+        }
+        checkRep();
+        if (meet < 0) {
+            return null;
+        }
+        return unpack(source, target, meet, predUp, succDown, settled, active.pushes() + activeBack.pushes());
+    }
+
+    // helper method that turns the upward edges from source to meet and the downward
+    // edges from meet to target into a route over the edges of the original graph
+    private Route<N> unpack(int source, int target, int meet, int[] predUp, int[] succDown,
+                            int settled, long pushes) {
+        List<N> nodes = new ArrayList<>();
+        List<Double> costs = new ArrayList<>();
+        nodes.add(graph.valueOf(source));
+        // the upward half is recorded backwards from meet, so collect it first
+        List<Integer> upward = new ArrayList<>();
+        for (int i = meet; i != source; i = upSource(predUp[i])) {
+            upward.add(predUp[i]);
+        }
+        for (int i = upward.size() - 1; i >= 0; i--) {
+            expand(upward.get(i), nodes, costs);
+        }
+        for (int i = meet; i != target; i = downTarget(succDown[i])) {
+            expand(~succDown[i], nodes, costs);
+        }
+        double[] steps = new double[costs.size()];
+        for (int i = 0; i < steps.length; i++) {
+            steps[i] = costs.get(i);
+        }
+        return new Route<>(nodes, steps, settled, pushes);
+    }
+
+    // helper method that appends the original edges making up an edge to nodes and costs,
+    // replacing each shortcut by the two edges it stands for. An edge is given as its
+    // upward index i, or as ~i for downward index i
+    private void expand(int edge, List<N> nodes, List<Double> costs) {
+        Deque<Integer> pending = new ArrayDeque<>();
+        pending.push(edge);
+        while (!pending.isEmpty()) {
+            int next = pending.pop();
+            boolean upward = next >= 0;
+            int middle = upward ? upMiddle[next] : downMiddle[~next];
+            int to = upward ? upTo[next] : downTarget(~next);
+            if (middle < 0) {
+                nodes.add(graph.valueOf(to));
+                costs.add(upward ? upWeight[next] : downWeight[~next]);
+                continue;
+            }
+            int from = upward ? upSource(next) : downFrom[~next];
+            // the middle node was contracted before both ends, so the first half is one of
+            // its downward edges and the second half one of its upward edges
+            pending.push(findUp(middle, to));
+            pending.push(~findDown(middle, from));
+        }
+    }
+
+    // helper method returning the upward edge of node going to 'to'
+    private int findUp(int node, int to) {
+        for (int i = upOffsets[node]; i < upOffsets[node + 1]; i++) {
+            if (upTo[i] == to) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("missing upward edge");
+    }
+
+    // helper method returning the downward edge of node coming from 'from'
+    private int findDown(int node, int from) {
+        for (int i = downOffsets[node]; i < downOffsets[node + 1]; i++) {
+            if (downFrom[i] == from) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("missing downward edge");
+    }
+
+    // helper method returning the node an upward edge starts at
+    private int upSource(int edge) {
+        int low = 0;
+        int high = upOffsets.length - 2;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (upOffsets[mid] <= edge) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    // helper method returning the node a downward edge ends at
+    private int downTarget(int edge) {
+        int low = 0;
+        int high = downOffsets.length - 2;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (downOffsets[mid] <= edge) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * An edge of the graph being contracted, shared by the outgoing list of its start
+     * and the incoming list of its end
+     */
+    private static class Arc {
+        private final int from;
+        private final int to;
+        private double weight;
+        private int middle;
+
+        private Arc(int from, int to, double weight, int middle) {
+            this.from = from;
+            this.to = to;
+            this.weight = weight;
+            this.middle = middle;
+        }
+    }
+
+    /**
+     * The state of preprocessing: the remaining graph, the order nodes were contracted in,
+     * and the edges each node had to more important nodes when it was contracted
+     */
+    private static class Contractor {
+        private final int n;
+        private final List<List<Arc>> out;
+        private final List<List<Arc>> in;
+        private final List<List<Arc>> up;
+        private final List<List<Arc>> down;
+        private final int[] rank;
+        private final boolean[] contracted;
+        private final int[] contractedNeighbors;
+        private int shortcuts;
+        // witness search state, reset after every search through touched
+        private final double[] dist;
+        private final IndexedHeap active;
+        private final List<Integer> touched;
+
+        private Contractor(CompactGraph<?> graph) {
+            n = graph.nodeNum();
+            out = new ArrayList<>(n);
+            in = new ArrayList<>(n);
+            up = new ArrayList<>(n);
+            down = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                out.add(new ArrayList<>());
+                in.add(new ArrayList<>());
+            }
+            for (int i = 0; i < n; i++) {
+                up.add(null);
+                down.add(null);
+            }
+            rank = new int[n];
+            contracted = new boolean[n];
+            contractedNeighbors = new int[n];
+            dist = new double[n];
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+            touched = new ArrayList<>();
+            active = new IndexedHeap(n);
+            for (int i = 0; i < n; i++) {
+                for (int j = graph.edgeStart(i); j < graph.edgeEnd(i); j++) {
+                    double weight = graph.edgeWeight(j);
+                    if (!(weight >= 0) || Double.isInfinite(weight)) {
+                        throw new IllegalArgumentException("edge weights must be finite and non-negative");
+                    }
+                    // a self loop is never part of a shortest path
+                    if (graph.edgeTarget(j) != i) {
+                        addArc(i, graph.edgeTarget(j), weight, -1);
+                    }
+                }
+            }
+        }
+
+        // contracts every node, least important first, recomputing the importance of a
+        // node when it comes up since contracting its neighbors may have changed it
+        private void contractAll() {
+            PriorityQueue<long[]> order = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+            for (int i = 0; i < n; i++) {
+                order.add(new long[] {priority(i), i});
+            }
+            int next = 0;
+            while (!order.isEmpty()) {
+                int node = (int) order.poll()[1];
+                long current = priority(node);
+                if (!order.isEmpty() && current > order.peek()[0]) {
+                    order.add(new long[] {current, node});
+                    continue;
+                }
+                rank[node] = next++;
+                contract(node);
+            }
+        }
+
+        // importance of a node: shortcuts it would add minus edges it would remove,
+        // plus how many of its neighbors are already contracted to spread contractions out
+        private long priority(int node) {
+            int added = shortcutsFor(node, false);
+            return ((long) added - out.get(node).size() - in.get(node).size())
+                    + contractedNeighbors[node];
+        }
+
+        private void contract(int node) {
+            shortcutsFor(node, true);
+            up.set(node, new ArrayList<>(out.get(node)));
+            down.set(node, new ArrayList<>(in.get(node)));
+            for (Arc arc : out.get(node)) {
+                in.get(arc.to).remove(arc);
+                contractedNeighbors[arc.to]++;
+            }
+            for (Arc arc : in.get(node)) {
+                out.get(arc.from).remove(arc);
+                contractedNeighbors[arc.from]++;
+            }
+            out.get(node).clear();
+            in.get(node).clear();
+            contracted[node] = true;
+        }
+
+        // counts, and if add is true adds, the shortcuts needed to keep every shortest path
+        // through node once node is removed
+        private int shortcutsFor(int node, boolean add) {
+            int count = 0;
+            List<Arc> entering = new ArrayList<>(in.get(node));
+            for (Arc first : entering) {
+                double limit = 0;
+                for (Arc second : out.get(node)) {
+                    if (second.to != first.from) {
+                        limit = Math.max(limit, first.weight + second.weight);
+                    }
+                }
+                witnessSearch(first.from, node, limit);
+                for (Arc second : new ArrayList<>(out.get(node))) {
+                    double via = first.weight + second.weight;
+                    if (second.to != first.from && dist[second.to] > via) {
+                        count++;
+                        if (add) {
+                            addArc(first.from, second.to, via, node);
+                        }
+                    }
+                }
+                reset();
+            }
+            return count;
+        }
+
+        // Dijkstra's algorithm from source in the remaining graph without skip, settling at
+        // most WITNESS_LIMIT nodes and nothing further than limit
+        private void witnessSearch(int source, int skip, double limit) {
+            dist[source] = 0;
+            touched.add(source);
+            active.push(source, 0);
+            int settled = 0;
+            while (!active.isEmpty() && settled < WITNESS_LIMIT && active.peekKey() <= limit) {
+                int min = active.poll();
+                settled++;
+                for (Arc arc : out.get(min)) {
+                    double cost = dist[min] + arc.weight;
+                    if (arc.to != skip && cost < dist[arc.to]) {
+                        if (Double.isInfinite(dist[arc.to])) {
+                            touched.add(arc.to);
+                        }
+                        dist[arc.to] = cost;
+                        active.push(arc.to, cost);
+                    }
+                }
+            }
+        }
+
+        private void reset() {
+            for (int i : touched) {
+                dist[i] = Double.POSITIVE_INFINITY;
+            }
+            touched.clear();
+            while (!active.isEmpty()) {
+                active.poll();
+            }
+        }
+
+        // adds an edge, or lowers the weight of an existing edge between the same nodes
+        private void addArc(int from, int to, double weight, int middle) {
+            for (Arc arc : out.get(from)) {
+                if (arc.to == to) {
+                    if (weight < arc.weight) {
+                        arc.weight = weight;
+                        arc.middle = middle;
+                    }
+                    return;
+                }
+            }
+            Arc arc = new Arc(from, to, weight, middle);
+            out.get(from).add(arc);
+            in.get(to).add(arc);
+            if (middle >= 0) {
+                shortcuts++;
+            }
+        }
+    }
+
+    private void checkRep() {
+        assert graph != null : "this.graph is null";
+        assert rank.length == graph.nodeNum() : "every node needs a rank";
+        assert upOffsets.length == graph.nodeNum() + 1 : "upOffsets has the wrong length";
+        assert downOffsets.length == graph.nodeNum() + 1 : "downOffsets has the wrong length";
+        assert shortcuts >= 0 && preprocessNanos >= 0 : "statistics are negative";
+        if (DEBUG) {
+            for (int i = 0; i < graph.nodeNum(); i++) {
+                for (int j = upOffsets[i]; j < upOffsets[i + 1]; j++) {
+                    assert rank[upTo[j]] > rank[i] : "upward edge goes down";
+                    assert upMiddle[j] < 0 || rank[upMiddle[j]] < rank[i] : "bad shortcut";
+                }
+                for (int j = downOffsets[i]; j < downOffsets[i + 1]; j++) {
+                    assert rank[downFrom[j]] > rank[i] : "downward edge goes up";
+                    assert downMiddle[j] < 0 || rank[downMiddle[j]] < rank[i] : "bad shortcut";
+                }
+            }
+        }
+    }
+}
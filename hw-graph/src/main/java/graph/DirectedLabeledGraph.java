@@ -1,15 +1,21 @@
 package graph;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.ToDoubleFunction;
 
 /**
  * This class represents a directed graph with labelled edges.
  * It has edges connecting nodes and representing a path going
  * through mutiple nodes with mutiple edges
- * It stores a list of edges and a list of nodes
+ * It stores every node together with the set of its outgoing edges
+ * and the list of its incoming edges
  *
  * @param <N> Type for Node value
  * @param <E> Type for Edge label
@@ -21,14 +27,21 @@ import java.util.Set;
  */
 public class DirectedLabeledGraph<N, E> {
     public static final boolean DEBUG = false;
-//  edges and nodes are stored in set
+//  nodes are stored as the keys of a map, and each node maps to the set of its outgoing
+//  edges so that listing the children of a node only touches that node's edges. incoming
+//  indexes the same edges by their child so that a search can also walk edges backwards
 //
-//  RI: nodes and edges != null, edges and nodes contain no null value
+//  RI: nodes != null, nodes contains no null key or value, edgeCount >= 0,
+//      every edge in nodes.get(n) has n as its parent and a child that is a key of nodes,
+//      edgeCount == sum of nodes.get(n).size() over all keys n,
+//      incoming != null, incoming.keySet() equals nodes.keySet(),
+//      incoming.get(n) contains exactly the edges with n as their child, each once
 //  AF(this) = A directed labelled graph with edges and nodes list
-//             edges.toArray(): edges[0], edges[1], ... edges[edges.size() - 1]
-//             nodes.toArray(): nodes[0], nodes[1], ... nodes[nodes.size() - 1]
-    private Set<Edge<N, E>> edges;
-    private Set<Node<N>> nodes;
+//             edges: union of nodes.get(n) over all keys n
+//             nodes.keySet().toArray(): nodes[0], nodes[1], ... nodes[nodes.size() - 1]
+    private Map<Node<N>, Set<Edge<N, E>>> nodes;
+    private Map<Node<N>, List<Edge<N, E>>> incoming;
+    private int edgeCount;
 
     /**
      * This inner class represents a node in the graph. It will be connected by edges in the graph
@@ -179,8 +192,9 @@ public class DirectedLabeledGraph<N, E> {
      * @spec.effects this = DirectedLabeledGraph()
      */
     public DirectedLabeledGraph() {
-        edges = new HashSet<>();
-        nodes = new HashSet<>();
+        nodes = new HashMap<>();
+        incoming = new HashMap<>();
+        edgeCount = 0;
         checkRep();
     }
 
@@ -194,7 +208,10 @@ public class DirectedLabeledGraph<N, E> {
      */
     public void addNode(Node<N> newNode) {
         checkRep();
-        nodes.add(newNode);
+        if (!nodes.containsKey(newNode)) {
+            nodes.put(newNode, new HashSet<>());
+            incoming.put(newNode, new ArrayList<>());
+        }
         checkRep();
     }
 
@@ -209,8 +226,11 @@ public class DirectedLabeledGraph<N, E> {
      */
     public void addEdge(Edge<N,E> newEdge) {
         checkRep();
-        if (nodes.contains(newEdge.parent) && nodes.contains(newEdge.child)) {
-            edges.add(newEdge);
+        if (nodes.containsKey(newEdge.parent) && nodes.containsKey(newEdge.child)) {
+            if (nodes.get(newEdge.parent).add(newEdge)) {
+                incoming.get(newEdge.child).add(newEdge);
+                edgeCount++;
+            }
         }
         checkRep();
     }
@@ -224,7 +244,7 @@ public class DirectedLabeledGraph<N, E> {
      */
     public boolean containNode(Node<N> check) {
         checkRep();
-        return nodes.contains(check);
+        return nodes.containsKey(check);
     }
 
     /**
@@ -238,7 +258,8 @@ public class DirectedLabeledGraph<N, E> {
      */
     public boolean containEdge(Edge<N,E> check) {
         checkRep();
-        return edges.contains(check);
+        Set<Edge<N, E>> outgoing = nodes.get(check.parent);
+        return outgoing != null && outgoing.contains(check);
     }
 
     /**
@@ -256,27 +277,59 @@ public class DirectedLabeledGraph<N, E> {
      */
     public int edgeNum() {
         checkRep();
-        return edges.size();
+        return edgeCount;
     }
 
     /**
-     * return all the outgoing edges of the input node
+     * return all the outgoing edges of the input node, in time proportional to
+     * the number of outgoing edges rather than the size of the graph
      * @param parent Node whose outgoing edges will be returned
      * @spec.requires parent != null
-     * @return a list of edges
+     * @return a list of edges, empty if parent is not in the graph
      */
     public List<Edge<N,E>> listChildren(Node<N> parent) {
         checkRep();
+        Set<Edge<N,E>> outgoing = nodes.get(parent);
         List<Edge<N,E>> children = new ArrayList<>();
-        for (Edge<N,E> i : edges) {
-            if (i.parent.equals(parent)) {
-                children.add(i);
-            }
+        if (outgoing != null) {
+            children.addAll(outgoing);
         }
         checkRep();
         return children;
     }
 
+    /**
+     * return a read-only view of the outgoing edges of the input node, in the same order
+     * as listChildren, without copying them. The view changes with this graph, so it must
+     * not be used while this graph is being changed
+     * @param parent Node whose outgoing edges will be returned
+     * @spec.requires parent != null
+     * @return an unmodifiable collection of edges, empty if parent is not in the graph
+     */
+    public Collection<Edge<N,E>> children(Node<N> parent) {
+        checkRep();
+        Set<Edge<N,E>> outgoing = nodes.get(parent);
+        return outgoing == null ? Collections.emptySet() : Collections.unmodifiableSet(outgoing);
+    }
+
+    /**
+     * return all the incoming edges of the input node, in time proportional to
+     * the number of incoming edges rather than the size of the graph
+     * @param child Node whose incoming edges will be returned
+     * @spec.requires child != null
+     * @return a list of edges, empty if child is not in the graph
+     */
+    public List<Edge<N,E>> listParents(Node<N> child) {
+        checkRep();
+        List<Edge<N,E>> entering = incoming.get(child);
+        List<Edge<N,E>> parents = new ArrayList<>();
+        if (entering != null) {
+            parents.addAll(entering);
+        }
+        checkRep();
+        return parents;
+    }
+
     /**
      * return all the nodes in the graph
      * @return a list of nodes in the graph
@@ -284,19 +337,73 @@ public class DirectedLabeledGraph<N, E> {
     public List<Node<N>> listNode() {
         checkRep();
         List<Node<N>> ret = new ArrayList<>();
-        for (Node<N> i : nodes) {
+        for (Node<N> i : nodes.keySet()) {
             ret.add(i);
         }
         checkRep();
         return ret;
     }
 
+    /**
+     * return an immutable compact snapshot of this graph for read-only routing.
+     * Later changes to this graph are not reflected in the snapshot.
+     * @param weight function turning each edge label into a double weight
+     * @spec.requires weight != null
+     * @return a CompactGraph with the same nodes and edges as this graph
+     */
+    public CompactGraph<N> freeze(ToDoubleFunction<? super E> weight) {
+        checkRep();
+        List<N> values = new ArrayList<>(nodes.size());
+        Map<Node<N>, Integer> ids = new HashMap<>();
+        for (Node<N> i : nodes.keySet()) {
+            ids.put(i, values.size());
+            values.add(i.value);
+        }
+        int[] offsets = new int[values.size() + 1];
+        int[] targets = new int[edgeCount];
+        double[] weights = new double[edgeCount];
+        int edge = 0;
+        for (Map.Entry<Node<N>, Set<Edge<N, E>>> i : nodes.entrySet()) {
+            offsets[ids.get(i.getKey())] = edge;
+            // edges keep the same order as listChildren
+            for (Edge<N, E> j : i.getValue()) {
+                targets[edge] = ids.get(j.child);
+                weights[edge] = weight.applyAsDouble(j.label);
+                edge++;
+            }
+        }
+        offsets[values.size()] = edge;
+        checkRep();
+        return new CompactGraph<>(values, offsets, targets, weights);
+    }
+
     private void checkRep() {
         assert this.nodes != null : "this.nodes is null";
-        assert this.edges != null : "this.edges is null";
+        assert this.incoming != null : "this.incoming is null";
+        assert this.edgeCount >= 0 : "this.edgeCount is negative";
         if (DEBUG) {
-            assert !nodes.contains(null) : "this.nodes contains null";
-            assert !edges.contains(null) : "this.edges contains null";
+            assert !nodes.containsKey(null) : "this.nodes contains null";
+            int count = 0;
+            for (Map.Entry<Node<N>, Set<Edge<N, E>>> i : nodes.entrySet()) {
+                assert i.getValue() != null : "outgoing edge set is null";
+                for (Edge<N, E> j : i.getValue()) {
+                    assert j != null : "this.edges contains null";
+                    assert j.parent.equals(i.getKey()) : "edge stored under the wrong parent";
+                    assert nodes.containsKey(j.child) : "edge child is not in the graph";
+                }
+                count += i.getValue().size();
+            }
+            assert count == edgeCount : "this.edgeCount does not match the stored edges";
+            assert incoming.keySet().equals(nodes.keySet()) : "incoming does not index every node";
+            count = 0;
+            for (Map.Entry<Node<N>, List<Edge<N, E>>> i : incoming.entrySet()) {
+                for (Edge<N, E> j : i.getValue()) {
+                    assert j.child.equals(i.getKey()) : "edge indexed under the wrong child";
+                    assert nodes.get(j.parent).contains(j) : "indexed edge is not in the graph";
+                }
+                count += i.getValue().size();
+            }
+            assert count == edgeCount : "this.incoming does not match the stored edges";
         }
     }
 }
@@ -0,0 +1,214 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * This class represents a mutable min-priority queue of the ints 0 .. capacity - 1, each
+ * with a double key. Unlike java.util.PriorityQueue, the key of an element already in the
+ * queue can be lowered in place, so a search never holds more than one entry per node.
+ * Elements with equal keys come out most recently added or lowered first.
+ * The queue is a 4-ary heap stored in primitive arrays, which keeps it shallow and avoids
+ * boxing the keys.
+ */
+public class IndexedHeap {
+//  RI: 0 <= size <= heap.length, heap.length == position.length == key.length == stamp.length,
+//      heap[0 .. size - 1] are distinct elements and position[heap[i]] == i for each of them,
+//      position[e] == -1 for every other element e,
+//      no element comes before its parent heap[(i - 1) / ARITY] in queue order,
+//      pushes >= size
+//  AF(this) = the elements heap[0 .. size - 1], element e having key key[e], ordered by
+//             key and then by the most recent stamp[e]. pushes elements have been added
+//             or lowered since this was created
+    public static final boolean DEBUG = false;
+
+    private static final int ARITY = 4;
+
+    private final int[] heap;
+    private final int[] position;
+    private final double[] key;
+    private final long[] stamp;
+    private int size;
+    private long pushes;
+
+    /**
+     * Creates an empty queue for the elements 0 .. capacity - 1
+     * @param capacity the number of distinct elements the queue may hold
+     * @spec.requires capacity &gt;= 0
+     * @spec.effects this = an empty queue
+     */
+    public IndexedHeap(int capacity) {
+        heap = new int[capacity];
+        position = new int[capacity];
+        key = new double[capacity];
+        stamp = new long[capacity];
+        Arrays.fill(position, -1);
+        checkRep();
+    }
+
+    /**
+     * return whether the queue is empty
+     * @return true iff no element is in the queue
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * return the number of elements in the queue
+     * @return the number of elements in the queue
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * return whether an element is in the queue
+     * @param element the element to look for
+     * @spec.requires 0 &lt;= element &lt; capacity
+     * @return true iff element is in the queue
+     */
+    public boolean contains(int element) {
+        return position[element] >= 0;
+    }
+
+    /**
+     * return how many times an element was added or had its key lowered, which is the
+     * number of entries a queue without decrease-key would have needed
+     * @return the number of additions and key changes so far
+     */
+    public long pushes() {
+        return pushes;
+    }
+
+    /**
+     * add an element with the given key, or lower its key if it is already in the queue
+     * @param element the element to add
+     * @param newKey the key of element
+     * @spec.requires 0 &lt;= element &lt; capacity and newKey is not NaN and, if element is
+     *                in the queue, newKey &lt;= its current key
+     * @spec.modifies this
+     * @spec.effects element is in the queue with key newKey, and comes before every other
+     *               element with the same key
+     */
+    public void push(int element, double newKey) {
+        int i = position[element];
+        if (i < 0) {
+            i = size++;
+            heap[i] = element;
+            position[element] = i;
+        }
+        key[element] = newKey;
+        stamp[element] = ++pushes;
+        siftUp(i);
+        checkRep();
+    }
+
+    /**
+     * return the first element of the queue without removing it
+     * @return the element with the smallest key
+     * @throws NoSuchElementException if the queue is empty
+     */
+    public int peek() {
+        if (size == 0) {
+            throw new NoSuchElementException("queue is empty");
+        }
+        return heap[0];
+    }
+
+    /**
+     * return the key of the first element of the queue
+     * @return the smallest key in the queue
+     * @throws NoSuchElementException if the queue is empty
+     */
+    public double peekKey() {
+        return key[peek()];
+    }
+
+    /**
+     * remove and return the first element of the queue
+     * @spec.modifies this
+     * @spec.effects removes the element with the smallest key
+     * @return the element with the smallest key
+     * @throws NoSuchElementException if the queue is empty
+     */
+    public int poll() {
+        int first = peek();
+        size--;
+        position[first] = -1;
+        if (size > 0) {
+            heap[0] = heap[size];
+            position[heap[0]] = 0;
+            siftDown(0);
+        }
+        checkRep();
+        return first;
+    }
+
+    /**
+     * return the key of an element
+     * @param element the element to look up
+     * @spec.requires 0 &lt;= element &lt; capacity
+     * @return the key element was last given, meaningful only if it was ever pushed
+     */
+    public double keyOf(int element) {
+        return key[element];
+    }
+
+    // helper method returning whether element a comes before element b
+    private boolean before(int a, int b) {
+        return key[a] < key[b] || (key[a] == key[b] && stamp[a] > stamp[b]);
+    }
+
+    // helper method moving the element at index i up until its parent comes before it
+    private void siftUp(int i) {
+        int element = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) / ARITY;
+            if (!before(element, heap[parent])) {
+                break;
+            }
+            heap[i] = heap[parent];
+            position[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = element;
+        position[element] = i;
+    }
+
+    // helper method moving the element at index i down until it comes before its children
+    private void siftDown(int i) {
+        int element = heap[i];
+        while (true) {
+            int first = i * ARITY + 1;
+            if (first >= size) {
+                break;
+            }
+            int best = first;
+            for (int j = first + 1; j < Math.min(first + ARITY, size); j++) {
+                if (before(heap[j], heap[best])) {
+                    best = j;
+                }
+            }
+            if (!before(heap[best], element)) {
+                break;
+            }
+            heap[i] = heap[best];
+            position[heap[i]] = i;
+            i = best;
+        }
+        heap[i] = element;
+        position[element] = i;
+    }
+
+    private void checkRep() {
+        assert size >= 0 && size <= heap.length : "size out of range";
+        assert pushes >= size : "fewer pushes than elements";
+        if (DEBUG) {
+            for (int i = 0; i < size; i++) {
+                assert position[heap[i]] == i : "position does not match heap";
+                assert i == 0 || !before(heap[i], heap[(i - 1) / ARITY]) : "heap order broken";
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class represents an immutable route found by a shortest path search.
+ * A route visits a sequence of nodes, starting at getStart() and ending at getEnd(),
+ * and every step between two consecutive nodes has a cost.
+ *
+ * @param <N> Type for Node value
+ *
+ * Abstract Invariant:
+ *  A route has at least one node, one step less than it has nodes and no step has a
+ *  negative cost
+ */
+public class Route<N> {
+//  RI: nodes != null, costs != null, nodes contains no null value,
+//      nodes.size() == costs.length + 1, every costs[i] >= 0,
+//      cost == sum of costs, settled >= 0, pushes >= 0
+//  AF(this) = A route nodes.get(0) =(costs[0])=> nodes.get(1) ... =(costs[k - 1])=> nodes.get(k)
+//             where k == costs.length, with a total cost of cost,
+//             found by a search that settled settled nodes and pushed nodes onto its
+//             priority queues pushes times (0 if unknown)
+    private final List<N> nodes;
+    private final double[] costs;
+    private final double cost;
+    private final int settled;
+    private final long pushes;
+
+    /**
+     * Creates a route through the given nodes
+     * @param nodes the nodes visited by the route, in order
+     * @param costs the cost of each step, costs[i] is the cost from nodes.get(i) to nodes.get(i + 1)
+     * @spec.requires nodes != null and costs != null and nodes contains no null value
+     * @spec.effects this = Route(nodes, costs)
+     * @throws IllegalArgumentException if nodes.size() != costs.length + 1 or
+     *         a cost is negative or not finite
+     */
+    public Route(List<N> nodes, double[] costs) {
+        this(nodes, costs, 0);
+    }
+
+    /**
+     * Creates a route through the given nodes, found by a search that settled the given
+     * number of nodes
+     * @param nodes the nodes visited by the route, in order
+     * @param costs the cost of each step, costs[i] is the cost from nodes.get(i) to nodes.get(i + 1)
+     * @param settled the number of nodes the search settled before finding the route
+     * @spec.requires nodes != null and costs != null and nodes contains no null value
+     *                and settled &gt;= 0
+     * @spec.effects this = Route(nodes, costs, settled)
+     * @throws IllegalArgumentException if nodes.size() != costs.length + 1 or
+     *         a cost is negative or not finite
+     */
+    public Route(List<N> nodes, double[] costs, int settled) {
+        this(nodes, costs, settled, 0);
+    }
+
+    /**
+     * Creates a route through the given nodes, found by a search that settled the given
+     * number of nodes and pushed the given number of entries onto its priority queues
+     * @param nodes the nodes visited by the route, in order
+     * @param costs the cost of each step, costs[i] is the cost from nodes.get(i) to nodes.get(i + 1)
+     * @param settled the number of nodes the search settled before finding the route
+     * @param pushes the number of additions and key changes of the search's priority queues
+     * @spec.requires nodes != null and costs != null and nodes contains no null value
+     *                and settled &gt;= 0 and pushes &gt;= 0
+     * @spec.effects this = Route(nodes, costs, settled, pushes)
+     * @throws IllegalArgumentException if nodes.size() != costs.length + 1 or
+     *         a cost is negative or not finite
+     */
+    public Route(List<N> nodes, double[] costs, int settled, long pushes) {
+        if (nodes.size() != costs.length + 1) {
+            throw new IllegalArgumentException("a route needs one step less than its nodes");
+        }
+        double total = 0;
+        for (double i : costs) {
+            if (!(i >= 0) || Double.isInfinite(i)) {
+                throw new IllegalArgumentException("step costs must be finite and non-negative");
+            }
+            total += i;
+        }
+        this.nodes = Collections.unmodifiableList(new ArrayList<>(nodes));
+        this.costs = costs.clone();
+        this.cost = total;
+        this.settled = settled;
+        this.pushes = pushes;
+        checkRep();
+    }
+
+    /**
+     * return the node the route starts at
+     * @return the first node of the route
+     */
+    public N getStart() {
+        return nodes.get(0);
+    }
+
+    /**
+     * return the node the route ends at, which is the start node if the route has no steps
+     * @return the last node of the route
+     */
+    public N getEnd() {
+        return nodes.get(nodes.size() - 1);
+    }
+
+    /**
+     * return the total cost of the route
+     * @return the sum of the cost of every step
+     */
+    public double getCost() {
+        return cost;
+    }
+
+    /**
+     * return the number of steps in the route
+     * @return the number of steps, one less than the number of nodes
+     */
+    public int size() {
+        return costs.length;
+    }
+
+    /**
+     * return the nodes visited by the route, in order
+     * @return an unmodifiable list of the nodes of the route
+     */
+    public List<N> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * return the cost of a single step
+     * @param step the index of the step
+     * @spec.requires 0 &lt;= step &lt; size()
+     * @return the cost of going from getNodes().get(step) to getNodes().get(step + 1)
+     */
+    public double getStepCost(int step) {
+        return costs[step];
+    }
+
+    /**
+     * return how many nodes the search that found this route settled, which measures
+     * how much work the search did
+     * @return the number of settled nodes, 0 if unknown
+     */
+    public int getSettled() {
+        return settled;
+    }
+
+    /**
+     * return how many times the search that found this route added a node to its priority
+     * queues or lowered a node's key, which measures the queue work the search did
+     * @return the number of queue pushes, 0 if unknown
+     */
+    public long getPushes() {
+        return pushes;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(nodes.get(0));
+        for (int i = 0; i < costs.length; i++) {
+            sb.append(" =(");
+            sb.append(String.format("%.3f", costs[i]));
+            sb.append(")=> ");
+            sb.append(nodes.get(i + 1));
+        }
+        return sb.toString();
+    }
+
+    private void checkRep() {
+        assert nodes != null : "this.nodes is null";
+        assert costs != null : "this.costs is null";
+        assert nodes.size() == costs.length + 1 : "wrong number of steps";
+        assert cost >= 0 : "this.cost is negative";
+        assert settled >= 0 : "this.settled is negative";
+        assert pushes >= 0 : "this.pushes is negative";
+    }
+}
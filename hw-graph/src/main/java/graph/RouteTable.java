@@ -0,0 +1,114 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * This class represents a precomputed table of the shortest routes from a fixed set of
+ * start nodes to every node of a graph. The table keeps one ShortestPathTree per start
+ * node, so looking up a route walks a tree and never searches.
+ * A RouteTable does not change after it is created, so one instance may answer
+ * queries from several threads at once.
+ *
+ * @param <N> Type for Node value
+ */
+public class RouteTable<N> {
+//  RI: trees != null, every key of trees is the start of its tree, buildNanos >= 0
+//  AF(this) = the shortest routes from each key of trees to every node of the graph,
+//             computed in buildNanos nanoseconds
+    private final Map<N, ShortestPathTree<N>> trees;
+    private final long buildNanos;
+
+    /**
+     * Builds the table by running one single-source search per start node. The searches
+     * run in parallel on the common fork-join pool.
+     * @param router the shortest path calculator of the graph
+     * @param starts values of the nodes routes may start at
+     * @spec.requires router != null and starts != null and starts contains no null value
+     * @spec.effects this = RouteTable(router, starts), leaving out starts that are not
+     *               in the graph
+     */
+    public RouteTable(ShortestPath<N> router, Collection<N> starts) {
+        long begin = System.nanoTime();
+        List<N> sources = new ArrayList<>(new LinkedHashSet<>(starts));
+        List<ShortestPathTree<N>> built = new ArrayList<>(Collections.nCopies(sources.size(), null));
+        IntStream.range(0, sources.size()).parallel()
+                 .forEach(i -> built.set(i, router.findAll(sources.get(i))));
+        Map<N, ShortestPathTree<N>> table = new HashMap<>();
+        for (int i = 0; i < sources.size(); i++) {
+            if (built.get(i) != null) {
+                table.put(sources.get(i), built.get(i));
+            }
+        }
+        this.trees = Collections.unmodifiableMap(table);
+        this.buildNanos = System.nanoTime() - begin;
+        checkRep();
+    }
+
+    /**
+     * find the shortest route between two nodes by walking the tree of start
+     * @param start value of the node the route starts at
+     * @param end value of the node the route ends at
+     * @spec.requires start != null and end != null
+     * @return the shortest route from start to end, null if start is not a start node of
+     *         this table, if end is not in the graph or if there is no route
+     */
+    public Route<N> find(N start, N end) {
+        ShortestPathTree<N> tree = trees.get(start);
+        if (tree == null) {
+            return null;
+        }
+        return tree.routeTo(end);
+    }
+
+    /**
+     * return the tree of shortest routes from a start node
+     * @param start value of the start node
+     * @return the tree of routes from start, null if start is not a start node of this table
+     */
+    public ShortestPathTree<N> treeOf(N start) {
+        return trees.get(start);
+    }
+
+    /**
+     * return the number of start nodes in the table
+     * @return the number of trees in the table
+     */
+    public int size() {
+        return trees.size();
+    }
+
+    /**
+     * return how long building the table took
+     * @return the build time in nanoseconds
+     */
+    public long getBuildNanos() {
+        return buildNanos;
+    }
+
+    /**
+     * return an estimate of the memory the table takes, not counting the graph
+     * @return the approximate size of every tree of the table in bytes
+     */
+    public long memoryBytes() {
+        long total = 0;
+        for (ShortestPathTree<N> i : trees.values()) {
+            total += i.memoryBytes();
+        }
+        return total;
+    }
+
+    private void checkRep() {
+        assert trees != null : "this.trees is null";
+        assert buildNanos >= 0 : "this.buildNanos is negative";
+        for (Map.Entry<N, ShortestPathTree<N>> i : trees.entrySet()) {
+            assert i.getKey().equals(i.getValue().getStart()) : "tree stored under the wrong start";
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToDoubleBiFunction;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * This class represents a shortest path calculator over a directed graph with
+ * non-negative edge weights. It works on any node type: the graph is kept as a
+ * CompactGraph, and a DirectedLabeledGraph can be used with any edge label type by
+ * supplying a function that turns a label into a weight.
+ * A ShortestPath does not change after it is created, so one instance may answer
+ * queries from several threads at once.
+ *
+ * @param <N> Type for Node value
+ */
+public class ShortestPath<N> {
+//  RI: graph != null and every edge weight of graph is finite and >= 0
+//  AF(this) = a shortest path calculator for the weighted graph this.graph
+    private final CompactGraph<N> graph;
+
+    /**
+     * Creates a shortest path calculator over a compact graph
+     * @param graph the graph to search
+     * @spec.requires graph != null
+     * @spec.effects this = ShortestPath(graph)
+     * @throws IllegalArgumentException if an edge weight is negative, infinite or NaN
+     */
+    public ShortestPath(CompactGraph<N> graph) {
+        for (int i = 0; i < graph.edgeNum(); i++) {
+            double weight = graph.edgeWeight(i);
+            if (!(weight >= 0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("edge weights must be finite and non-negative");
+            }
+        }
+        this.graph = graph;
+        checkRep();
+    }
+
+    /**
+     * Creates a shortest path calculator over a snapshot of a labeled graph
+     * @param graph the graph to search
+     * @param weight function turning each edge label into a weight
+     * @param <N> Type for Node value
+     * @param <E> Type for Edge label
+     * @spec.requires graph != null and weight != null
+     * @return a ShortestPath over graph.freeze(weight)
+     * @throws IllegalArgumentException if an edge weight is negative, infinite or NaN
+     */
+    public static <N, E> ShortestPath<N> of(DirectedLabeledGraph<N, E> graph,
+                                            ToDoubleFunction<? super E> weight) {
+        return new ShortestPath<>(graph.freeze(weight));
+    }
+
+    /**
+     * return the graph searched by this calculator
+     * @return the compact graph searched by this calculator
+     */
+    public CompactGraph<N> getGraph() {
+        return graph;
+    }
+
+    /**
+     * find the shortest route between two nodes. When several routes have the same
+     * cost, the one through the most recently reached node is preferred.
+     * @param start value of the node the route starts at
+     * @param end value of the node the route ends at
+     * @spec.requires start != null and end != null
+     * @return the shortest route from start to end,
+     *         null if there is none or if start or end is not in the graph
+     */
+    public Route<N> find(N start, N end) {
+        return search(start, end, null);
+    }
+
+    /**
+     * find the shortest route between two nodes with A* search, which uses an estimate of
+     * the remaining cost to settle fewer nodes than find(start, end). The estimate must be
+     * consistent: it never overestimates, it is 0 from end to end, and for every edge from
+     * u to v with weight w, heuristic(u, end) &lt;= w + heuristic(v, end). When several
+     * routes have the same cost, which one is returned may differ from find(start, end).
+     * @param start value of the node the route starts at
+     * @param end value of the node the route ends at
+     * @param heuristic estimate of the cost from the first node to the second
+     * @spec.requires start != null and end != null and heuristic != null and heuristic is consistent
+     * @return the shortest route from start to end,
+     *         null if there is none or if start or end is not in the graph
+     */
+    public Route<N> find(N start, N end, ToDoubleBiFunction<? super N, ? super N> heuristic) {
+        return search(start, end, heuristic);
+    }
+
+    /**
+     * find the shortest routes from one node to every node it can reach, by running
+     * Dijkstra's algorithm until nothing more can be reached. Every route of the tree is
+     * the same route find(start, end) returns.
+     * @param start value of the node the routes start at
+     * @spec.requires start != null
+     * @return the tree of shortest routes from start, null if start is not in the graph
+     */
+    public ShortestPathTree<N> findAll(N start) {
+        checkRep();
+        int source = graph.idOf(start);
+        if (source < 0) {
+            return null;
+        }
+        int[] predEdge = new int[graph.nodeNum()];
+        Arrays.fill(predEdge, -1);
+        int settled = expand(source, -1, null, null, predEdge, new IndexedHeap(graph.nodeNum()));
+        checkRep();
+        return new ShortestPathTree<>(graph, source, predEdge, settled);
+    }
+
+    // helper method running Dijkstra's algorithm when heuristic is null, and A* otherwise
+    private Route<N> search(N start, N end, ToDoubleBiFunction<? super N, ? super N> heuristic) {
+        checkRep();
+        int source = graph.idOf(start);
+        int target = graph.idOf(end);
+        if (source < 0 || target < 0) {
+            return null;
+        }
+        int[] predEdge = new int[graph.nodeNum()];
+        Arrays.fill(predEdge, -1);
+        IndexedHeap active = new IndexedHeap(graph.nodeNum());
+        int settled = expand(source, target, heuristic, end, predEdge, active);
+        checkRep();
+        if (source != target && predEdge[target] < 0) {
+            return null;
+        }
+        return buildRoute(source, stepsTo(predEdge, source, target), settled, active.pushes());
+    }
+
+    // helper method that expands nodes in order of their cost so far plus their estimated
+    // cost to end, recording in predEdge the edge each node was reached with, until target
+    // is settled or, when target is -1, every reachable node is. active is the empty queue
+    // to search with, so its pushes can be read afterwards. Returns how many nodes were
+    // settled
+    private int expand(int source, int target, ToDoubleBiFunction<? super N, ? super N> heuristic,
+                       N end, int[] predEdge, IndexedHeap active) {
+        int n = graph.nodeNum();
+        double[] dist = new double[n];
+        boolean[] finished = new boolean[n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        dist[source] = 0;
+        // active is the queue of nodes that still need probing, each node at most once,
+        // keyed by its cost so far plus its estimated cost to end
+        int settled = 0;
+        active.push(source, estimate(heuristic, source, end));
+        while (!active.isEmpty()) {
+            int min = active.poll();
+            settled++;
+            if (min == target) {
+                return settled;
+            }
+            finished[min] = true;
+            for (int i = graph.edgeStart(min); i < graph.edgeEnd(min); i++) {
+                int child = graph.edgeTarget(i);
+                double cost = dist[min] + graph.edgeWeight(i);
+                if (!finished[child] && cost < dist[child]) {
+                    dist[child] = cost;
+                    predEdge[child] = i;
+                    active.push(child, cost + estimate(heuristic, child, end));
+                }
+            }
+        }
+        return settled;
+    }
+
+    // helper method returning the estimated cost from node to end, 0 without a heuristic
+    private double estimate(ToDoubleBiFunction<? super N, ? super N> heuristic, int node, N end) {
+        if (heuristic == null) {
+            return 0;
+        }
+        return heuristic.applyAsDouble(graph.valueOf(node), end);
+    }
+
+    /**
+     * find the shortest route between two nodes by searching forwards from start and
+     * backwards from end at the same time until the two searches meet, which settles
+     * fewer nodes than find(start, end) on large graphs. When several routes have the
+     * same cost, which one is returned may differ from find(start, end).
+     * @param start value of the node the route starts at
+     * @param end value of the node the route ends at
+     * @spec.requires start != null and end != null
+     * @return the shortest route from start to end,
+     *         null if there is none or if start or end is not in the graph
+     */
+    public Route<N> findBidirectional(N start, N end) {
+        checkRep();
+        int source = graph.idOf(start);
+        int target = graph.idOf(end);
+        if (source < 0 || target < 0) {
+            return null;
+        }
+        int n = graph.nodeNum();
+        // forward search state, predEdge[v] is the edge the forward search reached v with
+        double[] dist = new double[n];
+        int[] predEdge = new int[n];
+        boolean[] finished = new boolean[n];
+        // backward search state, succEdge[v] is the edge leaving v towards end
+        double[] distBack = new double[n];
+        int[] succEdge = new int[n];
+        boolean[] finishedBack = new boolean[n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(distBack, Double.POSITIVE_INFINITY);
+        dist[source] = 0;
+        distBack[target] = 0;
+        IndexedHeap active = new IndexedHeap(n);
+        IndexedHeap activeBack = new IndexedHeap(n);
+        int settled = 0;
+        active.push(source, 0);
+        activeBack.push(target, 0);
+        // cost of the cheapest route seen so far, and the edge where its two halves meet
+        double best = source == target ? 0 : Double.POSITIVE_INFINITY;
+        int meet = -1;
+        // once the cheapest entries of both queues add up to at least best, no route
+        // through an unsettled node can be cheaper
+        while (!active.isEmpty() && !activeBack.isEmpty()
+                && active.peekKey() + activeBack.peekKey() < best) {
+            if (active.peekKey() <= activeBack.peekKey()) {
+                int min = active.poll();
+                finished[min] = true;
+                settled++;
+                for (int i = graph.edgeStart(min); i < graph.edgeEnd(min); i++) {
+                    int child = graph.edgeTarget(i);
+                    double cost = dist[min] + graph.edgeWeight(i);
+                    if (!finished[child] && cost < dist[child]) {
+                        dist[child] = cost;
+                        predEdge[child] = i;
+                        active.push(child, cost);
+                    }
+                    if (cost + distBack[child] < best) {
+                        best = cost + distBack[child];
+                        meet = i;
+                    }
+                }
+            } else {
+                int min = activeBack.poll();
+                finishedBack[min] = true;
+                settled++;
+                for (int i = graph.inEdgeStart(min); i < graph.inEdgeEnd(min); i++) {
+                    int edge = graph.inEdge(i);
+                    int parent = graph.edgeSource(edge);
+                    double cost = distBack[min] + graph.edgeWeight(edge);
+                    if (!finishedBack[parent] && cost < distBack[parent]) {
+                        distBack[parent] = cost;
+                        succEdge[parent] = edge;
+                        activeBack.push(parent, cost);
+                    }
+                    if (dist[parent] + cost < best) {
+                        best = dist[parent] + cost;
+                        meet = edge;
+                    }
+                }
+            }
+        }
+        checkRep();
+        if (Double.isInfinite(best)) {
+            return null;
+        }
+        if (meet < 0) {
+            return buildRoute(source, new int[0], settled, active.pushes() + activeBack.pushes());
+        }
+        int[] before = stepsTo(predEdge, source, graph.edgeSource(meet));
+        int after = 0;
+        for (int i = graph.edgeTarget(meet); i != target; i = graph.edgeTarget(succEdge[i])) {
+            after++;
+        }
+        int[] steps = Arrays.copyOf(before, before.length + 1 + after);
+        steps[before.length] = meet;
+        for (int i = graph.edgeTarget(meet), j = before.length + 1; i != target;
+             i = graph.edgeTarget(succEdge[i]), j++) {
+            steps[j] = succEdge[i];
+        }
+        return buildRoute(source, steps, settled, active.pushes() + activeBack.pushes());
+    }
+
+    // helper method that follows the predecessor edges back from target and
+    // returns the edges from source to target in order
+    private int[] stepsTo(int[] predEdge, int source, int target) {
+        int length = 0;
+        for (int i = target; i != source; i = graph.edgeSource(predEdge[i])) {
+            length++;
+        }
+        int[] steps = new int[length];
+        for (int i = target, j = length - 1; i != source; i = graph.edgeSource(predEdge[i]), j--) {
+            steps[j] = predEdge[i];
+        }
+        return steps;
+    }
+
+    // helper method that builds the route from source along the given edges
+    private Route<N> buildRoute(int source, int[] steps, int settled, long pushes) {
+        List<N> nodes = new ArrayList<>(steps.length + 1);
+        double[] costs = new double[steps.length];
+        nodes.add(graph.valueOf(source));
+        for (int i = 0; i < steps.length; i++) {
+            nodes.add(graph.valueOf(graph.edgeTarget(steps[i])));
+            costs[i] = graph.edgeWeight(steps[i]);
+        }
+        return new Route<>(nodes, costs, settled, pushes);
+    }
+
+    private void checkRep() {
+        assert graph != null : "this.graph is null";
+    }
+}
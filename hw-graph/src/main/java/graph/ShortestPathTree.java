@@ -0,0 +1,147 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class represents the immutable tree of shortest routes from one node of a
+ * CompactGraph to every node it can reach. Only the edge each node is reached with is
+ * kept, so a route is found by walking the tree back from its end without any search.
+ *
+ * @param <N> Type for Node value
+ */
+public class ShortestPathTree<N> {
+//  RI: graph != null, predEdge != null, predEdge.length == graph.nodeNum(),
+//      0 <= source < graph.nodeNum(), predEdge[source] == -1,
+//      for every v with predEdge[v] != -1, graph.edgeTarget(predEdge[v]) == v
+//      and following predEdge back from v reaches source, settled >= 0
+//  AF(this) = the shortest route from graph.valueOf(source) to each node v is the
+//             route to graph.edgeSource(predEdge[v]) followed by the edge predEdge[v],
+//             and v cannot be reached if predEdge[v] == -1 and v != source.
+//             The search that built it settled settled nodes
+    private final CompactGraph<N> graph;
+    private final int source;
+    private final int[] predEdge;
+    private final int settled;
+
+    /**
+     * Creates a tree of shortest routes from a table of predecessor edges
+     * @param graph the graph the routes are in
+     * @param source id of the node every route starts at
+     * @param predEdge predEdge[v] is the edge the shortest route to v ends with,
+     *                 -1 for source and every node that cannot be reached
+     * @param settled the number of nodes the search that built the tree settled
+     * @spec.requires predEdge describes a tree of shortest routes in graph from source
+     * @spec.effects this = ShortestPathTree(graph, source, predEdge)
+     */
+    ShortestPathTree(CompactGraph<N> graph, int source, int[] predEdge, int settled) {
+        this.graph = graph;
+        this.source = source;
+        this.predEdge = predEdge;
+        this.settled = settled;
+        checkRep();
+    }
+
+    /**
+     * return the node every route of this tree starts at
+     * @return the root of the tree
+     */
+    public N getStart() {
+        return graph.valueOf(source);
+    }
+
+    /**
+     * return how many nodes the search that built this tree settled
+     * @return the number of settled nodes
+     */
+    public int getSettled() {
+        return settled;
+    }
+
+    /**
+     * return whether a node can be reached from the start
+     * @param end value of the node
+     * @spec.requires end != null
+     * @return true iff end is in the graph and there is a route from getStart() to end
+     */
+    public boolean reaches(N end) {
+        int target = graph.idOf(end);
+        return target == source || (target >= 0 && predEdge[target] >= 0);
+    }
+
+    /**
+     * find the shortest route from the start to a node by walking the tree
+     * @param end value of the node the route ends at
+     * @spec.requires end != null
+     * @return the shortest route from getStart() to end, whose settled count is 0 since
+     *         no search is done, null if there is none or if end is not in the graph
+     */
+    public Route<N> routeTo(N end) {
+        checkRep();
+        if (!reaches(end)) {
+            return null;
+        }
+        int target = graph.idOf(end);
+        int length = 0;
+        for (int i = target; i != source; i = graph.edgeSource(predEdge[i])) {
+            length++;
+        }
+        List<N> nodes = new ArrayList<>(length + 1);
+        double[] costs = new double[length];
+        for (int i = 0; i <= length; i++) {
+            nodes.add(null);
+        }
+        nodes.set(length, graph.valueOf(target));
+        for (int i = target, j = length - 1; i != source; i = graph.edgeSource(predEdge[i]), j--) {
+            costs[j] = graph.edgeWeight(predEdge[i]);
+            nodes.set(j, graph.valueOf(graph.edgeSource(predEdge[i])));
+        }
+        return new Route<>(nodes, costs);
+    }
+
+    /**
+     * find the cost of the shortest route from the start to a node without building the
+     * route, adding the step costs up in the same order Route does so the two agree exactly
+     * @param end value of the node the route ends at
+     * @spec.requires end != null
+     * @return routeTo(end).getCost(), or Double.POSITIVE_INFINITY if end cannot be reached
+     *         or is not in the graph
+     */
+    public double costTo(N end) {
+        checkRep();
+        if (!reaches(end)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        int target = graph.idOf(end);
+        int length = 0;
+        for (int i = target; i != source; i = graph.edgeSource(predEdge[i])) {
+            length++;
+        }
+        double[] costs = new double[length];
+        for (int i = target, j = length - 1; i != source; i = graph.edgeSource(predEdge[i]), j--) {
+            costs[j] = graph.edgeWeight(predEdge[i]);
+        }
+        double total = 0;
+        for (double i : costs) {
+            total += i;
+        }
+        return total;
+    }
+
+    /**
+     * return an estimate of the memory the tree takes, not counting the graph it is
+     * a tree of since that is shared by every tree of the graph
+     * @return the approximate size of this tree in bytes
+     */
+    public long memoryBytes() {
+        // object header and fields, plus the predecessor array and its header
+        return 32 + 16 + 4L * predEdge.length;
+    }
+
+    private void checkRep() {
+        assert graph != null : "this.graph is null";
+        assert predEdge != null && predEdge.length == graph.nodeNum() : "this.predEdge has the wrong length";
+        assert source >= 0 && source < graph.nodeNum() && predEdge[source] == -1 : "bad source";
+        assert settled >= 0 : "this.settled is negative";
+    }
+}
@@ -0,0 +1,192 @@
+package graph.junitTests;
+
+import graph.CompactGraph;
+import graph.DirectedLabeledGraph;
+import org.junit.Test;
+import org.junit.BeforeClass;
+import static org.junit.Assert.*;
+import org.junit.Rule;
+import org.junit.rules.Timeout;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * CompactGraphTest is a glassbox test of the CompactGraph class and DirectedLabeledGraph#freeze.
+ */
+public class CompactGraphTest {
+    @Rule public Timeout globalTimeout = Timeout.seconds(10);
+    // 10 seconds max per method tested
+    private static DirectedLabeledGraph<String, Double> g = new DirectedLabeledGraph<>();
+    private static DirectedLabeledGraph.Node<String> a = new DirectedLabeledGraph.Node<>("a");
+    private static DirectedLabeledGraph.Node<String> b = new DirectedLabeledGraph.Node<>("b");
+    private static DirectedLabeledGraph.Node<String> c = new DirectedLabeledGraph.Node<>("c");
+    private static CompactGraph<String> empty;
+    private static CompactGraph<String> frozen;
+
+    @BeforeClass
+    public static void m() {
+        empty = new DirectedLabeledGraph<String, Double>().freeze(Double::doubleValue);
+        g.addNode(a);
+        g.addNode(b);
+        g.addNode(c);
+        g.addEdge(new DirectedLabeledGraph.Edge<>(a, b, 1.0));
+        g.addEdge(new DirectedLabeledGraph.Edge<>(a, c, 2.5));
+        g.addEdge(new DirectedLabeledGraph.Edge<>(b, b, 3.0));
+        frozen = g.freeze(Double::doubleValue);
+    }
+
+    /** Tests nodeNum and edgeNum match the graph that was frozen */
+    @Test
+    public void testSize() {
+        assertEquals(empty.nodeNum(), 0);
+        assertEquals(empty.edgeNum(), 0);
+        assertEquals(frozen.nodeNum(), 3);
+        assertEquals(frozen.edgeNum(), 3);
+    }
+
+    /** Tests idOf and valueOf are inverses and unknown values have no id */
+    @Test
+    public void testIds() {
+        assertEquals(empty.idOf("a"), -1);
+        assertEquals(frozen.idOf("d"), -1);
+        for (String i : new String[] {"a", "b", "c"}) {
+            int id = frozen.idOf(i);
+            assertTrue(id >= 0 && id < frozen.nodeNum());
+            assertEquals(frozen.valueOf(id), i);
+            assertEquals(frozen.values().get(id), i);
+        }
+    }
+
+    /** Tests the outgoing edges of every node match the original graph */
+    @Test
+    public void testEdges() {
+        for (DirectedLabeledGraph.Node<String> i : g.listNode()) {
+            int id = frozen.idOf(i.getValue());
+            Set<String> expected = new HashSet<>();
+            for (DirectedLabeledGraph.Edge<String, Double> j : g.listChildren(i)) {
+                expected.add(j.getChild().getValue() + j.getLabel());
+            }
+            Set<String> actual = new HashSet<>();
+            for (int j = frozen.edgeStart(id); j < frozen.edgeEnd(id); j++) {
+                actual.add(frozen.valueOf(frozen.edgeTarget(j)) + frozen.edgeWeight(j));
+            }
+            assertEquals(expected, actual);
+        }
+    }
+
+    /** Tests that changing the graph after freezing does not change the snapshot */
+    @Test
+    public void testSnapshot() {
+        DirectedLabeledGraph<String, Double> copy = new DirectedLabeledGraph<>();
+        copy.addNode(a);
+        CompactGraph<String> before = copy.freeze(Double::doubleValue);
+        copy.addNode(b);
+        copy.addEdge(new DirectedLabeledGraph.Edge<>(a, b, 1.0));
+        assertEquals(before.nodeNum(), 1);
+        assertEquals(before.edgeNum(), 0);
+        assertEquals(before.idOf("b"), -1);
+    }
+
+    /** Tests the incoming edges of every node match the original graph */
+    @Test
+    public void testIncomingEdges() {
+        for (DirectedLabeledGraph.Node<String> i : g.listNode()) {
+            int id = frozen.idOf(i.getValue());
+            Set<String> expected = new HashSet<>();
+            for (DirectedLabeledGraph.Edge<String, Double> j : g.listParents(i)) {
+                expected.add(j.getParent().getValue() + j.getLabel());
+            }
+            Set<String> actual = new HashSet<>();
+            for (int j = frozen.inEdgeStart(id); j < frozen.inEdgeEnd(id); j++) {
+                int edge = frozen.inEdge(j);
+                assertEquals(frozen.edgeTarget(edge), id);
+                actual.add(frozen.valueOf(frozen.edgeSource(edge)) + frozen.edgeWeight(edge));
+            }
+            assertEquals(expected, actual);
+        }
+    }
+
+    /** Tests a graph rebuilt from the arrays of another has the same nodes and edges */
+    @Test
+    public void testOf() {
+        int[] offsets = new int[frozen.nodeNum() + 1];
+        int[] targets = new int[frozen.edgeNum()];
+        double[] weights = new double[frozen.edgeNum()];
+        for (int i = 0; i < frozen.nodeNum(); i++) {
+            offsets[i + 1] = frozen.edgeEnd(i);
+        }
+        for (int i = 0; i < frozen.edgeNum(); i++) {
+            targets[i] = frozen.edgeTarget(i);
+            weights[i] = frozen.edgeWeight(i);
+        }
+        CompactGraph<String> copy = CompactGraph.of(frozen.values(), offsets, targets, weights);
+        assertEquals(frozen.values(), copy.values());
+        for (int i = 0; i < frozen.edgeNum(); i++) {
+            assertEquals(frozen.edgeSource(i), copy.edgeSource(i));
+            assertEquals(frozen.edgeTarget(i), copy.edgeTarget(i));
+            assertEquals(frozen.edgeWeight(i), copy.edgeWeight(i), 0);
+        }
+        assertEquals(frozen.inEdgeEnd(1) - frozen.inEdgeStart(1), copy.inEdgeEnd(1) - copy.inEdgeStart(1));
+    }
+
+    /** Tests arrays that are not in compressed sparse row form are rejected */
+    @Test
+    public void testOfInvalid() {
+        List<String> two = Arrays.asList("a", "b");
+        int[][] badOffsets = {{0, 1}, {0, 2, 1}, {1, 1, 1}};
+        for (int[] offsets : badOffsets) {
+            try {
+                CompactGraph.of(two, offsets, new int[] {1}, new double[] {1});
+                fail("accepted offsets " + Arrays.toString(offsets));
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+        try {
+            CompactGraph.of(two, new int[] {0, 1, 1}, new int[] {2}, new double[] {1});
+            fail("accepted an edge to a missing node");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            CompactGraph.of(Arrays.asList("a", "a"), new int[] {0, 0, 0}, new int[0], new double[0]);
+            fail("accepted two nodes with the same value");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /** Tests edges given in any order are grouped by source in order, without duplicates */
+    @Test
+    public void testFromEdges() {
+        List<String> values = Arrays.asList("a", "b", "c");
+        int[] sources = {2, 0, 0, 2, 0, 0, 1};
+        int[] targets = {0, 2, 1, 0, 2, 2, 1};
+        double[] weights = {1, 5, 3, 1, 5, 6, 0};
+        CompactGraph<String> graph = CompactGraph.fromEdges(values, sources, targets, weights);
+        assertEquals(values, graph.values());
+        assertEquals(5, graph.edgeNum());
+        int[][] expected = {{0, 2, 5}, {0, 1, 3}, {0, 2, 6}, {1, 1, 0}, {2, 0, 1}};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i][0], graph.edgeSource(i));
+            assertEquals(expected[i][1], graph.edgeTarget(i));
+            assertEquals(expected[i][2], graph.edgeWeight(i), 0);
+        }
+        assertEquals(2, graph.inEdgeEnd(2) - graph.inEdgeStart(2));
+        try {
+            CompactGraph.fromEdges(values, new int[] {0}, new int[] {3}, new double[] {1});
+            fail("accepted an edge to a missing node");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            CompactGraph.fromEdges(values, new int[] {0}, new int[] {1, 2}, new double[] {1});
+            fail("accepted arrays of different lengths");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
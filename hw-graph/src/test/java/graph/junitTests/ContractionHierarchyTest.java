@@ -0,0 +1,129 @@
+package graph.junitTests;
+
+import graph.CompactGraph;
+import graph.ContractionHierarchy;
+import graph.DirectedLabeledGraph;
+import graph.Route;
+import graph.ShortestPath;
+import org.junit.Test;
+import org.junit.BeforeClass;
+import static org.junit.Assert.*;
+import org.junit.Rule;
+import org.junit.rules.Timeout;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * ContractionHierarchyTest is a glassbox test of the ContractionHierarchy class.
+ */
+public class ContractionHierarchyTest {
+    @Rule public Timeout globalTimeout = Timeout.seconds(10);
+    // 10 seconds max per method tested
+    private static DirectedLabeledGraph<String, Double> g = new DirectedLabeledGraph<>();
+    private static ContractionHierarchy<String> ch;
+
+    private static void edge(DirectedLabeledGraph<String, Double> graph, String a, String b, double w) {
+        graph.addEdge(new DirectedLabeledGraph.Edge<>(new DirectedLabeledGraph.Node<>(a),
+                new DirectedLabeledGraph.Node<>(b), w));
+    }
+
+    @BeforeClass
+    public static void m() {
+        for (String i : new String[] {"A", "B", "C", "D", "E", "F"}) {
+            g.addNode(new DirectedLabeledGraph.Node<>(i));
+        }
+        edge(g, "A", "B", 1);
+        edge(g, "B", "C", 1);
+        edge(g, "A", "C", 5);
+        edge(g, "C", "D", 2);
+        edge(g, "D", "A", 1);
+        edge(g, "A", "E", 0);
+        ch = new ContractionHierarchy<>(g.freeze(Double::doubleValue));
+    }
+
+    /** Tests the cheapest route is found and its shortcuts are unpacked into edges */
+    @Test
+    public void testCheapestRoute() {
+        Route<String> r = ch.find("A", "D");
+        assertEquals(Arrays.asList("A", "B", "C", "D"), r.getNodes());
+        assertEquals(4.0, r.getCost(), 0);
+        assertEquals(2.0, r.getStepCost(2), 0);
+        assertTrue(r.getPushes() >= r.getSettled() && r.getSettled() > 0);
+        assertEquals(Arrays.asList("C", "D", "A", "B"), ch.find("C", "B").getNodes());
+        assertEquals(0, ch.find("B", "B").size());
+    }
+
+    /** Tests missing routes and unknown nodes give null */
+    @Test
+    public void testNoRoute() {
+        assertNull(ch.find("E", "A"));
+        assertNull(ch.find("A", "F"));
+        assertNull(ch.find("A", "G"));
+    }
+
+    /** Tests routes along a line, whose inner nodes can only be skipped by shortcuts */
+    @Test
+    public void testLine() {
+        DirectedLabeledGraph<String, Double> line = new DirectedLabeledGraph<>();
+        for (int i = 0; i < 10; i++) {
+            line.addNode(new DirectedLabeledGraph.Node<>("n" + i));
+        }
+        for (int i = 0; i < 9; i++) {
+            edge(line, "n" + i, "n" + (i + 1), 1);
+            edge(line, "n" + (i + 1), "n" + i, 2);
+        }
+        ContractionHierarchy<String> lineCh = new ContractionHierarchy<>(line.freeze(Double::doubleValue));
+        Route<String> there = lineCh.find("n0", "n9");
+        Route<String> back = lineCh.find("n9", "n0");
+        assertEquals(9, there.size());
+        assertEquals(9.0, there.getCost(), 0);
+        assertEquals(18.0, back.getCost(), 0);
+        for (int i = 0; i < 10; i++) {
+            assertEquals("n" + i, there.getNodes().get(i));
+            assertEquals("n" + i, back.getNodes().get(9 - i));
+        }
+    }
+
+    /** Tests the hierarchy finds routes as cheap as Dijkstra's algorithm on random graphs */
+    @Test
+    public void testAgreesWithShortestPath() {
+        Random random = new Random(331);
+        for (int k = 0; k < 20; k++) {
+            DirectedLabeledGraph<String, Double> r = new DirectedLabeledGraph<>();
+            for (int i = 0; i < 30; i++) {
+                r.addNode(new DirectedLabeledGraph.Node<>("n" + i));
+            }
+            for (int i = 0; i < 90; i++) {
+                edge(r, "n" + random.nextInt(30), "n" + random.nextInt(30), random.nextInt(10));
+            }
+            CompactGraph<String> frozen = r.freeze(Double::doubleValue);
+            ShortestPath<String> search = new ShortestPath<>(frozen);
+            ContractionHierarchy<String> hierarchy = new ContractionHierarchy<>(frozen);
+            for (int i = 0; i < 30; i++) {
+                for (int j = 0; j < 30; j++) {
+                    Route<String> plain = search.find("n" + i, "n" + j);
+                    Route<String> fast = hierarchy.find("n" + i, "n" + j);
+                    if (plain == null) {
+                        assertNull(fast);
+                        continue;
+                    }
+                    assertEquals(plain.getCost(), fast.getCost(), 1e-9);
+                    assertEquals("n" + i, fast.getStart());
+                    assertEquals("n" + j, fast.getEnd());
+                    // every step must be an edge of the original graph with its weight
+                    for (int s = 0; s < fast.size(); s++) {
+                        int from = frozen.idOf(fast.getNodes().get(s));
+                        int to = frozen.idOf(fast.getNodes().get(s + 1));
+                        boolean found = false;
+                        for (int e = frozen.edgeStart(from); e < frozen.edgeEnd(from); e++) {
+                            found |= frozen.edgeTarget(e) == to
+                                    && frozen.edgeWeight(e) == fast.getStepCost(s);
+                        }
+                        assertTrue(found);
+                    }
+                }
+            }
+        }
+    }
+}
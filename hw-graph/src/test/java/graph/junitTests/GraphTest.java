@@ -6,6 +6,8 @@ import org.junit.BeforeClass;
 import static org.junit.Assert.*;
 import org.junit.Rule;
 import org.junit.rules.Timeout;
+
+import java.util.ArrayList;
 /**
  * GraphTest is a glassbox test of the DirectedLabeledGraph class.
  */
@@ -231,4 +233,61 @@ public class GraphTest {
         g23.addEdge(e6);
         assertFalse(g23.containEdge(e6));
     }
+
+    /** Tests listChildren only returns the outgoing edges of the given node */
+    @Test
+    public void testListChildren() {
+        assertTrue(g0.listChildren(n1).isEmpty());
+        assertTrue(g2.listChildren(n1).isEmpty());
+        assertEquals(g21.listChildren(n1).size(), 1);
+        assertTrue(g21.listChildren(n1).contains(e3));
+        assertTrue(g21.listChildren(n2).isEmpty());
+        assertEquals(g23.listChildren(n2).size(), 2);
+        assertTrue(g23.listChildren(n2).contains(e4));
+        assertTrue(g23.listChildren(n2).contains(e5));
+        assertFalse(g23.listChildren(n2).contains(e3));
+    }
+
+    /** Tests that adding duplicate edges does not change the outgoing edges of a node */
+    @Test
+    public void testListChildrenDuplicateEdge() {
+        DirectedLabeledGraph<String, String> g = new DirectedLabeledGraph<>();
+        g.addNode(n1);
+        g.addNode(n2);
+        g.addEdge(e3);
+        g.addEdge(new DirectedLabeledGraph.Edge<>(n11, n2, "1"));
+        assertEquals(g.edgeNum(), 1);
+        assertEquals(g.listChildren(n1).size(), 1);
+        // the returned list is a copy, so modifying it does not affect the graph
+        g.listChildren(n1).clear();
+        assertEquals(g.listChildren(n1).size(), 1);
+    }
+
+    /** Tests children is a read-only view of the edges listChildren returns, in the same order */
+    @Test
+    public void testChildrenView() {
+        assertTrue(g0.children(n1).isEmpty());
+        assertTrue(g21.children(n2).isEmpty());
+        assertEquals(g23.listChildren(n2), new ArrayList<>(g23.children(n2)));
+        try {
+            g23.children(n2).clear();
+            fail("children could be modified");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        assertEquals(g23.children(n2).size(), 2);
+    }
+
+    /** Tests listParents only returns the incoming edges of the given node */
+    @Test
+    public void testListParents() {
+        assertTrue(g0.listParents(n1).isEmpty());
+        assertTrue(g21.listParents(n1).isEmpty());
+        assertEquals(g21.listParents(n2).size(), 1);
+        assertTrue(g21.listParents(n2).contains(e3));
+        assertEquals(g23.listParents(n2).size(), 2);
+        assertTrue(g23.listParents(n2).contains(e3));
+        assertTrue(g23.listParents(n2).contains(e5));
+        assertEquals(g12.listParents(n1).size(), 2);
+    }
 }
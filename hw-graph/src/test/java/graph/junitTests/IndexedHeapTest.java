@@ -0,0 +1,95 @@
+package graph.junitTests;
+
+import graph.IndexedHeap;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import org.junit.Rule;
+import org.junit.rules.Timeout;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * IndexedHeapTest is a glassbox test of the IndexedHeap class.
+ */
+public class IndexedHeapTest {
+    @Rule public Timeout globalTimeout = Timeout.seconds(10);
+    // 10 seconds max per method tested
+
+    /** Tests elements come out in key order and an empty heap has no first element */
+    @Test
+    public void testOrder() {
+        IndexedHeap heap = new IndexedHeap(5);
+        assertTrue(heap.isEmpty());
+        heap.push(3, 2.0);
+        heap.push(0, 5.0);
+        heap.push(4, 1.0);
+        assertEquals(3, heap.size());
+        assertTrue(heap.contains(0));
+        assertFalse(heap.contains(1));
+        assertEquals(4, heap.peek());
+        assertEquals(1.0, heap.peekKey(), 0);
+        assertEquals(4, heap.poll());
+        assertEquals(3, heap.poll());
+        assertEquals(0, heap.poll());
+        assertFalse(heap.contains(0));
+        assertTrue(heap.isEmpty());
+    }
+
+    /** Tests lowering a key moves the element forward without adding a second entry */
+    @Test
+    public void testDecreaseKey() {
+        IndexedHeap heap = new IndexedHeap(3);
+        heap.push(0, 1.0);
+        heap.push(1, 4.0);
+        heap.push(2, 3.0);
+        heap.push(1, 0.5);
+        assertEquals(3, heap.size());
+        assertEquals(4, heap.pushes());
+        assertEquals(0.5, heap.keyOf(1), 0);
+        assertEquals(1, heap.poll());
+        assertEquals(0, heap.poll());
+        assertEquals(2, heap.poll());
+    }
+
+    /** Tests elements with equal keys come out most recently pushed first */
+    @Test
+    public void testTies() {
+        IndexedHeap heap = new IndexedHeap(4);
+        heap.push(0, 1.0);
+        heap.push(1, 1.0);
+        heap.push(2, 2.0);
+        heap.push(2, 1.0);
+        heap.push(3, 1.0);
+        assertEquals(3, heap.poll());
+        assertEquals(2, heap.poll());
+        assertEquals(1, heap.poll());
+        assertEquals(0, heap.poll());
+    }
+
+    /** Tests random pushes and decreases come out in non-decreasing key order */
+    @Test
+    public void testRandom() {
+        Random random = new Random(331);
+        IndexedHeap heap = new IndexedHeap(1000);
+        for (int i = 0; i < 5000; i++) {
+            int element = random.nextInt(1000);
+            double key = random.nextInt(100);
+            if (!heap.contains(element) || key < heap.keyOf(element)) {
+                heap.push(element, key);
+            }
+        }
+        double last = Double.NEGATIVE_INFINITY;
+        while (!heap.isEmpty()) {
+            int element = heap.poll();
+            assertTrue(heap.keyOf(element) >= last);
+            last = heap.keyOf(element);
+        }
+    }
+
+    /** Tests polling an empty heap fails */
+    @Test(expected = NoSuchElementException.class)
+    public void testPollEmpty() {
+        new IndexedHeap(1).poll();
+    }
+}
@@ -0,0 +1,68 @@
+package graph.junitTests;
+
+import graph.DirectedLabeledGraph;
+import graph.RouteTable;
+import graph.ShortestPath;
+import org.junit.Test;
+import org.junit.BeforeClass;
+import static org.junit.Assert.*;
+import org.junit.Rule;
+import org.junit.rules.Timeout;
+
+import java.util.Arrays;
+
+/**
+ * RouteTableTest is a glassbox test of the RouteTable class.
+ */
+public class RouteTableTest {
+    @Rule public Timeout globalTimeout = Timeout.seconds(10);
+    // 10 seconds max per method tested
+    private static ShortestPath<String> sp;
+    private static RouteTable<String> table;
+
+    private static void edge(DirectedLabeledGraph<String, Double> graph, String a, String b, double w) {
+        graph.addEdge(new DirectedLabeledGraph.Edge<>(new DirectedLabeledGraph.Node<>(a),
+                new DirectedLabeledGraph.Node<>(b), w));
+    }
+
+    @BeforeClass
+    public static void m() {
+        DirectedLabeledGraph<String, Double> g = new DirectedLabeledGraph<>();
+        for (String i : new String[] {"A", "B", "C", "D", "E", "F"}) {
+            g.addNode(new DirectedLabeledGraph.Node<>(i));
+        }
+        edge(g, "A", "B", 1);
+        edge(g, "B", "C", 1);
+        edge(g, "A", "C", 5);
+        edge(g, "C", "D", 2);
+        edge(g, "D", "A", 1);
+        edge(g, "A", "E", 0);
+        sp = ShortestPath.of(g, Double::doubleValue);
+        table = new RouteTable<>(sp, Arrays.asList("A", "C", "C", "G"));
+    }
+
+    /** Tests only the start nodes in the graph get a tree, once each */
+    @Test
+    public void testStarts() {
+        assertEquals(2, table.size());
+        assertNotNull(table.treeOf("A"));
+        assertNull(table.treeOf("B"));
+        assertNull(table.treeOf("G"));
+        assertTrue(table.memoryBytes() > 0);
+        assertTrue(table.getBuildNanos() >= 0);
+    }
+
+    /** Tests routes from the table are the routes find returns */
+    @Test
+    public void testFind() {
+        for (String i : new String[] {"A", "C"}) {
+            for (String j : new String[] {"A", "B", "C", "D", "E"}) {
+                assertEquals(sp.find(i, j).getNodes(), table.find(i, j).getNodes());
+                assertEquals(0, table.find(i, j).getSettled());
+            }
+        }
+        assertNull(table.find("A", "F"));
+        assertNull(table.find("B", "C"));
+        assertNull(table.find("A", "G"));
+    }
+}
@@ -0,0 +1,197 @@
+package graph.junitTests;
+
+import graph.DirectedLabeledGraph;
+import graph.Route;
+import graph.ShortestPath;
+import graph.ShortestPathTree;
+import org.junit.Test;
+import org.junit.BeforeClass;
+import static org.junit.Assert.*;
+import org.junit.Rule;
+import org.junit.rules.Timeout;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * ShortestPathTest is a glassbox test of the ShortestPath and Route classes.
+ */
+public class ShortestPathTest {
+    @Rule public Timeout globalTimeout = Timeout.seconds(10);
+    // 10 seconds max per method tested
+    private static DirectedLabeledGraph<String, Double> g = new DirectedLabeledGraph<>();
+    private static DirectedLabeledGraph<String, String> words = new DirectedLabeledGraph<>();
+    private static ShortestPath<String> sp;
+
+    private static void edge(DirectedLabeledGraph<String, Double> graph, String a, String b, double w) {
+        graph.addEdge(new DirectedLabeledGraph.Edge<>(new DirectedLabeledGraph.Node<>(a),
+                new DirectedLabeledGraph.Node<>(b), w));
+    }
+
+    @BeforeClass
+    public static void m() {
+        for (String i : new String[] {"A", "B", "C", "D", "E", "F"}) {
+            g.addNode(new DirectedLabeledGraph.Node<>(i));
+            words.addNode(new DirectedLabeledGraph.Node<>(i));
+        }
+        edge(g, "A", "B", 1);
+        edge(g, "B", "C", 1);
+        edge(g, "A", "C", 5);
+        edge(g, "C", "D", 2);
+        edge(g, "D", "A", 1);
+        edge(g, "A", "E", 0);
+        sp = ShortestPath.of(g, Double::doubleValue);
+        words.addEdge(new DirectedLabeledGraph.Edge<>(new DirectedLabeledGraph.Node<>("A"),
+                new DirectedLabeledGraph.Node<>("B"), "long label"));
+        words.addEdge(new DirectedLabeledGraph.Edge<>(new DirectedLabeledGraph.Node<>("A"),
+                new DirectedLabeledGraph.Node<>("C"), "ab"));
+        words.addEdge(new DirectedLabeledGraph.Edge<>(new DirectedLabeledGraph.Node<>("C"),
+                new DirectedLabeledGraph.Node<>("B"), "abc"));
+    }
+
+    /** Tests the cheapest route is found instead of the one with fewest steps */
+    @Test
+    public void testCheapestRoute() {
+        Route<String> r = sp.find("A", "D");
+        assertEquals(Arrays.asList("A", "B", "C", "D"), r.getNodes());
+        assertEquals(4.0, r.getCost(), 0);
+        assertEquals(3, r.size());
+        assertEquals(2.0, r.getStepCost(2), 0);
+        assertEquals("A", r.getStart());
+        assertEquals("D", r.getEnd());
+    }
+
+    /** Tests routes from a node to itself, over zero cost edges and around cycles */
+    @Test
+    public void testSpecialRoutes() {
+        Route<String> self = sp.find("A", "A");
+        assertEquals(0, self.size());
+        assertEquals(0.0, self.getCost(), 0);
+        assertEquals(0.0, sp.find("A", "E").getCost(), 0);
+        assertEquals(Arrays.asList("C", "D", "A", "B"), sp.find("C", "B").getNodes());
+    }
+
+    /** Tests that unreachable or unknown nodes give no route */
+    @Test
+    public void testNoRoute() {
+        assertNull(sp.find("E", "A"));
+        assertNull(sp.find("A", "F"));
+        assertNull(sp.find("A", "Z"));
+        assertNull(sp.find("Z", "A"));
+    }
+
+    /** Tests that any label type can be searched with a weight function */
+    @Test
+    public void testWeightFunction() {
+        Route<String> r = ShortestPath.of(words, String::length).find("A", "B");
+        assertEquals(Arrays.asList("A", "C", "B"), r.getNodes());
+        assertEquals(5.0, r.getCost(), 0);
+    }
+
+    /** Tests that negative weights are rejected */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeWeight() {
+        DirectedLabeledGraph<String, Double> neg = new DirectedLabeledGraph<>();
+        neg.addNode(new DirectedLabeledGraph.Node<>("A"));
+        edge(neg, "A", "A", -1);
+        ShortestPath.of(neg, Double::doubleValue);
+    }
+
+    /** Tests that a Route checks its steps */
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadRoute() {
+        new Route<>(Arrays.asList("A", "B"), new double[0]);
+    }
+
+    /** Tests A* finds the same cost as Dijkstra and settles no more nodes */
+    @Test
+    public void testAStar() {
+        // number of steps left to D on the cheapest route, which is consistent for g
+        Map<String, Double> left = new HashMap<>();
+        left.put("A", 3.0);
+        left.put("B", 2.0);
+        left.put("C", 1.0);
+        left.put("D", 0.0);
+        left.put("E", 0.0);
+        left.put("F", 0.0);
+        Route<String> plain = sp.find("A", "D");
+        Route<String> guided = sp.find("A", "D", (a, b) -> b.equals("D") ? left.get(a) : 0.0);
+        assertEquals(plain.getCost(), guided.getCost(), 0);
+        assertEquals(plain.getNodes(), guided.getNodes());
+        assertTrue(guided.getSettled() > 0);
+        assertTrue(guided.getSettled() <= plain.getSettled());
+        // every settled node was pushed first, and the route from a table has no search
+        assertTrue(plain.getPushes() >= plain.getSettled());
+        assertTrue(sp.findBidirectional("A", "D").getPushes() >= sp.findBidirectional("A", "D").getSettled());
+        assertEquals(0, sp.findAll("A").routeTo("D").getPushes());
+        assertNull(sp.find("E", "A", (a, b) -> 0.0));
+    }
+
+    /** Tests the bidirectional search on the small graph */
+    @Test
+    public void testBidirectional() {
+        assertEquals(Arrays.asList("A", "B", "C", "D"), sp.findBidirectional("A", "D").getNodes());
+        assertEquals(Arrays.asList("C", "D", "A", "B"), sp.findBidirectional("C", "B").getNodes());
+        assertEquals(0, sp.findBidirectional("B", "B").size());
+        assertNull(sp.findBidirectional("E", "A"));
+        assertNull(sp.findBidirectional("A", "Z"));
+    }
+
+    /** Tests the tree of routes from a node matches the routes find returns */
+    @Test
+    public void testFindAll() {
+        assertNull(sp.findAll("G"));
+        ShortestPathTree<String> tree = sp.findAll("C");
+        assertEquals("C", tree.getStart());
+        assertEquals(5, tree.getSettled());
+        assertFalse(tree.reaches("F"));
+        assertNull(tree.routeTo("F"));
+        assertNull(tree.routeTo("G"));
+        assertEquals(0, tree.routeTo("C").size());
+        for (String i : new String[] {"A", "B", "D", "E"}) {
+            assertTrue(tree.reaches(i));
+            assertEquals(sp.find("C", i).getNodes(), tree.routeTo(i).getNodes());
+            assertEquals(sp.find("C", i).getCost(), tree.routeTo(i).getCost(), 0);
+            assertEquals(tree.routeTo(i).getCost(), tree.costTo(i), 0);
+        }
+        assertEquals(0, tree.costTo("C"), 0);
+        assertEquals(Double.POSITIVE_INFINITY, tree.costTo("F"), 0);
+        assertEquals(Double.POSITIVE_INFINITY, tree.costTo("G"), 0);
+    }
+
+    /** Tests every search finds routes of the same cost on random graphs */
+    @Test
+    public void testSearchesAgree() {
+        Random random = new Random(331);
+        for (int k = 0; k < 20; k++) {
+            DirectedLabeledGraph<String, Double> r = new DirectedLabeledGraph<>();
+            for (int i = 0; i < 30; i++) {
+                r.addNode(new DirectedLabeledGraph.Node<>("n" + i));
+            }
+            for (int i = 0; i < 90; i++) {
+                edge(r, "n" + random.nextInt(30), "n" + random.nextInt(30), random.nextInt(10));
+            }
+            ShortestPath<String> search = ShortestPath.of(r, Double::doubleValue);
+            for (int i = 0; i < 30; i++) {
+                for (int j = 0; j < 30; j++) {
+                    Route<String> plain = search.find("n" + i, "n" + j);
+                    Route<String> both = search.findBidirectional("n" + i, "n" + j);
+                    Route<String> walked = search.findAll("n" + i).routeTo("n" + j);
+                    if (plain == null) {
+                        assertNull(both);
+                        assertNull(walked);
+                        assertEquals(Double.POSITIVE_INFINITY, search.findAll("n" + i).costTo("n" + j), 0);
+                    } else {
+                        assertEquals(plain.getCost(), search.findAll("n" + i).costTo("n" + j), 0);
+                        assertEquals(plain.getNodes(), walked.getNodes());
+                        assertEquals(plain.getCost(), both.getCost(), 0);
+                        assertEquals("n" + i, both.getStart());
+                        assertEquals("n" + j, both.getEnd());
+                    }
+                }
+            }
+        }
+    }
+}
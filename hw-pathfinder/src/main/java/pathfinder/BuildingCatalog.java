@@ -0,0 +1,152 @@
+package pathfinder;
+
+import graph.CompactGraph;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusBuilding;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class represents an immutable index of the campus buildings by short name.
+ * Every building is stored with its location and the id of that location in the campus
+ * graph, so looking a building up on the request path is a single hash lookup that does
+ * not allocate.
+ */
+public class BuildingCatalog {
+    // RI: byShortName != null && names != null && buildings != null,
+    //     names has the same keys as byShortName and names.get(k) == byShortName.get(k).getLongName(),
+    //     every value of byShortName is in buildings
+    // AF(this) = the buildings in buildings, in file order, where the building with short
+    //            name k is byShortName.get(k) and names maps each short name to its long name
+    private final Map<String, Building> byShortName;
+    private final Map<String, String> names;
+    private final List<Building> buildings;
+
+    /**
+     * Builds a catalog of buildings located in a graph. When two buildings share a short
+     * name, the later one is kept.
+     *
+     * @param buildings the buildings to index, in file order
+     * @param graph the campus graph the buildings are located in
+     * @spec.requires buildings != null && graph != null && buildings contains no null value
+     */
+    public BuildingCatalog(List<CampusBuilding> buildings, CompactGraph<Point> graph) {
+        Map<String, Building> index = new HashMap<>();
+        Map<String, String> longNames = new HashMap<>();
+        List<Building> all = new ArrayList<>(buildings.size());
+        for (CampusBuilding i : buildings) {
+            Point location = new Point(i.getX(), i.getY());
+            int id = graph.idOf(location);
+            if (id >= 0) {
+                // share the graph's point rather than keeping an equal copy
+                location = graph.valueOf(id);
+            }
+            Building building = new Building(i.getShortName(), i.getLongName(), location, id);
+            all.add(building);
+            index.put(i.getShortName(), building);
+            longNames.put(i.getShortName(), i.getLongName());
+        }
+        this.byShortName = index;
+        this.names = Collections.unmodifiableMap(longNames);
+        this.buildings = Collections.unmodifiableList(all);
+        checkRep();
+    }
+
+    /**
+     * @param shortName The short name of a building to look up.
+     * @return the building with the given short name, null if there is none
+     */
+    public Building get(String shortName) {
+        return byShortName.get(shortName);
+    }
+
+    /**
+     * @param shortName The short name of a building to query.
+     * @return true iff a building has the given short name
+     */
+    public boolean contains(String shortName) {
+        return byShortName.containsKey(shortName);
+    }
+
+    /**
+     * @return an unmodifiable map from every short name to its long name, the same
+     *         instance on every call
+     */
+    public Map<String, String> names() {
+        return names;
+    }
+
+    /**
+     * @return an unmodifiable list of every building, in file order
+     */
+    public List<Building> buildings() {
+        return buildings;
+    }
+
+    /**
+     * @return the number of buildings in the file, counting repeated short names
+     */
+    public int size() {
+        return buildings.size();
+    }
+
+    private void checkRep() {
+        assert byShortName != null : "this.byShortName is null";
+        assert names != null && names.size() == byShortName.size() : "this.names does not match";
+        assert buildings != null : "this.buildings is null";
+    }
+
+    /**
+     * This class represents one immutable building of the catalog: its names,
+     * its location and the id of its location in the campus graph.
+     */
+    public static final class Building {
+        // RI: shortName != null && longName != null && location != null && nodeId >= -1
+        // AF(this) = the building shortName (longName) at location, which is node nodeId
+        //            of the campus graph or not in it if nodeId == -1
+        private final String shortName;
+        private final String longName;
+        private final Point location;
+        private final int nodeId;
+
+        private Building(String shortName, String longName, Point location, int nodeId) {
+            this.shortName = shortName;
+            this.longName = longName;
+            this.location = location;
+            this.nodeId = nodeId;
+        }
+
+        /**
+         * @return The abbreviated name of this building.
+         */
+        public String getShortName() {
+            return shortName;
+        }
+
+        /**
+         * @return The full name of this building.
+         */
+        public String getLongName() {
+            return longName;
+        }
+
+        /**
+         * @return The location of this building.
+         */
+        public Point getLocation() {
+            return location;
+        }
+
+        /**
+         * @return The id of this building's location in the campus graph,
+         *         -1 if no path reaches it.
+         */
+        public int getNodeId() {
+            return nodeId;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package pathfinder;
+
+import pathfinder.parser.CampusPathsParser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Compiles the campus CSV files into a binary campus graph file that CampusMap#load and
+ * CampusMap#cached can load without parsing. Run by the compileCampusGraph Gradle task.
+ */
+public class CampusGraphCompiler {
+
+    /**
+     * @param args the campus buildings filename, the campus paths filename and the file
+     *             to write, the filenames being relative to the data/ folder on the classpath
+     *             unless the campus paths filename names a file on disk
+     * @throws IOException if the output file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("usage: CampusGraphCompiler <buildings.csv> <paths.csv> <output>");
+            System.exit(1);
+        }
+        long begin = System.nanoTime();
+        CampusGraphFile file;
+        Path pathFile = Paths.get(args[1]);
+        if (Files.isRegularFile(pathFile)) {
+            // a paths file on disk, such as a region map, is loaded on every core; the
+            // fingerprint is left 0 since it only describes files on the classpath
+            ParallelPathLoader loaded = ParallelPathLoader.load(pathFile);
+            System.out.printf("Loaded %s (%.1f MB, %d chunks) at %.1f MB/s%n", args[1],
+                              loaded.getBytes() / 1e6, loaded.getChunks(), loaded.megabytesPerSecond());
+            file = new CampusGraphFile(CampusPathsParser.parseCampusBuildings(args[0]), loaded.getGraph(), 0);
+        } else {
+            file = CampusMap.compile(args[0], args[1], CampusGraphFile.fingerprint(args[0], args[1]));
+        }
+        file.write(Paths.get(args[2]));
+        System.out.printf("Compiled %d buildings, %d nodes and %d edges into %s in %.1f ms%n",
+                          file.getBuildings().size(), file.getGraph().nodeNum(),
+                          file.getGraph().edgeNum(), args[2], (System.nanoTime() - begin) / 1e6);
+    }
+}
@@ -0,0 +1,250 @@
+package pathfinder;
+
+import graph.CompactGraph;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusBuilding;
+import pathfinder.parser.CampusPathsParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * This class represents the campus data compiled into a compact little-endian binary file,
+ * which loads much faster than parsing the CSV files because the graph is stored already
+ * frozen. The file holds, in order:
+ * <pre>
+ *   int    magic ("CGRF"), int version, long fingerprint of the CSV files it was compiled from
+ *   int    node count n, int edge count m, int building count b
+ *   double x and double y of each node, in node id order
+ *   int    offsets[0 .. n], int targets[0 .. m - 1], double weights[0 .. m - 1]
+ *   for each building: short name, long name, double x, double y,
+ *   where a string is an int byte length followed by its UTF-8 bytes
+ * </pre>
+ * A file is read through a MappedByteBuffer, so loading it is a handful of bulk copies.
+ */
+public final class CampusGraphFile {
+    // RI: buildings != null && graph != null
+    // AF(this) = the campus buildings and frozen campus graph stored in a file compiled
+    //            from CSV files whose fingerprint is fingerprint
+
+    /**
+     * "CGRF" read as a little-endian int
+     */
+    private static final int MAGIC = 0x46524743;
+    private static final int VERSION = 1;
+
+    private final List<CampusBuilding> buildings;
+    private final CompactGraph<Point> graph;
+    private final long fingerprint;
+
+    /**
+     * Creates the contents of a campus graph file
+     *
+     * @param buildings the campus buildings, in file order
+     * @param graph the frozen campus graph
+     * @param fingerprint the fingerprint of the CSV files the contents come from
+     * @spec.requires buildings != null && graph != null
+     */
+    public CampusGraphFile(List<CampusBuilding> buildings, CompactGraph<Point> graph, long fingerprint) {
+        this.buildings = Collections.unmodifiableList(new ArrayList<>(buildings));
+        this.graph = graph;
+        this.fingerprint = fingerprint;
+        checkRep();
+    }
+
+    /**
+     * @return the campus buildings, in the order of the file they were parsed from
+     */
+    public List<CampusBuilding> getBuildings() {
+        return buildings;
+    }
+
+    /**
+     * @return the frozen campus graph
+     */
+    public CompactGraph<Point> getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return the fingerprint of the CSV files this was compiled from
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Computes a fingerprint of the campus data files, so a compiled file can be checked
+     * against the CSV files it was compiled from
+     *
+     * @param campusBuilding the filename of the campus buildings file
+     * @param campusPath the filename of the campus paths file
+     * @return a checksum of the bytes of both files
+     * @throws CampusPathsParser.ParserException if either file cannot be read
+     */
+    public static long fingerprint(String campusBuilding, String campusPath) {
+        CRC32 buildingCrc = new CRC32();
+        CRC32 pathCrc = new CRC32();
+        update(buildingCrc, campusBuilding);
+        update(pathCrc, campusPath);
+        return (buildingCrc.getValue() << 32) | pathCrc.getValue();
+    }
+
+    // helper method adding the bytes of a data file to a checksum
+    private static void update(CRC32 crc, String filename) {
+        try (InputStream stream = CampusGraphFile.class.getResourceAsStream("/data/" + filename)) {
+            if (stream == null) {
+                throw new CampusPathsParser.ParserException("No such file: " + filename);
+            }
+            byte[] buffer = new byte[1 << 16];
+            for (int read = stream.read(buffer); read >= 0; read = stream.read(buffer)) {
+                crc.update(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new CampusPathsParser.ParserException("Cannot read " + filename, e);
+        }
+    }
+
+    /**
+     * Writes this to a file, replacing it atomically if it already exists so a reader
+     * never sees a partly written file
+     *
+     * @param file the file to write
+     * @throws IOException if the file cannot be written or this would take more than
+     *         Integer.MAX_VALUE bytes
+     */
+    public void write(Path file) throws IOException {
+        int n = graph.nodeNum();
+        int m = graph.edgeNum();
+        List<byte[]> names = new ArrayList<>();
+        long size = 4 + 4 + 8 + 4 * 3 + 16L * n + 4L * (n + 1) + 12L * m;
+        for (CampusBuilding i : buildings) {
+            byte[] shortName = i.getShortName().getBytes(StandardCharsets.UTF_8);
+            byte[] longName = i.getLongName().getBytes(StandardCharsets.UTF_8);
+            names.add(shortName);
+            names.add(longName);
+            size += 4 + shortName.length + 4 + longName.length + 16;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Campus graph of " + size + " bytes is too large to write to " + file);
+        }
+        ByteBuffer out = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC).putInt(VERSION).putLong(fingerprint);
+        out.putInt(n).putInt(m).putInt(buildings.size());
+        for (Point i : graph.values()) {
+            out.putDouble(i.getX()).putDouble(i.getY());
+        }
+        for (int i = 0; i < n; i++) {
+            out.putInt(graph.edgeStart(i));
+        }
+        out.putInt(m);
+        for (int i = 0; i < m; i++) {
+            out.putInt(graph.edgeTarget(i));
+        }
+        for (int i = 0; i < m; i++) {
+            out.putDouble(graph.edgeWeight(i));
+        }
+        for (int i = 0; i < buildings.size(); i++) {
+            out.putInt(names.get(2 * i).length).put(names.get(2 * i));
+            out.putInt(names.get(2 * i + 1).length).put(names.get(2 * i + 1));
+            out.putDouble(buildings.get(i).getX()).putDouble(buildings.get(i).getY());
+        }
+        out.flip();
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (out.hasRemaining()) {
+                    channel.write(out);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Reads a campus graph file by mapping it into memory
+     *
+     * @param file the file to read
+     * @return the contents of file
+     * @throws IOException if the file cannot be read or is not a campus graph file
+     */
+    public static CampusGraphFile read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            ByteBuffer in = mapped.order(ByteOrder.LITTLE_ENDIAN);
+            if (in.remaining() < 16 || in.getInt() != MAGIC || in.getInt() != VERSION) {
+                throw new IOException("Not a campus graph file: " + file);
+            }
+            long fingerprint = in.getLong();
+            int n = in.getInt();
+            int m = in.getInt();
+            int b = in.getInt();
+            if (n < 0 || m < 0 || b < 0 || 16L * n + 4L * (n + 1) + 12L * m > in.remaining()) {
+                throw new IOException("Corrupt campus graph file: " + file);
+            }
+            double[] coordinates = new double[2 * n];
+            int[] offsets = new int[n + 1];
+            int[] targets = new int[m];
+            double[] weights = new double[m];
+            in.asDoubleBuffer().get(coordinates);
+            in.position(in.position() + 16 * n);
+            in.asIntBuffer().get(offsets).get(targets);
+            in.position(in.position() + 4 * (n + 1) + 4 * m);
+            in.asDoubleBuffer().get(weights);
+            in.position(in.position() + 8 * m);
+            // each building takes at least two string lengths and two coordinates
+            if (24L * b > in.remaining()) {
+                throw new IOException("Corrupt campus graph file: " + file);
+            }
+            List<Point> points = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                points.add(new Point(coordinates[2 * i], coordinates[2 * i + 1]));
+            }
+            List<CampusBuilding> buildings = new ArrayList<>(b);
+            for (int i = 0; i < b; i++) {
+                String shortName = readString(in);
+                String longName = readString(in);
+                buildings.add(new CampusBuilding(shortName, longName, in.getDouble(), in.getDouble()));
+            }
+            return new CampusGraphFile(buildings, CompactGraph.of(points, offsets, targets, weights),
+                                       fingerprint);
+        } catch (BufferUnderflowException | IllegalArgumentException | NegativeArraySizeException e) {
+            throw new IOException("Corrupt campus graph file: " + file, e);
+        }
+    }
+
+    // helper method reading a length-prefixed UTF-8 string, checking the length against
+    // the bytes left so a corrupt length cannot allocate more than the file holds
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0 || length > in.remaining()) {
+            throw new IllegalArgumentException("Bad string length: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void checkRep() {
+        assert buildings != null : "this.buildings is null";
+        assert graph != null : "this.graph is null";
+    }
+}
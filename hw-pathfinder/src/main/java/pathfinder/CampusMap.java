@@ -11,17 +11,32 @@
 
 package pathfinder;
 
-import graph.DirectedLabeledGraph;
+import graph.CompactGraph;
+import graph.ContractionHierarchy;
+import graph.Route;
+import graph.RouteTable;
+import graph.ShortestPath;
+import graph.ShortestPathTree;
 import pathfinder.datastructures.Path;
 import pathfinder.datastructures.Point;
 import pathfinder.parser.CampusBuilding;
-import pathfinder.parser.CampusPath;
 import pathfinder.parser.CampusPathsParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.ObjLongConsumer;
+import java.util.stream.IntStream;
 
 /**
  * This class represents the path calculator and building directory
@@ -29,11 +44,34 @@ import java.util.Map;
  *
  */
 public class CampusMap implements ModelAPI {
-    // RI: buildings != null && graph != null
-    // AF(this) = A CampusBuiding List and A directed labelled graph with points as CampusBuilding
-    //            and Edge weight as distance
-    private List<CampusBuilding> buildings;
-    private DirectedLabeledGraph<Point, Double> graph;
+    // RI: catalog != null && graph != null && router != null && router.getGraph() == graph
+    //     && heuristic != null && mode != null && index != null && cache != null
+    //     && (hierarchy == null || hierarchy.getGraph() == graph)
+    // AF(this) = A catalog of the CampusBuildings and A directed labelled graph with points as CampusBuilding
+    //            and Edge weight as distance, kept as an immutable compact snapshot since the
+    //            campus map never changes after it is loaded. Paths are found with mode
+    //            unless another SearchMode is asked for. hierarchy is the contraction
+    //            hierarchy of graph once it has been built, null before that, and table
+    //            the routes from every building once they have been computed, null before that.
+    //            index locates the nodes of graph for routes between arbitrary coordinates,
+    //            and cache holds recently found paths between buildings, keyed by their
+    //            short names and search mode
+    private static final Logger LOGGER = LoggerFactory.getLogger(CampusMap.class);
+
+    /**
+     * The number of paths between buildings findShortestPath keeps
+     */
+    public static final int ROUTE_CACHE_CAPACITY = 4096;
+
+    private BuildingCatalog catalog;
+    private CompactGraph<Point> graph;
+    private ShortestPath<Point> router;
+    private EuclideanHeuristic heuristic;
+    private PointIndex index;
+    private RouteCache<RouteKey, Path<Point>> cache;
+    private SearchMode mode;
+    private volatile ContractionHierarchy<Point> hierarchy;
+    private volatile RouteTable<Point> table;
 
     /**
      * Construct a new CampusMap object given the file names to look into
@@ -42,88 +80,537 @@ public class CampusMap implements ModelAPI {
      * @param campusPath String that represents the filenmae storing campus paths
      */
     public CampusMap(String campusBuilding, String campusPath) {
-        this.buildings = CampusPathsParser.parseCampusBuildings(campusBuilding);
-        this.graph = graphCreator(campusPath);
-        checkRep();
+        this(campusBuilding, campusPath, SearchMode.DIJKSTRA);
     }
 
-    @Override
-    public boolean shortNameExists(String shortName) {
+    /**
+     * Construct a new CampusMap object given the file names to look into and the
+     * search algorithm findShortestPath should use
+     *
+     * @param campusBuilding String that represents the filename storing campus buildings
+     * @param campusPath String that represents the filenmae storing campus paths
+     * @param mode SearchMode used by findShortestPath(startShortName, endShortName)
+     * @spec.requires mode != null
+     */
+    public CampusMap(String campusBuilding, String campusPath, SearchMode mode) {
+        this(CampusPathsParser.parseCampusBuildings(campusBuilding), graphCreator(campusPath), mode);
+    }
+
+    // Construct a new CampusMap from parsed buildings and the frozen campus graph
+    private CampusMap(List<CampusBuilding> buildings, CompactGraph<Point> graph, SearchMode mode) {
+        this.graph = graph;
+        this.catalog = new BuildingCatalog(buildings, graph);
+        this.router = new ShortestPath<>(graph);
+        this.heuristic = EuclideanHeuristic.forGraph(graph);
+        this.index = new PointIndex(graph);
+        this.cache = new RouteCache<>(ROUTE_CACHE_CAPACITY);
+        this.mode = mode;
+        // pay for preprocessing at startup rather than on the first query
+        if (mode == SearchMode.CONTRACTION_HIERARCHY) {
+            hierarchy();
+        } else if (mode == SearchMode.ROUTE_TABLE) {
+            routeTable();
+        }
         checkRep();
-        for (CampusBuilding i : buildings) {
-            if (i.getShortName().equals(shortName)) {
-                checkRep();
-                return true;
+    }
+
+    /**
+     * Load a CampusMap from a file written by CampusGraphFile#write, which is much faster
+     * than parsing the CSV files since the graph is stored already frozen
+     *
+     * @param compiled the compiled campus graph file
+     * @param mode SearchMode used by findShortestPath(startShortName, endShortName)
+     * @spec.requires compiled != null && mode != null
+     * @return the campus map stored in compiled
+     * @throws IOException if compiled cannot be read or is not a campus graph file
+     */
+    public static CampusMap load(java.nio.file.Path compiled, SearchMode mode) throws IOException {
+        CampusGraphFile file = CampusGraphFile.read(compiled);
+        return new CampusMap(file.getBuildings(), file.getGraph(), mode);
+    }
+
+    /**
+     * Load a CampusMap whose paths are in a file on disk rather than on the classpath, such
+     * as a region map too large to ship as a resource. The paths file is parsed on every
+     * core by ParallelPathLoader
+     *
+     * @param campusBuilding String that represents the filename storing campus buildings
+     * @param pathFile a file on disk in the format of the campus paths file
+     * @param mode SearchMode used by findShortestPath(startShortName, endShortName)
+     * @spec.requires pathFile != null && mode != null
+     * @return the campus map of the buildings and the paths in pathFile
+     * @throws IOException if pathFile cannot be read
+     */
+    public static CampusMap fromPathFile(String campusBuilding, java.nio.file.Path pathFile,
+                                         SearchMode mode) throws IOException {
+        return new CampusMap(CampusPathsParser.parseCampusBuildings(campusBuilding),
+                             ParallelPathLoader.load(pathFile).getGraph(), mode);
+    }
+
+    /**
+     * Load a CampusMap from a compiled campus graph file if it was compiled from the given
+     * CSV files, and otherwise parse the CSV files and try to save the result to that file
+     * so later runs can load it. Failing to save is logged as a warning but is not an error.
+     * The checksum in the file only detects stale files, not tampering, so compiled should be
+     * in a directory only this application writes to, never a shared one such as /tmp.
+     *
+     * @param campusBuilding String that represents the filename storing campus buildings
+     * @param campusPath String that represents the filenmae storing campus paths
+     * @param compiled the compiled campus graph file to load or create
+     * @param mode SearchMode used by findShortestPath(startShortName, endShortName)
+     * @spec.requires compiled != null && mode != null
+     * @return the campus map described by the CSV files
+     */
+    public static CampusMap cached(String campusBuilding, String campusPath,
+                                   java.nio.file.Path compiled, SearchMode mode) {
+        long fingerprint = CampusGraphFile.fingerprint(campusBuilding, campusPath);
+        if (Files.isRegularFile(compiled)) {
+            try {
+                CampusGraphFile file = CampusGraphFile.read(compiled);
+                if (file.getFingerprint() == fingerprint) {
+                    return new CampusMap(file.getBuildings(), file.getGraph(), mode);
+                }
+            } catch (IOException e) {
+                // fall through and recompile over the unreadable file
             }
         }
+        CampusGraphFile file = compile(campusBuilding, campusPath, fingerprint);
+        try {
+            file.write(compiled);
+        } catch (IOException e) {
+            LOGGER.warn("Could not save compiled campus graph to " + compiled, e);
+        }
+        return new CampusMap(file.getBuildings(), file.getGraph(), mode);
+    }
+
+    /**
+     * Parse the campus CSV files into the contents of a compiled campus graph file
+     *
+     * @param campusBuilding String that represents the filename storing campus buildings
+     * @param campusPath String that represents the filenmae storing campus paths
+     * @param fingerprint CampusGraphFile#fingerprint of the two files
+     * @return the parsed buildings and frozen graph
+     */
+    static CampusGraphFile compile(String campusBuilding, String campusPath, long fingerprint) {
+        return new CampusGraphFile(CampusPathsParser.parseCampusBuildings(campusBuilding),
+                                   graphCreator(campusPath), fingerprint);
+    }
+
+    @Override
+    public boolean shortNameExists(String shortName) {
         checkRep();
-        return false;
+        return catalog.contains(shortName);
     }
 
     @Override
     public String longNameForShort(String shortName) {
         checkRep();
-        for (CampusBuilding i : buildings) {
-            if (i.getShortName().equals(shortName)) {
-                checkRep();
-                return i.getLongName();
-            }
+        BuildingCatalog.Building building = catalog.get(shortName);
+        if (building == null) {
+            throw new IllegalArgumentException("shortName does not exist");
         }
-        checkRep();
-        throw new IllegalArgumentException("shortName does not exist");
+        return building.getLongName();
     }
 
+    /**
+     * @return An unmodifiable mapping from all the buildings' short names to their long
+     *         names in this campus map, the same instance on every call.
+     */
     @Override
     public Map<String, String> buildingNames() {
         checkRep();
-        Map<String, String> map  = new HashMap<>();
-        for (CampusBuilding i : buildings) {
-            map.put(i.getShortName(), i.getLongName());
-        }
-        checkRep();
-        return map;
+        return catalog.names();
+    }
+
+    /**
+     * @return the catalog of the buildings in this campus map
+     */
+    public BuildingCatalog catalog() {
+        return catalog;
     }
 
     @Override
     public Path<Point> findShortestPath(String startShortName, String endShortName) {
+        return findShortestPath(startShortName, endShortName, mode);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Paths are kept in a cache of the ROUTE_CACHE_CAPACITY most recently used ones, so a
+     * popular pair of buildings is only searched for once.
+     */
+    @Override
+    public Path<Point> findShortestPath(String startShortName, String endShortName, SearchMode mode) {
+        return findShortestPath(startShortName, endShortName, mode, (route, nanos) -> { });
+    }
+
+    /**
+     * Finds the shortest path between two buildings as findShortestPath(startShortName,
+     * endShortName, mode) does, through the same cache, and reports every search the
+     * cache could not spare, such as to a server measuring its searches.
+     *
+     * @param startShortName The short name of the building at the beginning of this path.
+     * @param endShortName   The short name of the building at the end of this path.
+     * @param mode           The search algorithm to use.
+     * @param searched       Called on this thread with the route found, null if there is
+     *                       none, and the nanoseconds the search took, whenever the path
+     *                       was not cached and had to be searched for.
+     * @spec.requires mode != null && searched != null
+     * @return A path between {@code startBuilding} and {@code endBuilding}, or {@literal null}
+     * if none exists.
+     * @throws IllegalArgumentException if {@code startBuilding} or {@code endBuilding} are
+     *                                  {@literal null}, or not valid short names of buildings in
+     *                                  this campus map.
+     */
+    public Path<Point> findShortestPath(String startShortName, String endShortName, SearchMode mode,
+                                        ObjLongConsumer<Route<Point>> searched) {
+        return cache.get(new RouteKey(startShortName, endShortName, mode), key -> {
+            long start = System.nanoTime();
+            Route<Point> route = findRoute(startShortName, endShortName, mode);
+            searched.accept(route, System.nanoTime() - start);
+            return Dijkstra.toPath(route);
+        });
+    }
+
+    /**
+     * Finds the shortest paths between many pairs of buildings at once. The pairs are
+     * grouped by start building and every group is answered by one search from its start,
+     * walking the tree of shortest routes that search leaves for each end, so pairs from k
+     * different buildings take k searches however many pairs there are. The searches of
+     * different starts run in parallel on the common fork-join pool. Paths already in the
+     * route cache are taken from it and the paths found are added to it.
+     *
+     * @param startShortNames The short names of the buildings the paths begin at.
+     * @param endShortNames   The short names of the buildings the paths end at, the i-th
+     *                        path going from startShortNames.get(i) to endShortNames.get(i).
+     * @spec.requires startShortNames != null && endShortNames != null
+     * @return A list whose i-th element is the path findShortestPath(startShortNames.get(i),
+     * endShortNames.get(i), SearchMode.DIJKSTRA) returns, {@literal null} where none exists.
+     * @throws IllegalArgumentException if the lists have different sizes, or if a name is
+     *                                  {@literal null} or not a valid short name of a building
+     *                                  in this campus map.
+     */
+    public List<Path<Point>> findShortestPaths(List<String> startShortNames, List<String> endShortNames) {
         checkRep();
-        if (startShortName == null || endShortName == null ||
-                !shortNameExists(startShortName) || !shortNameExists(endShortName)) {
-            throw new IllegalArgumentException("input is wrong");
+        if (startShortNames.size() != endShortNames.size()) {
+            throw new IllegalArgumentException("every start needs an end");
+        }
+        List<Path<Point>> paths = new ArrayList<>(Collections.nCopies(startShortNames.size(), null));
+        Map<String, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < startShortNames.size(); i++) {
+            locationOf(startShortNames.get(i));
+            locationOf(endShortNames.get(i));
+            RouteKey key = new RouteKey(startShortNames.get(i), endShortNames.get(i), SearchMode.DIJKSTRA);
+            if (cache.contains(key)) {
+                paths.set(i, cache.get(key, k -> Dijkstra.toPath(
+                        findRoute(k.start, k.end, SearchMode.DIJKSTRA))));
+            } else {
+                groups.computeIfAbsent(startShortNames.get(i), k -> new ArrayList<>()).add(i);
+            }
         }
-        Point start = null;
-        Point end = null;
-        for (CampusBuilding i : buildings) {
-            if (startShortName.equals(i.getShortName())) {
-                start = new Point(i.getX(), i.getY());
+        Map<String, ShortestPathTree<Point>> trees = trees(groups.keySet());
+        for (Map.Entry<String, List<Integer>> group : groups.entrySet()) {
+            ShortestPathTree<Point> tree = trees.get(group.getKey());
+            for (int i : group.getValue()) {
+                String end = endShortNames.get(i);
+                paths.set(i, cache.get(new RouteKey(group.getKey(), end, SearchMode.DIJKSTRA),
+                                       key -> Dijkstra.toPath(tree.routeTo(locationOf(end)))));
             }
-            if (endShortName.equals(i.getShortName())) {
-                end = new Point(i.getX(), i.getY());
+        }
+        return paths;
+    }
+
+    /**
+     * Finds the distances of the shortest paths from each of some buildings to each of
+     * some others, without building the paths themselves. Every distinct start building
+     * takes one search, run in parallel on the common fork-join pool as findShortestPaths
+     * does.
+     *
+     * @param startShortNames The short names of the buildings the paths begin at.
+     * @param endShortNames   The short names of the buildings the paths end at.
+     * @spec.requires startShortNames != null && endShortNames != null
+     * @return A matrix whose element [i][j] is the cost of the shortest path from
+     * startShortNames.get(i) to endShortNames.get(j), {@link Double#POSITIVE_INFINITY} where
+     * none exists.
+     * @throws IllegalArgumentException if a name is {@literal null} or not a valid short name
+     *                                  of a building in this campus map.
+     */
+    public double[][] distanceMatrix(List<String> startShortNames, List<String> endShortNames) {
+        checkRep();
+        List<Point> ends = new ArrayList<>(endShortNames.size());
+        for (String i : endShortNames) {
+            ends.add(locationOf(i));
+        }
+        for (String i : startShortNames) {
+            locationOf(i);
+        }
+        Map<String, ShortestPathTree<Point>> trees = trees(startShortNames);
+        double[][] costs = new double[startShortNames.size()][ends.size()];
+        for (int i = 0; i < costs.length; i++) {
+            ShortestPathTree<Point> tree = trees.get(startShortNames.get(i));
+            for (int j = 0; j < ends.size(); j++) {
+                costs[i][j] = tree.costTo(ends.get(j));
             }
         }
+        return costs;
+    }
+
+    // helper method returning the location of a building, which must exist
+    private Point locationOf(String shortName) {
+        BuildingCatalog.Building building = shortName == null ? null : catalog.get(shortName);
+        if (building == null) {
+            throw new IllegalArgumentException("no building " + shortName);
+        }
+        return building.getLocation();
+    }
+
+    // helper method returning the trees of shortest routes from some buildings, taken from
+    // the route table when it has been built and searched for in parallel otherwise
+    private Map<String, ShortestPathTree<Point>> trees(Iterable<String> shortNames) {
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String i : shortNames) {
+            distinct.add(i);
+        }
+        List<String> starts = new ArrayList<>(distinct);
+        RouteTable<Point> built = table;
+        List<ShortestPathTree<Point>> found = new ArrayList<>(Collections.nCopies(starts.size(), null));
+        IntStream.range(0, starts.size()).parallel().forEach(i -> {
+            Point start = locationOf(starts.get(i));
+            ShortestPathTree<Point> tree = built == null ? null : built.treeOf(start);
+            found.set(i, tree != null ? tree : router.findAll(start));
+        });
+        Map<String, ShortestPathTree<Point>> trees = new LinkedHashMap<>();
+        for (int i = 0; i < starts.size(); i++) {
+            trees.put(starts.get(i), found.get(i));
+        }
+        return trees;
+    }
+
+    /**
+     * Returns the cache of paths between buildings, whose counters show how well it works.
+     * It is the only cache of paths: every single and batch query between buildings goes
+     * through it. The cache belongs to this campus map: loading the campus data again gives
+     * a new CampusMap with an empty cache, so no path outlives the graph it was found in.
+     *
+     * @return the cache of paths found by findShortestPath and findShortestPaths
+     */
+    public RouteCache<RouteKey, Path<Point>> routeCache() {
+        return cache;
+    }
+
+    /**
+     * Finds the shortest route, by distance, between the two provided buildings together
+     * with the number of nodes the search settled, which measures how much work it did.
+     *
+     * @param startShortName The short name of the building at the beginning of this route.
+     * @param endShortName   The short name of the building at the end of this route.
+     * @param mode           The search algorithm to use.
+     * @spec.requires mode != null
+     * @return A route between {@code startBuilding} and {@code endBuilding}, or {@literal null}
+     * if none exists.
+     * @throws IllegalArgumentException if {@code startBuilding} or {@code endBuilding} are
+     *                                  {@literal null}, or not valid short names of buildings in
+     *                                  this campus map.
+     */
+    public Route<Point> findRoute(String startShortName, String endShortName, SearchMode mode) {
+        checkRep();
+        BuildingCatalog.Building startBuilding = catalog.get(startShortName);
+        BuildingCatalog.Building endBuilding = catalog.get(endShortName);
+        if (startBuilding == null || endBuilding == null) {
+            throw new IllegalArgumentException("input is wrong");
+        }
+        return route(startBuilding.getLocation(), endBuilding.getLocation(), mode);
+    }
+
+    /**
+     * Finds the shortest route, by distance, between the campus graph nodes nearest to two
+     * locations, such as map clicks or GPS fixes that are not exactly on a path.
+     *
+     * @param fromX The x coordinate the route should start near.
+     * @param fromY The y coordinate the route should start near.
+     * @param toX   The x coordinate the route should end near.
+     * @param toY   The y coordinate the route should end near.
+     * @param mode  The search algorithm to use.
+     * @spec.requires mode != null
+     * @return A route between the nodes nearest to (fromX, fromY) and (toX, toY), or
+     * {@literal null} if none exists or the campus graph is empty.
+     * @throws IllegalArgumentException if any coordinate is NaN or infinite.
+     */
+    public Route<Point> findRoute(double fromX, double fromY, double toX, double toY, SearchMode mode) {
         checkRep();
-        return Dijkstra.findPath(graph, start, end);
-    }
-
-    // helper method for constructing a graph
-    private DirectedLabeledGraph<Point, Double> graphCreator(String path) {
-        List<CampusPath> paths = CampusPathsParser.parseCampusPaths(path);
-        DirectedLabeledGraph<Point, Double> graph = new DirectedLabeledGraph<>();
-        for (CampusPath i : paths) {
-            Point cur = new Point(i.getX1(), i.getY1());
-            DirectedLabeledGraph.Node<Point> start = new DirectedLabeledGraph.Node<>(cur);
-            Point cur1 = new Point(i.getX2(), i.getY2());
-            DirectedLabeledGraph.Node<Point> end = new DirectedLabeledGraph.Node<>(cur1);
-            graph.addNode(start);
-            graph.addNode(end);
-            DirectedLabeledGraph.Edge<Point, Double> edge = new DirectedLabeledGraph.Edge<>(start, end, i.getDistance());
-            graph.addEdge(edge);
+        Point start = index.nearestPoint(fromX, fromY);
+        Point end = index.nearestPoint(toX, toY);
+        if (start == null || end == null) {
+            return null;
         }
+        return route(start, end, mode);
+    }
+
+    /**
+     * Finds the shortest path, by distance, between the campus graph nodes nearest to two
+     * locations, using the SearchMode this campus map was created with.
+     *
+     * @param fromX The x coordinate the path should start near.
+     * @param fromY The y coordinate the path should start near.
+     * @param toX   The x coordinate the path should end near.
+     * @param toY   The y coordinate the path should end near.
+     * @return A path between the nodes nearest to (fromX, fromY) and (toX, toY), or
+     * {@literal null} if none exists or the campus graph is empty.
+     * @throws IllegalArgumentException if any coordinate is NaN or infinite.
+     */
+    public Path<Point> findShortestPath(double fromX, double fromY, double toX, double toY) {
+        return Dijkstra.toPath(findRoute(fromX, fromY, toX, toY, mode));
+    }
+
+    /**
+     * @param x The x coordinate of a location.
+     * @param y The y coordinate of a location.
+     * @return The campus graph node nearest to (x, y), or {@literal null} if the graph is empty.
+     * @throws IllegalArgumentException if x or y is NaN or infinite.
+     */
+    public Point nearestNode(double x, double y) {
+        return index.nearestPoint(x, y);
+    }
+
+    /**
+     * @return the SearchMode findShortestPath uses unless another one is asked for
+     */
+    public SearchMode searchMode() {
+        return mode;
+    }
+
+    /**
+     * @return the frozen campus graph, whose node ids are also used by catalog() and index()
+     */
+    public CompactGraph<Point> graph() {
         return graph;
     }
 
+    /**
+     * @return the spatial index of the campus graph nodes
+     */
+    public PointIndex index() {
+        return index;
+    }
+
+    // helper method finding the route between two nodes of the graph with a search mode
+    private Route<Point> route(Point start, Point end, SearchMode mode) {
+        switch (mode) {
+            case A_STAR:
+                return router.find(start, end, heuristic);
+            case BIDIRECTIONAL:
+                return router.findBidirectional(start, end);
+            case CONTRACTION_HIERARCHY:
+                return hierarchy().find(start, end);
+            case ROUTE_TABLE:
+                // the table only starts at buildings, so other starts are searched for
+                if (routeTable().treeOf(start) != null) {
+                    return routeTable().find(start, end);
+                }
+                return router.find(start, end);
+            default:
+                return router.find(start, end);
+        }
+    }
+
+    /**
+     * Returns the contraction hierarchy of the campus graph, building it on first use.
+     * Safe to call from several threads, the hierarchy is only ever built once.
+     *
+     * @return the contraction hierarchy of the campus graph
+     */
+    public ContractionHierarchy<Point> hierarchy() {
+        ContractionHierarchy<Point> result = hierarchy;
+        if (result == null) {
+            synchronized (this) {
+                result = hierarchy;
+                if (result == null) {
+                    result = new ContractionHierarchy<>(graph);
+                    hierarchy = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the table of shortest routes from every building, building it on first use
+     * with one search per building in parallel. Safe to call from several threads, the
+     * table is only ever built once. Its build time and memory footprint are available
+     * from RouteTable#getBuildNanos and RouteTable#memoryBytes.
+     *
+     * @return the table of shortest routes from every building
+     */
+    public RouteTable<Point> routeTable() {
+        RouteTable<Point> result = table;
+        if (result == null) {
+            synchronized (this) {
+                result = table;
+                if (result == null) {
+                    List<Point> starts = new ArrayList<>();
+                    for (BuildingCatalog.Building i : catalog.buildings()) {
+                        starts.add(i.getLocation());
+                    }
+                    result = new RouteTable<>(router, starts);
+                    table = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    // helper method for constructing a graph, interning every location as it is read
+    private static CompactGraph<Point> graphCreator(String path) {
+        PathGraphBuilder builder = new PathGraphBuilder();
+        CampusPathsParser.parseCampusPaths(path, builder);
+        return builder.build();
+    }
+
     private void checkRep() {
         assert graph != null : "this.graph is null";
-        assert buildings != null : "this.buildings is null";
+        assert router != null && router.getGraph() == graph : "this.router does not search this.graph";
+        assert catalog != null : "this.catalog is null";
+        assert heuristic != null : "this.heuristic is null";
+        assert index != null && index.size() == graph.nodeNum() : "this.index does not index this.graph";
+        assert cache != null : "this.cache is null";
+        assert mode != null : "this.mode is null";
+        assert hierarchy == null || hierarchy.getGraph() == graph : "this.hierarchy is not of this.graph";
+    }
+
+    /**
+     * The key of a path in the route cache: the short names of its start and end buildings
+     * and the search mode that found it.
+     */
+    public static final class RouteKey {
+        // RI: mode != null
+        // AF(this) = the path from building start to building end found with mode
+        private final String start;
+        private final String end;
+        private final SearchMode mode;
+
+        private RouteKey(String start, String end, SearchMode mode) {
+            this.start = start;
+            this.end = end;
+            this.mode = mode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof RouteKey)) {
+                return false;
+            }
+            RouteKey other = (RouteKey) obj;
+            return Objects.equals(start, other.start) && Objects.equals(end, other.end) && mode == other.mode;
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * Objects.hashCode(start) + Objects.hashCode(end)) * 31 + mode.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return start + " -> " + end + " (" + mode + ")";
+        }
     }
 }
@@ -1,116 +1,178 @@
 package pathfinder;
 
+import graph.CompactGraph;
 import graph.DirectedLabeledGraph;
+import graph.Route;
+import graph.ShortestPath;
 import pathfinder.datastructures.Path;
-import pathfinder.datastructures.Point;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
 
 /**
  * This class represents the shortest path calculator
- * of a directed graph with labelled edges.
+ * of a directed graph with labelled edges. A DirectedLabeledGraph is searched in place,
+ * and a CompactGraph by graph.ShortestPath, whose routes this class turns into Paths.
  */
 public class Dijkstra {
     // Do not have RI or AF since this class is not an ADT
 
     /**
-     * find the shortest path between two given nodes of the graph
-     * @param graph A graph with nodes as Points and Edge as Double
+     * find the shortest path between two given nodes of the graph. The graph is searched
+     * as it is, without freezing it, and when several paths have the same cost the one
+     * graph.ShortestPath would find on the frozen graph is returned. Negative edge weights
+     * are not rejected, but the path found may then not be the cheapest
+     * @param graph A graph with nodes of type P and Edge as Double
      * @param start Type represents the start point of the path
      * @param end  Type represents the end point of the path
+     * @param <P> Type of the nodes in the graph
      * @spec.requires graph.containNode(start) and graph.containNode(end)
      *                start != null and end != null
      * @return Path if there exists the shortest path between the nodes
      *         null otherwise
      */
-    public static Path<Point> findPath(DirectedLabeledGraph<Point, Double> graph, Point start, Point end) {
+    public static <P> Path<P> findPath(DirectedLabeledGraph<P, Double> graph, P start, P end) {
         checkRep(graph);
-        Path<Point> self = new Path<>(start);
-        Set<Point> finished = new HashSet<>();
-        Comparator<Path<Point>> compPath = new Comparator<>() {
-            @Override
-            public int compare(Path<Point> a, Path<Point> b) {
-                return Double.compare(a.getCost(), b.getCost());
-            }
-        };
-        // Consturct a queue for nodes that still needs probing
-        PriorityQueue<Path<Point>> active = new PriorityQueue<>(compPath);
-        active.add(self);
-        // Loop through all the possible nodes while constructing the path
+        if (!graph.containNode(new DirectedLabeledGraph.Node<>(start))
+                || !graph.containNode(new DirectedLabeledGraph.Node<>(end))) {
+            return null;
+        }
+        // labels holds the best cost found so far and how it was reached for every node
+        // reached, so relaxing an edge looks up its child once. active holds (node, cost)
+        // entries without decrease-key: a node whose cost drops is added again and its older
+        // entries are skipped when they come out. Equal costs come out most recently added
+        // first, as from the IndexedHeap of graph.ShortestPath, so ties are broken the same way
+        Map<P, Label<P>> labels = new HashMap<>();
+        PriorityQueue<Entry<P>> active = new PriorityQueue<>(Entry.ORDER);
+        long added = 0;
+        Label<P> source = new Label<>(start);
+        source.cost = 0;
+        labels.put(start, source);
+        active.add(new Entry<>(source, 0, added++));
         while (!active.isEmpty()) {
-            Path<Point> minPath = active.poll();
-            Point minDest = minPath.getEnd();
-            if (minDest.equals(end)) {
-                return minPath;
-            }
-            if (finished.contains(minDest)) {
+            Entry<P> min = active.poll();
+            Label<P> label = min.label;
+            if (label.finished || min.cost > label.cost) {
                 continue;
             }
-            // Add the neighbouring nodes to the queue
-            DirectedLabeledGraph.Node<Point> node = new DirectedLabeledGraph.Node<>(minDest);
-            List<DirectedLabeledGraph.Edge<Point, Double>> edges = graph.listChildren(node);
-            for (DirectedLabeledGraph.Edge<Point, Double> i : edges) {
-                if (!finished.contains(i.getChild().getValue())) {
-                    Path<Point> newPath = minPath.extend(i.getChild().getValue(), i.getLabel());
-                    active.add(newPath);
+            if (label.node.equals(end)) {
+                return buildPath(label, start);
+            }
+            label.finished = true;
+            DirectedLabeledGraph.Node<P> node = new DirectedLabeledGraph.Node<>(label.node);
+            for (DirectedLabeledGraph.Edge<P, Double> i : graph.children(node)) {
+                P child = i.getChild().getValue();
+                Label<P> next = labels.get(child);
+                if (next == null) {
+                    next = new Label<>(child);
+                    labels.put(child, next);
+                }
+                double cost = min.cost + i.getLabel();
+                if (!next.finished && cost < next.cost) {
+                    next.cost = cost;
+                    next.pred = label;
+                    next.step = i.getLabel();
+                    active.add(new Entry<>(next, cost, added++));
                 }
             }
-            finished.add(minDest);
         }
         checkRep(graph);
         return null;
     }
 
+    // helper method that follows the predecessors back from the settled label of end and
+    // extends a single Path forward from start along them
+    private static <P> Path<P> buildPath(Label<P> settled, P start) {
+        List<Label<P>> steps = new ArrayList<>();
+        for (Label<P> i = settled; i.pred != null; i = i.pred) {
+            steps.add(i);
+        }
+        Path<P> path = new Path<>(start);
+        for (int i = steps.size() - 1; i >= 0; i--) {
+            path = path.extend(steps.get(i).node, steps.get(i).step);
+        }
+        return path;
+    }
+
     /**
-     * find the shortest path between two given nodes of the graph
-     * @param graph A graph with nodes as String and Edge as Double
-     * @param start String represents the start point of the path
-     * @param end  String represents the end point of the path
-     * @spec.requires graph.containNode(start) and graph.containNode(end)
-     *                start != null and end != null
+     * find the shortest path between two given nodes of a compact graph
+     * @param graph A compact graph with nodes of type P
+     * @param start Type represents the start point of the path
+     * @param end  Type represents the end point of the path
+     * @param <P> Type of the nodes in the graph
+     * @spec.requires start != null and end != null
      * @return Path if there exists the shortest path between the nodes
-     *         null otherwise
+     *         null otherwise, or if start or end is not in the graph
      */
-    public static Path<String> findPath(DirectedLabeledGraph<String, Double> graph, String start, String end) {
+    public static <P> Path<P> findPath(CompactGraph<P> graph, P start, P end) {
         checkRep(graph);
-        Path<String> self = new Path<>(start);
-        Set<String> finished = new HashSet<>();
-        Comparator<Path<String>> compPath = new Comparator<>() {
-            @Override
-            public int compare(Path<String> a, Path<String> b) {
-                return Double.compare(a.getCost(), b.getCost());
-            }
+        return toPath(new ShortestPath<>(graph).find(start, end));
+    }
+
+    /**
+     * turn a route found by a shortest path search into a Path
+     * @param route the route to convert
+     * @param <P> Type of the nodes in the route
+     * @return a Path with the same points and segment costs as route,
+     *         null if route is null
+     */
+    public static <P> Path<P> toPath(Route<P> route) {
+        if (route == null) {
+            return null;
+        }
+        Path<P> path = new Path<>(route.getStart());
+        for (int i = 0; i < route.size(); i++) {
+            path = path.extend(route.getNodes().get(i + 1), route.getStepCost(i));
+        }
+        return path;
+    }
+
+    /**
+     * What findPath over a DirectedLabeledGraph knows of a node it has reached: the best
+     * cost found so far, the node it was reached from with the cost of that last step,
+     * and whether the cost is final
+     * @param <P> Type of the node
+     */
+    private static final class Label<P> {
+        private final P node;
+        private double cost = Double.POSITIVE_INFINITY;
+        private Label<P> pred;
+        private double step;
+        private boolean finished;
+
+        private Label(P node) {
+            this.node = node;
+        }
+    }
+
+    /**
+     * An entry of the queue of findPath over a DirectedLabeledGraph: a node, the cost it
+     * was reached with, and when the entry was added
+     * @param <P> Type of the node
+     */
+    private static final class Entry<P> {
+        // by cost, and the most recently added first on a tie
+        private static final Comparator<Entry<?>> ORDER = (a, b) -> {
+            int byCost = Double.compare(a.cost, b.cost);
+            return byCost != 0 ? byCost : Long.compare(b.added, a.added);
         };
-        // Consturct a queue for nodes that still needs probing
-        PriorityQueue<Path<String>> active = new PriorityQueue<>(compPath);
-        active.add(self);
-        // Loop through all the possible nodes while constructing the path
-        while (!active.isEmpty()) {
-            Path<String> minPath = active.poll();
-            String minDest = minPath.getEnd();
-            if (minDest.equals(end)) {
-                return minPath;
-            }
-            if (finished.contains(minDest)) {
-                continue;
-            }
-            // Add the neighbouring nodes to the queue
-            DirectedLabeledGraph.Node<String> node = new DirectedLabeledGraph.Node<>(minDest);
-            List<DirectedLabeledGraph.Edge<String, Double>> edges = graph.listChildren(node);
-            for (DirectedLabeledGraph.Edge<String, Double> i : edges) {
-                if (!finished.contains(i.getChild().getValue())) {
-                    Path<String> newPath = minPath.extend(i.getChild().getValue(), i.getLabel());
-                    active.add(newPath);
-                }
-            }
-            finished.add(minDest);
+
+        private final Label<P> label;
+        private final double cost;
+        private final long added;
+
+        private Entry(Label<P> label, double cost, long added) {
+            this.label = label;
+            this.cost = cost;
+            this.added = added;
         }
-        checkRep(graph);
-        return null;
     }
 
     private static void checkRep(Object graph) {
         assert graph != null : "this.graph is null";
     }
 }
-
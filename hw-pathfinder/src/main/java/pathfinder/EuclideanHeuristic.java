@@ -0,0 +1,84 @@
+package pathfinder;
+
+import graph.CompactGraph;
+import pathfinder.datastructures.Point;
+
+import java.util.function.ToDoubleBiFunction;
+
+/**
+ * This class represents the straight-line distance between two points, scaled so that it
+ * never overestimates the cost of travelling between them in a particular graph. It is
+ * used as the A* heuristic for campus routing, where edge costs are geometric distances
+ * measured in different units than the point coordinates.
+ */
+public class EuclideanHeuristic implements ToDoubleBiFunction<Point, Point> {
+    // RI: scale >= 0 && Double.isFinite(scale)
+    // AF(this) = the estimate scale * |a - b| of the cost from point a to point b
+
+    /**
+     * How far below the tightest scale to stay, so that rounding when computing
+     * an estimate can never make it larger than the cost of an edge.
+     */
+    private static final double SAFETY = 1 - 1e-9;
+
+    private final double scale;
+
+    /**
+     * Creates a heuristic that multiplies the straight-line distance by the given scale
+     *
+     * @param scale The cost of travelling one unit of straight-line distance.
+     * @throws IllegalArgumentException if scale is negative, infinite or NaN
+     */
+    public EuclideanHeuristic(double scale) {
+        if (!(scale >= 0) || Double.isInfinite(scale)) {
+            throw new IllegalArgumentException("scale must be finite and non-negative");
+        }
+        this.scale = scale;
+        checkRep();
+    }
+
+    /**
+     * Creates the tightest heuristic that is consistent for the given graph: the scale is
+     * the smallest ratio of edge cost to straight-line edge length over all edges.
+     *
+     * @param graph The graph the heuristic will be used on.
+     * @return A consistent straight-line heuristic for graph.
+     */
+    public static EuclideanHeuristic forGraph(CompactGraph<Point> graph) {
+        double scale = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < graph.nodeNum(); i++) {
+            Point from = graph.valueOf(i);
+            for (int j = graph.edgeStart(i); j < graph.edgeEnd(i); j++) {
+                double length = distance(from, graph.valueOf(graph.edgeTarget(j)));
+                if (length > 0) {
+                    scale = Math.min(scale, graph.edgeWeight(j) / length);
+                }
+            }
+        }
+        if (Double.isInfinite(scale)) {
+            // no edge has any length, so nothing can be estimated
+            return new EuclideanHeuristic(0);
+        }
+        return new EuclideanHeuristic(scale * SAFETY);
+    }
+
+    /**
+     * @return The cost of travelling one unit of straight-line distance.
+     */
+    public double getScale() {
+        return scale;
+    }
+
+    @Override
+    public double applyAsDouble(Point a, Point b) {
+        return scale * distance(a, b);
+    }
+
+    private static double distance(Point a, Point b) {
+        return Math.hypot(a.getX() - b.getX(), a.getY() - b.getY());
+    }
+
+    private void checkRep() {
+        assert scale >= 0 && Double.isFinite(scale) : "scale is invalid";
+    }
+}
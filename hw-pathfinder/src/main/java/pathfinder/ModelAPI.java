@@ -71,4 +71,20 @@ public interface ModelAPI {
     // You'll need to change this return type to use the generic Path once you've
     // updated the Path ADT to be generic.
 
+    /**
+     * Finds the shortest path, by distance, between the two provided buildings using
+     * the given search algorithm. Every algorithm finds a path of the same cost, but
+     * when several paths have that cost they may not pick the same one.
+     *
+     * @param startShortName The short name of the building at the beginning of this path.
+     * @param endShortName   The short name of the building at the end of this path.
+     * @param mode           The search algorithm to use.
+     * @return A path between {@code startBuilding} and {@code endBuilding}, or {@literal null}
+     * if none exists.
+     * @throws IllegalArgumentException if {@code startBuilding} or {@code endBuilding} are
+     *                                  {@literal null}, or not valid short names of buildings in
+     *                                  this campus map.
+     */
+    public Path<Point> findShortestPath(String startShortName, String endShortName, SearchMode mode);
+
 }
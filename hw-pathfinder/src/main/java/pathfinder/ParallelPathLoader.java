@@ -0,0 +1,270 @@
+package pathfinder;
+
+import graph.CompactGraph;
+import pathfinder.datastructures.Point;
+import pathfinder.datastructures.PointTable;
+import pathfinder.parser.CampusPathsParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * This class loads a campus paths file from disk into a frozen graph using every core.
+ * The file is split into line-aligned chunks, each chunk is memory-mapped and parsed on
+ * a ForkJoinPool into its own PathGraphBuilder, and the chunks are then merged in file order.
+ * Node ids are given out in the order points first appear in the file, so the graph is
+ * the same however many chunks or threads were used. An instance holds the loaded graph
+ * along with how long loading took.
+ */
+public final class ParallelPathLoader {
+    // RI: graph != null && bytes >= 0 && chunks >= 0 && loadNanos >= 0
+    // AF(this) = graph, loaded from a file of bytes bytes split into chunks chunks,
+    //            in loadNanos nanoseconds
+
+    private static final long MIN_CHUNK_BYTES = 1 << 20;
+    private static final long MAX_CHUNK_BYTES = 64 << 20;
+
+    private final CompactGraph<Point> graph;
+    private final long bytes;
+    private final int chunks;
+    private final long loadNanos;
+
+    // Creates the result of a load
+    private ParallelPathLoader(CompactGraph<Point> graph, long bytes, int chunks, long loadNanos) {
+        this.graph = graph;
+        this.bytes = bytes;
+        this.chunks = chunks;
+        this.loadNanos = loadNanos;
+        checkRep();
+    }
+
+    /**
+     * @return the graph of the paths in the file, whose node ids follow the order in
+     *         which points first appear in the file
+     */
+    public CompactGraph<Point> getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return the size of the file in bytes
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return the number of chunks the file was split into
+     */
+    public int getChunks() {
+        return chunks;
+    }
+
+    /**
+     * @return how long loading the file took, in nanoseconds
+     */
+    public long getLoadNanos() {
+        return loadNanos;
+    }
+
+    /**
+     * @return the load throughput in megabytes (10^6 bytes) of file per second
+     */
+    public double megabytesPerSecond() {
+        return bytes / 1e6 / Math.max(loadNanos, 1) * 1e9;
+    }
+
+    /**
+     * Loads a campus paths file on the common ForkJoinPool, in chunks sized so that
+     * every thread of the pool gets several
+     *
+     * @param file a file in the format of campus_paths.csv
+     * @spec.requires file != null
+     * @return the loaded graph and load statistics
+     * @throws IOException if the file cannot be read
+     * @throws CampusPathsParser.ParserException if the file is not in the expected format
+     */
+    public static ParallelPathLoader load(Path file) throws IOException {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long chunkBytes = channel.size() / (4L * pool.getParallelism());
+            return load(file, pool, Math.max(MIN_CHUNK_BYTES, Math.min(MAX_CHUNK_BYTES, chunkBytes)));
+        }
+    }
+
+    /**
+     * Loads a campus paths file on the given pool, in chunks of about chunkBytes bytes
+     *
+     * @param file a file in the format of campus_paths.csv
+     * @param pool the pool that parses the chunks
+     * @param chunkBytes the size chunks are cut at, each extending to the end of its last line
+     * @spec.requires file != null && pool != null && 0 &lt; chunkBytes &lt;= 2^30
+     * @return the loaded graph and load statistics
+     * @throws IOException if the file cannot be read
+     * @throws CampusPathsParser.ParserException if the file is not in the expected format
+     */
+    public static ParallelPathLoader load(Path file, ForkJoinPool pool, long chunkBytes) throws IOException {
+        long begin = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long[] bounds = split(channel, size, chunkBytes);
+            List<Callable<PathGraphBuilder>> parses = new ArrayList<>();
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                long start = bounds[i];
+                long end = bounds[i + 1];
+                parses.add(() -> parse(channel, start, end));
+            }
+            List<PathGraphBuilder> parsed = join(pool.invokeAll(parses));
+
+            // give out ids in file order, visiting each chunk's points in the order they appear
+            PointTable ids = new PointTable();
+            int[][] globalIds = new int[parsed.size()][];
+            int[] edgeOffsets = new int[parsed.size() + 1];
+            for (int i = 0; i < parsed.size(); i++) {
+                PointTable local = parsed.get(i).points();
+                globalIds[i] = new int[local.size()];
+                for (int j = 0; j < local.size(); j++) {
+                    globalIds[i][j] = ids.intern(local.pointOf(j));
+                }
+                edgeOffsets[i + 1] = Math.addExact(edgeOffsets[i], parsed.get(i).size());
+            }
+
+            int m = edgeOffsets[parsed.size()];
+            int[] sources = new int[m];
+            int[] targets = new int[m];
+            double[] weights = new double[m];
+            List<Callable<Void>> copies = new ArrayList<>();
+            for (int i = 0; i < parsed.size(); i++) {
+                PathGraphBuilder chunk = parsed.get(i);
+                int[] global = globalIds[i];
+                int offset = edgeOffsets[i];
+                copies.add(() -> {
+                    for (int j = 0; j < chunk.size(); j++) {
+                        sources[offset + j] = global[chunk.sourceOf(j)];
+                        targets[offset + j] = global[chunk.targetOf(j)];
+                    }
+                    chunk.copyWeights(weights, offset);
+                    return null;
+                });
+            }
+            join(pool.invokeAll(copies));
+            CompactGraph<Point> graph = CompactGraph.fromEdges(ids.points(), sources, targets, weights);
+            return new ParallelPathLoader(graph, size, parsed.size(), System.nanoTime() - begin);
+        }
+    }
+
+    // helper method returning the chunk boundaries of a file: 0, then for each chunk the end
+    // of the line holding its chunkBytes-th byte, and finally size
+    private static long[] split(FileChannel channel, long size, long chunkBytes) throws IOException {
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long position = chunkBytes - 1;
+        while (position < size) {
+            long lineEnd = size;
+            // scan forward from position for the newline ending its line
+            for (long at = position; at < size && lineEnd == size; at += probe.limit()) {
+                probe.clear();
+                if (channel.read(probe, at) <= 0) {
+                    break;
+                }
+                probe.flip();
+                for (int i = 0; i < probe.limit(); i++) {
+                    if (probe.get(i) == '\n') {
+                        lineEnd = at + i + 1;
+                        break;
+                    }
+                }
+            }
+            if (lineEnd < size) {
+                bounds.add(lineEnd);
+            }
+            position = lineEnd + chunkBytes - 1;
+        }
+        bounds.add(size);
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    // helper method waiting for every task, in order, and rethrowing the first failure
+    private static <T> List<T> join(List<Future<T>> futures) throws IOException {
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<T> i : futures) {
+                results.add(i.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while loading paths");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+        return results;
+    }
+
+    private void checkRep() {
+        assert graph != null : "this.graph is null";
+        assert bytes >= 0 && chunks >= 0 && loadNanos >= 0 : "negative statistics";
+    }
+
+    // helper method parsing the bytes start .. end - 1 of a file into a chunk, whose points
+    // are numbered in the order they first appear in the chunk
+    private static PathGraphBuilder parse(FileChannel channel, long start, long end) throws IOException {
+        ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        PathGraphBuilder chunk = new PathGraphBuilder();
+        CampusPathsParser.parseCampusPaths(new BufferInput(mapped), chunk);
+        return chunk;
+    }
+
+    /**
+     * An InputStream reading the remaining bytes of a ByteBuffer, so a mapped chunk can be
+     * handed to the streaming parser.
+     */
+    private static final class BufferInput extends InputStream {
+        private final ByteBuffer buffer;
+
+        BufferInput(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package pathfinder;
+
+import graph.CompactGraph;
+import pathfinder.datastructures.Point;
+import pathfinder.datastructures.PointTable;
+import pathfinder.parser.PathConsumer;
+
+import java.util.Arrays;
+
+/**
+ * Collects the entries of a campus paths file into a frozen graph. Every coordinate pair
+ * is interned in a PointTable as it is read, so each location becomes one Point and one
+ * int id, given out in the order locations first appear, and edges are kept as plain ints
+ * and doubles until the graph is built.
+ */
+final class PathGraphBuilder implements PathConsumer {
+    // RI: points != null, sources.length == targets.length == weights.length >= size >= 0,
+    //     0 <= sources[i], targets[i] < points.size() for i < size
+    // AF(this) = for each i < size, an edge from points.pointOf(sources[i]) to
+    //            points.pointOf(targets[i]) with weight weights[i]
+
+    private final PointTable points = new PointTable();
+    private int[] sources = new int[1024];
+    private int[] targets = new int[1024];
+    private double[] weights = new double[1024];
+    private int size;
+
+    @Override
+    public void accept(double x1, double y1, double x2, double y2, double distance) {
+        int source = points.intern(x1, y1);
+        int target = points.intern(x2, y2);
+        if (size == sources.length) {
+            sources = Arrays.copyOf(sources, 2 * size);
+            targets = Arrays.copyOf(targets, 2 * size);
+            weights = Arrays.copyOf(weights, 2 * size);
+        }
+        sources[size] = source;
+        targets[size] = target;
+        weights[size] = distance;
+        size++;
+    }
+
+    /**
+     * @return the table of the locations read so far, whose ids are the node ids of build()
+     */
+    PointTable points() {
+        return points;
+    }
+
+    /**
+     * @return the number of entries read so far
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param i the index of an entry, in the order entries were read
+     * @return the id in points() of the first point of entry i
+     */
+    int sourceOf(int i) {
+        return sources[i];
+    }
+
+    /**
+     * @param i the index of an entry, in the order entries were read
+     * @return the id in points() of the second point of entry i
+     */
+    int targetOf(int i) {
+        return targets[i];
+    }
+
+    /**
+     * Copies the distance of every entry read so far into an array, in order
+     * @param destination the array to copy into
+     * @param offset the index of destination the first distance goes to
+     */
+    void copyWeights(double[] destination, int offset) {
+        System.arraycopy(weights, 0, destination, offset, size);
+    }
+
+    /**
+     * @return the graph with a node for every location read and an edge for every entry,
+     *         dropping exact repeats of an entry
+     */
+    CompactGraph<Point> build() {
+        return CompactGraph.fromEdges(points.points(), Arrays.copyOf(sources, size),
+                                      Arrays.copyOf(targets, size), Arrays.copyOf(weights, size));
+    }
+}
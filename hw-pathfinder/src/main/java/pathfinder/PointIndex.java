@@ -0,0 +1,235 @@
+package pathfinder;
+
+import graph.CompactGraph;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class represents an immutable spatial index of the nodes of a campus graph, for
+ * snapping arbitrary coordinates such as map clicks or GPS fixes to the graph. It is a
+ * balanced 2-d tree kept in flat arrays: the node in the middle of a range splits the
+ * rest of the range on x at even depths and on y at odd depths. A nearest-node query
+ * visits O(log n) nodes on typical data. An index never changes once built, so it can
+ * be shared by any number of threads.
+ */
+public class PointIndex {
+    // RI: graph != null && ids, xs and ys have length graph.nodeNum(),
+    //     ids is a permutation of 0 .. graph.nodeNum() - 1,
+    //     xs[i] == graph.valueOf(ids[i]).getX() and ys[i] == graph.valueOf(ids[i]).getY(),
+    //     for the range lo .. hi - 1 at depth d with mid = (lo + hi) / 2, every node before mid
+    //     has a coordinate on axis d % 2 no greater than node mid's and every node after
+    //     mid has one no smaller, and the same holds for both halves at depth d + 1
+    // AF(this) = the points of the nodes of graph, node ids[i] being at (xs[i], ys[i])
+    private final CompactGraph<Point> graph;
+    private final int[] ids;
+    private final double[] xs;
+    private final double[] ys;
+
+    /**
+     * Builds the index of every node of a graph
+     *
+     * @param graph the graph whose nodes to index
+     * @spec.requires graph != null
+     */
+    public PointIndex(CompactGraph<Point> graph) {
+        this.graph = graph;
+        int n = graph.nodeNum();
+        ids = new int[n];
+        xs = new double[n];
+        ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = i;
+            xs[i] = graph.valueOf(i).getX();
+            ys[i] = graph.valueOf(i).getY();
+        }
+        build(0, n, 0);
+        checkRep();
+    }
+
+    /**
+     * @return the number of nodes in the index
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Finds the node closest to a location
+     *
+     * @param x the x coordinate of the location
+     * @param y the y coordinate of the location
+     * @return the id of the node nearest to (x, y), the smallest such id if several are
+     *         equally near, -1 if the graph has no nodes
+     * @throws IllegalArgumentException if x or y is NaN or infinite
+     */
+    public int nearest(double x, double y) {
+        if (!Double.isFinite(x) || !Double.isFinite(y)) {
+            throw new IllegalArgumentException("x and y cannot be NaN or infinite.");
+        }
+        Nearest best = new Nearest();
+        nearest(0, ids.length, 0, x, y, best);
+        return best.id;
+    }
+
+    /**
+     * Finds the point of the node closest to a location
+     *
+     * @param x the x coordinate of the location
+     * @param y the y coordinate of the location
+     * @return the point of the node nearest to (x, y), null if the graph has no nodes
+     * @throws IllegalArgumentException if x or y is NaN or infinite
+     */
+    public Point nearestPoint(double x, double y) {
+        int id = nearest(x, y);
+        return id < 0 ? null : graph.valueOf(id);
+    }
+
+    /**
+     * Finds every node within a distance of a location
+     *
+     * @param x the x coordinate of the location
+     * @param y the y coordinate of the location
+     * @param radius the greatest distance from (x, y) to include
+     * @return the points of the nodes at most radius from (x, y), nearest first and
+     *         then by node id
+     * @throws IllegalArgumentException if x or y is NaN or infinite, or radius is negative or NaN
+     */
+    public List<Point> within(double x, double y, double radius) {
+        if (!Double.isFinite(x) || !Double.isFinite(y) || !(radius >= 0)) {
+            throw new IllegalArgumentException("bad location or radius");
+        }
+        List<Integer> found = new ArrayList<>();
+        within(0, ids.length, 0, x, y, radius * radius, found);
+        Integer[] order = found.toArray(new Integer[0]);
+        Arrays.sort(order, (a, b) -> {
+            int byDistance = Double.compare(squaredDistance(a, x, y), squaredDistance(b, x, y));
+            return byDistance != 0 ? byDistance : Integer.compare(ids[a], ids[b]);
+        });
+        List<Point> result = new ArrayList<>(order.length);
+        for (int i : order) {
+            result.add(graph.valueOf(ids[i]));
+        }
+        return result;
+    }
+
+    // helper method arranging the range lo .. hi - 1 into a subtree split on axis depth % 2
+    private void build(int lo, int hi, int depth) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, depth % 2 == 0 ? xs : ys);
+        build(lo, mid, depth + 1);
+        build(mid + 1, hi, depth + 1);
+    }
+
+    // helper method partially sorting lo .. hi by key so that position k holds the value
+    // it would in sorted order, with nothing greater before it and nothing smaller after
+    private void select(int lo, int hi, int k, double[] key) {
+        while (lo < hi) {
+            double pivot = key[(lo + hi) >>> 1];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (key[i] < pivot) {
+                    i++;
+                }
+                while (key[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    // helper method swapping two entries of the tree
+    private void swap(int a, int b) {
+        int id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        double x = xs[a];
+        xs[a] = xs[b];
+        xs[b] = x;
+        double y = ys[a];
+        ys[a] = ys[b];
+        ys[b] = y;
+    }
+
+    // helper method returning the squared distance from entry i to (x, y)
+    private double squaredDistance(int i, double x, double y) {
+        double dx = xs[i] - x;
+        double dy = ys[i] - y;
+        return dx * dx + dy * dy;
+    }
+
+    // helper method searching the subtree lo .. hi - 1 for a node nearer than best
+    private void nearest(int lo, int hi, int depth, double x, double y, Nearest best) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        double distance = squaredDistance(mid, x, y);
+        if (distance < best.distance || (distance == best.distance && ids[mid] < best.id)) {
+            best.distance = distance;
+            best.id = ids[mid];
+        }
+        double diff = depth % 2 == 0 ? x - xs[mid] : y - ys[mid];
+        // search the side of the split holding (x, y) first, since it is likelier to be near
+        if (diff < 0) {
+            nearest(lo, mid, depth + 1, x, y, best);
+            if (diff * diff <= best.distance) {
+                nearest(mid + 1, hi, depth + 1, x, y, best);
+            }
+        } else {
+            nearest(mid + 1, hi, depth + 1, x, y, best);
+            if (diff * diff <= best.distance) {
+                nearest(lo, mid, depth + 1, x, y, best);
+            }
+        }
+    }
+
+    // helper method adding every entry of the subtree lo .. hi - 1 within the radius to found
+    private void within(int lo, int hi, int depth, double x, double y, double squaredRadius,
+                        List<Integer> found) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (squaredDistance(mid, x, y) <= squaredRadius) {
+            found.add(mid);
+        }
+        double diff = depth % 2 == 0 ? x - xs[mid] : y - ys[mid];
+        if (diff <= 0 || diff * diff <= squaredRadius) {
+            within(lo, mid, depth + 1, x, y, squaredRadius, found);
+        }
+        if (diff >= 0 || diff * diff <= squaredRadius) {
+            within(mid + 1, hi, depth + 1, x, y, squaredRadius, found);
+        }
+    }
+
+    private void checkRep() {
+        assert graph != null : "this.graph is null";
+        assert ids.length == graph.nodeNum() && xs.length == ids.length && ys.length == ids.length
+                : "arrays do not match the graph";
+    }
+
+    /**
+     * The best node found so far by a nearest-node query.
+     */
+    private static final class Nearest {
+        private int id = -1;
+        private double distance = Double.POSITIVE_INFINITY;
+    }
+}
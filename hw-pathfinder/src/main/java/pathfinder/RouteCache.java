@@ -0,0 +1,287 @@
+package pathfinder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * This class represents a bounded, thread-safe cache of computed values, such as shortest
+ * paths keyed by their start and end, that evicts the least recently used entries. Keys
+ * are spread over independently locked stripes, each an access-ordered LinkedHashMap, so
+ * threads looking up different keys rarely wait on each other, and a hit takes one short
+ * lock and no computation. Values are computed outside the lock, so a slow computation
+ * never blocks lookups of other keys, and misses go through a SingleFlight, so threads
+ * missing the same key at once wait for one computation of it instead of each running
+ * their own. A null value is cached like any other. invalidateAll also drops the values
+ * of computations still running when it is called, so no value computed before an
+ * invalidation is cached or shared after it.
+ *
+ * @param <K> Type for the keys, which must have consistent equals and hashCode
+ * @param <V> Type for the cached values, which should be immutable
+ */
+public class RouteCache<K, V> {
+    // RI: stripes != null && stripes.length is a power of two && capacityPerStripe >= 1,
+    //     every stripe holds at most capacityPerStripe entries,
+    //     key k is only ever in stripes[stripeOf(k)]
+    // AF(this) = the union of the entries of stripes, each mapping a key to its value or to
+    //            NULL for a null value, where each stripe forgets its least recently used
+    //            entry when it overflows. hits, misses and evictions count the lookups that
+    //            found an entry, the lookups that did not, and the entries forgotten.
+    //            flights holds the computations of missing keys running right now, each
+    //            under its key and the generation it started in. generation counts the
+    //            calls to invalidateAll, and a computation only caches its value if no
+    //            call came since it started
+
+    /**
+     * Stands for a cached null value, since a map cannot tell it from a missing entry
+     */
+    private static final Object NULL = new Object();
+
+    private final Stripe[] stripes;
+    private final int capacityPerStripe;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final SingleFlight<Flight<K>, V> flights = new SingleFlight<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Creates an empty cache with 16 stripes
+     *
+     * @param capacity the most entries the cache may hold
+     * @throws IllegalArgumentException if capacity &lt; 1
+     */
+    public RouteCache(int capacity) {
+        this(capacity, 16);
+    }
+
+    /**
+     * Creates an empty cache
+     *
+     * @param capacity the most entries the cache may hold
+     * @param stripes the number of independently locked parts, rounded up to a power of
+     *                two; the least recently used entry is evicted within each part, so
+     *                1 gives exact LRU order
+     * @throws IllegalArgumentException if capacity &lt; 1 or stripes &lt; 1
+     */
+    public RouteCache(int capacity, int stripes) {
+        if (capacity < 1 || stripes < 1) {
+            throw new IllegalArgumentException("capacity and stripes must be positive");
+        }
+        int count = 1;
+        while (count < stripes && count * 2 <= capacity) {
+            count *= 2;
+        }
+        this.stripes = new Stripe[count];
+        this.capacityPerStripe = capacity / count;
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Stripe(capacityPerStripe, evictions);
+        }
+        checkRep();
+    }
+
+    /**
+     * Returns the cached value of a key, computing and caching it first if it is missing
+     *
+     * @param key the key to look up
+     * @param compute the function computing the value of a key that is not cached
+     * @spec.requires key != null && compute != null
+     * @spec.modifies this
+     * @spec.effects key is the most recently used entry of its stripe
+     * @return the value of key, the same object for every thread that missed it at once
+     */
+    public V get(K key, Function<? super K, ? extends V> compute) {
+        Stripe stripe = stripes[stripeOf(key)];
+        Object cached = lookup(stripe, key);
+        if (cached != null) {
+            hits.increment();
+            return unwrap(cached);
+        }
+        misses.increment();
+        // a flight of an earlier generation may compute from data invalidateAll has since
+        // replaced, so only a flight that started after the last invalidation is shared
+        return flights.run(new Flight<>(key, generation.get()), flight -> {
+            // the computation that just finished may have cached key after the lookup above
+            Object late = lookup(stripe, key);
+            if (late != null) {
+                return unwrap(late);
+            }
+            V value = compute.apply(key);
+            synchronized (stripe) {
+                // invalidateAll moves to the next generation before clearing each stripe
+                // under its lock, so a value computed before it is either cleared or never put
+                if (generation.get() == flight.generation) {
+                    stripe.put(key, value == null ? NULL : value);
+                }
+            }
+            return value;
+        });
+    }
+
+    /**
+     * Checks whether a key is cached, without computing anything or counting a lookup
+     *
+     * @param key the key to look up
+     * @spec.requires key != null
+     * @return true iff key has a cached value
+     */
+    public boolean contains(K key) {
+        Stripe stripe = stripes[stripeOf(key)];
+        synchronized (stripe) {
+            return stripe.containsKey(key);
+        }
+    }
+
+    /**
+     * Forgets every entry, such as when the data the values were computed from changes.
+     * Values still being computed when this is called are returned to the threads that
+     * asked for them but are not cached, and later lookups of their keys compute them
+     * again instead of waiting for them. The counters are kept.
+     *
+     * @spec.modifies this
+     * @spec.effects this has no entries
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        for (Stripe i : stripes) {
+            synchronized (i) {
+                i.clear();
+            }
+        }
+    }
+
+    /**
+     * @return the number of entries in the cache
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe i : stripes) {
+            synchronized (i) {
+                size += i.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return the most entries the cache may hold, which can be slightly less than the
+     *         capacity it was created with so that every stripe holds the same number
+     */
+    public int capacity() {
+        return capacityPerStripe * stripes.length;
+    }
+
+    /**
+     * @return the number of lookups that found a cached value
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of lookups that had to compute their value
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of entries evicted to make room for newer ones
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return the number of lookups that missed a key another thread was computing, and
+     *         shared that computation instead of running their own
+     */
+    public long coalesced() {
+        return flights.coalesced();
+    }
+
+    // helper method returning the cached value of key in its stripe, null if it is missing
+    private static Object lookup(Map<Object, Object> stripe, Object key) {
+        synchronized (stripe) {
+            return stripe.get(key);
+        }
+    }
+
+    // helper method turning a cached value back into the value it stands for
+    @SuppressWarnings("unchecked")
+    private V unwrap(Object cached) {
+        return cached == NULL ? null : (V) cached;
+    }
+
+    // helper method returning the index of the stripe a key belongs to
+    private int stripeOf(K key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return (h * 0x9E3779B9 >>> 16) & (stripes.length - 1);
+    }
+
+    private void checkRep() {
+        assert stripes != null && Integer.bitCount(stripes.length) == 1 : "stripes is not a power of two";
+        assert capacityPerStripe >= 1 : "capacityPerStripe is not positive";
+    }
+
+    /**
+     * The key of a computation in flights: the key being computed and the generation of the
+     * cache it started in
+     *
+     * @param <K> Type for the keys
+     */
+    private static final class Flight<K> {
+        private final K key;
+        private final long generation;
+
+        Flight(K key, long generation) {
+            this.key = key;
+            this.generation = generation;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Flight)) {
+                return false;
+            }
+            Flight<?> other = (Flight<?>) obj;
+            return generation == other.generation && key.equals(other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(key, generation);
+        }
+    }
+
+    /**
+     * One independently locked part of the cache, an access-ordered map that evicts its
+     * least recently used entry once it holds more than capacity entries, counting each
+     * eviction in evictions. Only used while holding its own lock.
+     */
+    private static final class Stripe extends LinkedHashMap<Object, Object> {
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+        private final transient LongAdder evictions;
+
+        Stripe(int capacity, LongAdder evictions) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
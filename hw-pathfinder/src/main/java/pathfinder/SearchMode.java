@@ -0,0 +1,38 @@
+package pathfinder;
+
+/**
+ * This enum represents the search algorithms a CampusMap can use to find
+ * the shortest path between two buildings.
+ */
+public enum SearchMode {
+    /**
+     * Dijkstra's algorithm, which settles every node closer to the start than the end.
+     */
+    DIJKSTRA,
+
+    /**
+     * A* search guided by the straight-line distance to the end, which settles
+     * fewer nodes than Dijkstra's algorithm for point-to-point queries.
+     */
+    A_STAR,
+
+    /**
+     * Dijkstra's algorithm run forwards from the start and backwards from the end at
+     * the same time, stopping once the two searches meet on a shortest path.
+     */
+    BIDIRECTIONAL,
+
+    /**
+     * A bidirectional search over a contraction hierarchy of the campus graph, which
+     * only moves towards more important nodes and settles far fewer nodes than the other
+     * modes. The hierarchy is built the first time this mode is used.
+     */
+    CONTRACTION_HIERARCHY,
+
+    /**
+     * A lookup in a table of the shortest routes from every building, which needs no
+     * search at all. The table is built with one search per building the first time
+     * this mode is used.
+     */
+    ROUTE_TABLE
+}
@@ -0,0 +1,113 @@
+package pathfinder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * This class represents a coalescing layer for computations: while a value of some key
+ * is being computed, other threads asking for the same key wait for that computation and
+ * share its result instead of starting their own, so a burst of identical requests costs
+ * one computation. Nothing is remembered once a computation finishes; a later call for
+ * the key computes it again, so results that should be kept belong in a cache in front of
+ * this class, such as RouteCache.
+ *
+ * @param <K> Type for the keys, which must have consistent equals and hashCode
+ * @param <V> Type for the computed values
+ */
+public class SingleFlight<K, V> {
+    // RI: inFlight != null && inFlight has no null keys or values
+    // AF(this) = the computations running right now, each under the key it computes and
+    //            completed with its value or exception once it is done. executions counts
+    //            the computations run and coalesced the calls that shared another's result
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Returns the value of a key, computing it on this thread unless another thread is
+     * already computing it, in which case this waits for and returns that result
+     *
+     * @param key the key to compute the value of
+     * @param compute the function computing the value of a key
+     * @spec.requires key != null && compute != null
+     * @return the value of key, which is the same object for every caller sharing a
+     *         computation
+     * @throws RuntimeException or Error if the computation this call ran or waited for
+     *         threw it
+     */
+    public V run(K key, Function<? super K, ? extends V> compute) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.increment();
+            return await(running);
+        }
+        executions.increment();
+        try {
+            V value = compute.apply(key);
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * @return the number of computations run
+     */
+    public long executions() {
+        return executions.sum();
+    }
+
+    /**
+     * @return the number of calls that waited for another thread's computation instead
+     *         of running their own
+     */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * @return the number of computations running right now
+     */
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    // helper method waiting for a computation of another thread, rethrowing its failure
+    private static <V> V await(CompletableFuture<V> running) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return running.get();
+                } catch (InterruptedException e) {
+                    // the computation is not this thread's to abandon, so keep waiting
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+                    if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    throw new CompletionException(cause);
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
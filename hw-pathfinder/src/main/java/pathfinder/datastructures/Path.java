@@ -12,6 +12,7 @@
 package pathfinder.datastructures;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
@@ -19,38 +20,58 @@ import java.util.List;
  * This represents an immutable path between two cartesian coordinate points, particularly
  * Path#getStart() and Path#getEnd(). Also contains a cached
  * version of the total cost along this path, for efficient repeated access.
+ * A path shares all of its segments but the last with the path it was extended from, so
+ * extending a path takes constant time and memory no matter how long the path is.
  */
 public class Path<P> implements Iterable<Path<P>.Segment> {
 
     // AF(this) =
     //      first point in the path => start
-    //      each "step" along the path between points => elements of list path, where
-    //          path.get(0) is the first step from the start point to an intermediate point, and
-    //          path.get(path.size() - 1) is the final step from an intermediate point to the end
+    //      each "step" along the path between points => the segments of prefix, in order,
+    //          followed by last, or no steps at all if prefix == null
+    //      number of steps along the path => size
     //      total cost along the path => cost
     //      the destination point in this path, opposite the start point => getEnd()
+    //      segments, when not null, caches the steps of the path as a list
 
     // Rep Invariant:
     //      cost >= 0 &&
     //      Double.isFinite(cost) &&
     //      start != null &&
-    //      path != null &&
-    //      path does not contain null elements
+    //      (prefix == null) == (last == null) == (size == 0) &&
+    //      (prefix != null implies prefix.start.equals(start) && size == prefix.size + 1
+    //          && last.getStart().equals(prefix.getEnd())) &&
+    //      (segments == null || segments is an unmodifiable list of the steps of this path)
 
     /**
      * The total cost along all the segments in this path.
      */
-    private double cost;
+    private final double cost;
 
     /**
      * The point at the beginning of this path.
      */
-    private P start;
+    private final P start;
 
     /**
-     * The ordered sequence of segments representing a path between points.
+     * The path this path was extended from, null if this path has no segments.
      */
-    private List<Segment> path;
+    private final Path<P> prefix;
+
+    /**
+     * The last segment of this path, null if this path has no segments.
+     */
+    private final Segment last;
+
+    /**
+     * The number of segments in this path.
+     */
+    private final int size;
+
+    /**
+     * The segments of this path in order, built the first time they are iterated over.
+     */
+    private volatile List<Segment> segments;
 
     /**
      * Creates a new, empty path containing a start point. Essentially this represents a path
@@ -59,9 +80,16 @@ public class Path<P> implements Iterable<Path<P>.Segment> {
      * @param start The starting point of the path.
      */
     public Path(P start) {
+        this(start, null, null, 0);
+    }
+
+    // Creates the path prefix followed by last, or the empty path from start if prefix is null
+    private Path(P start, Path<P> prefix, Segment last, double cost) {
         this.start = start;
-        this.cost = 0;
-        this.path = new ArrayList<>();
+        this.prefix = prefix;
+        this.last = last;
+        this.size = prefix == null ? 0 : prefix.size + 1;
+        this.cost = cost;
         checkRep();
     }
 
@@ -70,7 +98,7 @@ public class Path<P> implements Iterable<Path<P>.Segment> {
      * in this path and terminating at {@code newEnd}. The cost of adding this additional segment
      * to the existing path is {@code segmentCost}. Thus, the returned Path represents a path
      * from {@code this.getStart()} to {@code newEnd}, with a cost of {@code this.getCost() +
-     * segmentCost}.
+     * segmentCost}. This path is shared by the returned path rather than copied.
      *
      * @param newEnd      The point being added at the end of the segment being appended to this path
      * @param segmentCost The cost of the segment being added to the end of this path.
@@ -78,16 +106,8 @@ public class Path<P> implements Iterable<Path<P>.Segment> {
      */
     public Path<P> extend(P newEnd, double segmentCost) {
         checkRep();
-        //
-        Path<P> extendedPath = new Path<>(start);
-        extendedPath.path.addAll(this.path);
-        extendedPath.path.add(new Segment(this.getEnd(), newEnd, segmentCost));
-        extendedPath.cost = this.cost + segmentCost;
-        //
-        extendedPath.checkRep();
-        checkRep();
-        //
-        return extendedPath;
+        return new Path<>(start, this, new Segment(this.getEnd(), newEnd, segmentCost),
+                          this.cost + segmentCost);
     }
 
     /**
@@ -109,10 +129,10 @@ public class Path<P> implements Iterable<Path<P>.Segment> {
      * contains no segments (i.e. this path is from the start point to itself).
      */
     public P getEnd() {
-        if(path.size() == 0) {
+        if(last == null) {
             return start;
         }
-        return path.get(path.size() - 1).getEnd();
+        return last.getEnd();
     }
 
     /**
@@ -127,7 +147,7 @@ public class Path<P> implements Iterable<Path<P>.Segment> {
         // Create a wrapping iterator to guarantee exceptional behavior on Iterator#remove.
         return new Iterator<Segment>() {
 
-            private Iterator<Segment> backingIterator = path.iterator();
+            private Iterator<Segment> backingIterator = segments().iterator();
 
             @Override
             public boolean hasNext() {
@@ -146,6 +166,27 @@ public class Path<P> implements Iterable<Path<P>.Segment> {
         };
     }
 
+    /**
+     * Returns the segments of this path in order, collecting them from the chain of
+     * prefixes the first time they are needed.
+     *
+     * @return An unmodifiable list of the segments of this path.
+     */
+    private List<Segment> segments() {
+        List<Segment> result = segments;
+        if(result == null) {
+            List<Segment> steps = new ArrayList<>(Collections.nCopies(size, null));
+            Path<P> current = this;
+            for(int i = size - 1; i >= 0; i--) {
+                steps.set(i, current.last);
+                current = current.prefix;
+            }
+            result = Collections.unmodifiableList(steps);
+            segments = result;
+        }
+        return result;
+    }
+
     /**
      * Ensures that the representation invariant has not been violated. Returns normally if
      * there is no violation.
@@ -154,10 +195,8 @@ public class Path<P> implements Iterable<Path<P>.Segment> {
         assert cost >= 0;
         assert Double.isFinite(cost);
         assert start != null;
-        assert path != null;
-        for(Segment segment : path) {
-            assert segment != null;
-        }
+        assert (prefix == null) == (last == null) && (prefix == null) == (size == 0);
+        assert prefix == null || (prefix.start.equals(start) && size == prefix.size + 1);
     }
 
     /**
@@ -177,30 +216,35 @@ public class Path<P> implements Iterable<Path<P>.Segment> {
             return false;
         }
         Path<?> other = (Path<?>) obj;
-        if(this.path.size() != other.path.size()) {
+        if(this.size != other.size) {
             return false;
         }
-        if(this.path.size() == 0 && !this.start.equals(other.start)) {
+        if(this.size == 0 && !this.start.equals(other.start)) {
             return false;
         }
-        for(int i = 0; i < this.path.size(); i++) {
-            if(!this.path.get(i).equals(other.path.get(i))) {
+        // compare from the end, stopping early once both paths share the same prefix
+        Path<?> a = this;
+        Path<?> b = other;
+        while(a.size > 0 && a != b) {
+            if(!a.last.equals(b.last)) {
                 return false;
             }
+            a = a.prefix;
+            b = b.prefix;
         }
         return true;
     }
 
     @Override
     public int hashCode() {
-        return (31 * start.hashCode()) + path.hashCode();
+        return (31 * start.hashCode()) + segments().hashCode();
     }
 
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append(start.toString());
-        for(Segment segment : path) {
+        for(Segment segment : this) {
             sb.append(" =(");
             sb.append(String.format("%.3f", segment.getCost()));
             sb.append(")=> ");
@@ -0,0 +1,243 @@
+package pathfinder.datastructures;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * This represents a mutable table interning points: each distinct coordinate pair is
+ * stored once, as one canonical Point and a dense int id given out in the order the
+ * pairs were first added. Lookups hash the raw coordinates in an open-addressing table
+ * of ints, so checking a pair does not create a Point or box an id.
+ */
+public class PointTable {
+
+    // AF(this) =
+    //      the point with id i => points[i], at coordinates (xs[i], ys[i]), for 0 <= i < size
+    //      the id of the pair (x, y) => slots[k] - 1 for the k at which probing from
+    //          slotOf(x, y) finds it, or none if probing reaches a 0 first
+
+    // Rep Invariant:
+    //      0 <= size <= points.length == xs.length == ys.length &&
+    //      slots.length is a power of two and size < slots.length / 2 &&
+    //      points[i] != null and points[i] is at (xs[i], ys[i]) for all 0 <= i < size &&
+    //      no two of the first size pairs are equal in the sense of Point#equals &&
+    //      each id 0 .. size - 1 appears in slots exactly once, as id + 1,
+    //          at or after slotOf(xs[id], ys[id]) with no 0 between
+
+    private Point[] points;
+    private double[] xs;
+    private double[] ys;
+    private int[] slots;
+    private int size;
+
+    /**
+     * Creates an empty table.
+     */
+    public PointTable() {
+        this(16);
+    }
+
+    /**
+     * Creates an empty table sized for a number of points, so that it does not need
+     * to grow until more are added.
+     *
+     * @param expected The number of points expected.
+     * @throws IllegalArgumentException if expected is negative.
+     */
+    public PointTable(int expected) {
+        if (expected < 0) {
+            throw new IllegalArgumentException("expected cannot be negative.");
+        }
+        int capacity = Math.max(16, expected);
+        points = new Point[capacity];
+        xs = new double[capacity];
+        ys = new double[capacity];
+        slots = new int[Integer.highestOneBit(capacity) * 4];
+        checkRep();
+    }
+
+    /**
+     * @return The number of distinct points in this table.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds a coordinate pair if it is not in this table yet.
+     *
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @return The id of the point at (x, y).
+     * @throws IllegalArgumentException if x or y are NaN or infinite.
+     */
+    public int intern(double x, double y) {
+        int slot = find(x, y);
+        if (slots[slot] != 0) {
+            return slots[slot] - 1;
+        }
+        return add(slot, new Point(x, y));
+    }
+
+    /**
+     * Adds a point if no equal point is in this table yet, keeping the given instance
+     * as the canonical one.
+     *
+     * @param point The point to add.
+     * @return The id of the point equal to {@code point}.
+     * @spec.requires point != null
+     */
+    public int intern(Point point) {
+        int slot = find(point.getX(), point.getY());
+        if (slots[slot] != 0) {
+            return slots[slot] - 1;
+        }
+        return add(slot, point);
+    }
+
+    /**
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @return The id of the point at (x, y), or -1 if it is not in this table.
+     */
+    public int idOf(double x, double y) {
+        return slots[find(x, y)] - 1;
+    }
+
+    /**
+     * @param point The point to look up.
+     * @return The id of the point equal to {@code point}, or -1 if it is not in this table.
+     * @spec.requires point != null
+     */
+    public int idOf(Point point) {
+        return idOf(point.getX(), point.getY());
+    }
+
+    /**
+     * @param id The id of a point.
+     * @return The canonical point with the given id.
+     * @throws IndexOutOfBoundsException if id is not between 0 and size() - 1.
+     */
+    public Point pointOf(int id) {
+        checkId(id);
+        return points[id];
+    }
+
+    /**
+     * @param id The id of a point.
+     * @return The x coordinate of the point with the given id.
+     * @throws IndexOutOfBoundsException if id is not between 0 and size() - 1.
+     */
+    public double xOf(int id) {
+        checkId(id);
+        return xs[id];
+    }
+
+    /**
+     * @param id The id of a point.
+     * @return The y coordinate of the point with the given id.
+     * @throws IndexOutOfBoundsException if id is not between 0 and size() - 1.
+     */
+    public double yOf(int id) {
+        checkId(id);
+        return ys[id];
+    }
+
+    /**
+     * @return An unmodifiable list of the canonical points, indexed by id. The list is a
+     * view of this table, so it grows as points are added.
+     */
+    public List<Point> points() {
+        return new PointList();
+    }
+
+    /**
+     * Finds the slot holding the pair (x, y), or the empty slot where it would go.
+     */
+    private int find(double x, double y) {
+        int mask = slots.length - 1;
+        for (int slot = slotOf(x, y) & mask; ; slot = (slot + 1) & mask) {
+            int entry = slots[slot];
+            if (entry == 0 || (Double.compare(xs[entry - 1], x) == 0 && Double.compare(ys[entry - 1], y) == 0)) {
+                return slot;
+            }
+        }
+    }
+
+    /**
+     * Hashes a coordinate pair, mixing the bits so that nearby points spread out.
+     */
+    private static int slotOf(double x, double y) {
+        long h = Double.doubleToLongBits(x) * 0x9E3779B97F4A7C15L + Double.doubleToLongBits(y);
+        h ^= h >>> 31;
+        h *= 0xBF58476D1CE4E5B9L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Stores a new point in an empty slot, growing the table first if it is too full.
+     */
+    private int add(int slot, Point point) {
+        if (size == points.length) {
+            int capacity = 2 * size;
+            points = Arrays.copyOf(points, capacity);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+        }
+        int id = size++;
+        points[id] = point;
+        xs[id] = point.getX();
+        ys[id] = point.getY();
+        if (2 * size >= slots.length) {
+            rehash();
+        } else {
+            slots[slot] = id + 1;
+        }
+        checkRep();
+        return id;
+    }
+
+    /**
+     * Doubles the number of slots and reinserts every id.
+     */
+    private void rehash() {
+        slots = new int[2 * slots.length];
+        int mask = slots.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = slotOf(xs[id], ys[id]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("no point with id " + id);
+        }
+    }
+
+    private void checkRep() {
+        assert size >= 0 && size <= points.length : "size out of range";
+        assert points.length == xs.length && xs.length == ys.length : "arrays differ in length";
+        assert Integer.bitCount(slots.length) == 1 && size < slots.length / 2 : "slots too full";
+    }
+
+    /**
+     * A read-only view of the canonical points, in id order.
+     */
+    private class PointList extends AbstractList<Point> implements RandomAccess {
+        @Override
+        public Point get(int index) {
+            return pointOf(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
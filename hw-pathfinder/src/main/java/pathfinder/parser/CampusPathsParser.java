@@ -12,6 +12,7 @@
 package pathfinder.parser;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
@@ -69,30 +70,45 @@ public class CampusPathsParser {
      */
     public static List<CampusPath> parseCampusPaths(String file) {
         List<CampusPath> paths = new ArrayList<>();
-        List<String> lines = readLines(file);
-        //
-        for (String line : lines) {
-            String[] fields = line.split(",");
-            if (fields.length != 5) {
-                throw new ParserException("Wrong number of fields in line");
-            }
-            double x1, x2, y1, y2, distance;
-            try {
-                x1 = Double.parseDouble(fields[0]);
-                y1 = Double.parseDouble(fields[1]);
-                x2 = Double.parseDouble(fields[2]);
-                y2 = Double.parseDouble(fields[3]);
-                distance = Double.parseDouble(fields[4]);
-            } catch (NumberFormatException e) {
-                throw new ParserException("Cannot parse x/y coordinates as numbers", e);
-            }
-            //
-            paths.add(new CampusPath(x1, y1, x2, y2, distance));
-        }
-        //
+        parseCampusPaths(file, (x1, y1, x2, y2, distance) ->
+                paths.add(new CampusPath(x1, y1, x2, y2, distance)));
         return paths;
     }
 
+    /**
+     * Parses the campus paths file (in src/main/resources/data/) line by line,
+     * passing the data of each line to a callback as soon as it is read. Neither the
+     * lines nor their fields are kept, so files of any size are parsed in constant memory.
+     *
+     * @param file     The simple filename of a campus paths file to parse.
+     * @param consumer The callback receiving the data of each line, in file order.
+     * @throws ParserException if the file cannot be found or parsed as expected
+     */
+    public static void parseCampusPaths(String file, PathConsumer consumer) {
+        try (InputStream stream = open(file)) {
+            parseCampusPaths(stream, consumer);
+        } catch (IOException e) {
+            throw new ParserException("Cannot read " + file, e);
+        }
+    }
+
+    /**
+     * Parses campus paths data from a stream, in the format of the campus paths
+     * file, passing the data of each line to a callback as soon as it is read.
+     * The stream is read to its end but not closed.
+     *
+     * @param stream   The stream to parse.
+     * @param consumer The callback receiving the data of each line, in stream order.
+     * @throws ParserException if the stream cannot be read or parsed as expected
+     */
+    public static void parseCampusPaths(InputStream stream, PathConsumer consumer) {
+        try {
+            new PathScanner(stream).scan(consumer);
+        } catch (IOException e) {
+            throw new ParserException("Cannot read campus paths", e);
+        }
+    }
+
     /**
      * Reads all lines contained within the provided data file, which is located
      * relative to the data/ folder in this parser's classpath.
@@ -102,12 +118,24 @@ public class CampusPathsParser {
      * @return A new {@link List<String>} containing all lines in the file.
      */
     private static List<String> readLines(String filename) {
+        return new BufferedReader(new InputStreamReader(open(filename))).lines().collect(Collectors.toList());
+    }
+
+    /**
+     * Opens the provided data file, which is located relative to the data/ folder
+     * in this parser's classpath.
+     *
+     * @param filename The file to open.
+     * @throws ParserException if the file doesn't exist or has an invalid name
+     * @return A new stream of the bytes of the file.
+     */
+    private static InputStream open(String filename) {
         // See MarvelParser.java (from hw-marvel) for an explanation of this code
         InputStream stream = CampusPathsParser.class.getResourceAsStream("/data/" + filename);
         if (stream == null) {
             throw new ParserException("No such file: " + filename);
         }
-        return new BufferedReader(new InputStreamReader(stream)).lines().collect(Collectors.toList());
+        return stream;
     }
 
     /**
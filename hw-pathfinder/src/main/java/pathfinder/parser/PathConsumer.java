@@ -0,0 +1,20 @@
+package pathfinder.parser;
+
+/**
+ * A callback receiving the entries of a campus paths file one at a time, as plain
+ * doubles, so a file can be read without creating an object per line.
+ */
+@FunctionalInterface
+public interface PathConsumer {
+
+    /**
+     * Receives one entry of a campus paths file.
+     *
+     * @param x1       The pixel-x coordinate of the first point
+     * @param y1       The pixel-y coordinate of the first point
+     * @param x2       The pixel-x coordinate of the second point
+     * @param y2       The pixel-y coordinate of the second point
+     * @param distance The distance between the points as described in the dataset
+     */
+    void accept(double x1, double y1, double x2, double y2, double distance);
+}
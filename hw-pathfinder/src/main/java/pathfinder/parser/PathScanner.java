@@ -0,0 +1,166 @@
+package pathfinder.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Scans a campus paths file from a stream in a single pass over a fixed byte buffer,
+ * parsing each number in place and handing every entry to a PathConsumer. Memory use does
+ * not grow with the size of the file, and a line allocates nothing unless one of its
+ * numbers falls back to Double.parseDouble.
+ */
+final class PathScanner {
+    // RI: in != null, 0 <= position <= limit <= buffer.length, field != null,
+    //     values.length == FIELDS
+    // AF(this) = the unread bytes of in, preceded by buffer[position .. limit - 1]
+
+    private static final int FIELDS = 5;
+
+    /**
+     * Mantissas up to 2^53 and powers of ten up to 10^22 are exact doubles, so dividing
+     * one by the other is rounded once, exactly as Double.parseDouble rounds
+     */
+    private static final long MAX_EXACT = 1L << 53;
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[1 << 16];
+    private int position;
+    private int limit;
+    private char[] field = new char[32];
+    private final double[] values = new double[FIELDS];
+
+    /**
+     * @param in The stream to scan, read from its current position.
+     */
+    PathScanner(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Scans every remaining line of the stream, calling consumer once per line in order.
+     *
+     * @param consumer The callback receiving each entry.
+     * @throws IOException if the stream cannot be read
+     * @throws CampusPathsParser.ParserException if a line is not five comma-separated numbers,
+     *         optionally followed by trailing commas
+     */
+    void scan(PathConsumer consumer) throws IOException {
+        int count = 0;
+        int length = 0;
+        boolean inLine = false;
+        byte previous = 0;
+        while (position < limit || fill()) {
+            byte b = buffer[position++];
+            if (b == ',') {
+                store(count++, length);
+                length = 0;
+                inLine = true;
+            } else if (b == '\n' || b == '\r') {
+                // a "\r\n" pair ends one line, not two
+                if (b == '\r' || previous != '\r') {
+                    endLine(consumer, count, length);
+                }
+                count = 0;
+                length = 0;
+                inLine = false;
+            } else {
+                if (length == field.length) {
+                    field = Arrays.copyOf(field, 2 * length);
+                }
+                field[length++] = (char) (b & 0xff);
+                inLine = true;
+            }
+            previous = b;
+        }
+        if (inLine) {
+            endLine(consumer, count, length);
+        }
+    }
+
+    // helper method refilling the buffer, returning false at the end of the stream
+    private boolean fill() throws IOException {
+        int read = in.read(buffer);
+        position = 0;
+        limit = Math.max(read, 0);
+        return read > 0;
+    }
+
+    // helper method parsing the field just scanned as value number index of its line.
+    // Empty fields after the last value are ignored, as String.split drops trailing empty
+    // strings, so a line may end with commas as it always could
+    private void store(int index, int length) {
+        if (index >= FIELDS) {
+            if (length == 0) {
+                return;
+            }
+            throw new CampusPathsParser.ParserException("Wrong number of fields in line");
+        }
+        try {
+            values[index] = parseDouble(field, length);
+        } catch (NumberFormatException e) {
+            throw new CampusPathsParser.ParserException("Cannot parse x/y coordinates as numbers", e);
+        }
+    }
+
+    // helper method finishing a line whose last field is not yet stored
+    private void endLine(PathConsumer consumer, int count, int length) {
+        store(count, length);
+        // store rejects any value after the last, so only too few fields are left to check
+        if (count + 1 < FIELDS) {
+            throw new CampusPathsParser.ParserException("Wrong number of fields in line");
+        }
+        consumer.accept(values[0], values[1], values[2], values[3], values[4]);
+    }
+
+    /**
+     * Parses a decimal number such as "-1536.287". Numbers with an exponent, more digits
+     * than a double holds exactly, or anything else unusual are left to Double.parseDouble,
+     * so the result is always the same as Double.parseDouble's.
+     *
+     * @param chars The characters of the number.
+     * @param length The number of characters in chars to parse.
+     * @return the value of chars[0 .. length - 1]
+     * @throws NumberFormatException if the characters are not a number
+     */
+    static double parseDouble(char[] chars, int length) {
+        int i = 0;
+        boolean negative = false;
+        if (i < length && (chars[i] == '-' || chars[i] == '+')) {
+            negative = chars[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int significant = 0;
+        int scale = 0;
+        boolean point = false;
+        for (; i < length; i++) {
+            char c = chars[i];
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (mantissa != 0) {
+                    significant++;
+                }
+                if (point) {
+                    scale++;
+                }
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                break;
+            }
+        }
+        if (i != length || digits == 0 || significant > 18 || mantissa > MAX_EXACT
+                || scale >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(new String(chars, 0, length));
+        }
+        double value = mantissa / POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+}
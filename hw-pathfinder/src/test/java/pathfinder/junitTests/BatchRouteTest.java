@@ -0,0 +1,94 @@
+package pathfinder.junitTests;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.CampusMap;
+import pathfinder.SearchMode;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * BatchRouteTest is a glassbox test of the batch queries of CampusMap, findShortestPaths
+ * and distanceMatrix.
+ */
+public class BatchRouteTest {
+    @Rule public Timeout globalTimeout = Timeout.seconds(20);
+
+    /** Tests every path of a batch is the path a single query finds, and is cached */
+    @Test
+    public void testBatchMatchesSingleQueries() {
+        CampusMap campus = new CampusMap("campus_buildings.csv", "campus_paths.csv");
+        CampusMap single = new CampusMap("campus_buildings.csv", "campus_paths.csv");
+        List<String> names = new ArrayList<>(campus.buildingNames().keySet());
+        Collections.sort(names);
+        List<String> starts = new ArrayList<>();
+        List<String> ends = new ArrayList<>();
+        for (int i = 0; i < names.size(); i += 3) {
+            for (int j = 0; j < names.size(); j += 2) {
+                starts.add(names.get(i));
+                ends.add(names.get(j));
+            }
+        }
+        Path<Point> cached = campus.findShortestPath(starts.get(5), ends.get(5), SearchMode.DIJKSTRA);
+        List<Path<Point>> paths = campus.findShortestPaths(starts, ends);
+        assertEquals(starts.size(), paths.size());
+        assertSame(cached, paths.get(5));
+        for (int i = 0; i < paths.size(); i++) {
+            assertEquals(single.findShortestPath(starts.get(i), ends.get(i), SearchMode.DIJKSTRA), paths.get(i));
+            assertSame(paths.get(i), campus.findShortestPath(starts.get(i), ends.get(i), SearchMode.DIJKSTRA));
+        }
+        assertEquals(Collections.emptyList(),
+                campus.findShortestPaths(Collections.emptyList(), Collections.emptyList()));
+    }
+
+    /** Tests the distance matrix holds the costs of the single query paths */
+    @Test
+    public void testDistanceMatrix() {
+        CampusMap campus = new CampusMap("campus_buildings.csv", "campus_paths.csv");
+        List<String> starts = Arrays.asList("CSE", "MGH", "CSE", "KNE");
+        List<String> ends = Arrays.asList("MGH", "CSE", "KNE", "KNE", "PAR");
+        double[][] costs = campus.distanceMatrix(starts, ends);
+        assertEquals(starts.size(), costs.length);
+        for (int i = 0; i < starts.size(); i++) {
+            assertEquals(ends.size(), costs[i].length);
+            for (int j = 0; j < ends.size(); j++) {
+                assertEquals(campus.findShortestPath(starts.get(i), ends.get(j)).getCost(), costs[i][j], 0);
+            }
+        }
+        assertEquals(0, costs[3][3], 0);
+        assertEquals(0, campus.distanceMatrix(Collections.emptyList(), ends).length);
+    }
+
+    /** Tests batches naming a missing building or with mismatched lists are rejected */
+    @Test
+    public void testInvalidBatches() {
+        CampusMap campus = new CampusMap("campus_buildings.csv", "campus_paths.csv");
+        try {
+            campus.findShortestPaths(Arrays.asList("CSE", "MGH"), Arrays.asList("MGH"));
+            fail("accepted a start without an end");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            campus.findShortestPaths(Arrays.asList("CSE", "MGH"), Arrays.asList("MGH", "NOT A BUILDING"));
+            fail("accepted a missing building");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            campus.distanceMatrix(Arrays.asList("CSE", null), Arrays.asList("MGH"));
+            fail("accepted a null building");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertEquals(0, campus.routeCache().size());
+    }
+}
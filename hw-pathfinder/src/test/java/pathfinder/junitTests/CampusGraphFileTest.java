@@ -0,0 +1,103 @@
+package pathfinder.junitTests;
+
+import graph.CompactGraph;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.rules.Timeout;
+import pathfinder.CampusGraphFile;
+import pathfinder.CampusMap;
+import pathfinder.SearchMode;
+import pathfinder.datastructures.Point;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+/**
+ * CampusGraphFileTest is a glassbox test of the CampusGraphFile class and of loading
+ * a CampusMap from a compiled campus graph file.
+ */
+public class CampusGraphFileTest {
+    @Rule public Timeout globalTimeout = Timeout.seconds(10);
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final String BUILDINGS = "campus_buildings.csv";
+    private static final String PATHS = "campus_paths.csv";
+
+    /** Tests the compiled file holds the same graph, buildings and paths as the CSV files */
+    @Test
+    public void testRoundTrip() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("campus.graph");
+        CampusMap parsed = CampusMap.cached(BUILDINGS, PATHS, file, SearchMode.DIJKSTRA);
+        assertTrue(Files.isRegularFile(file));
+        CampusGraphFile compiled = CampusGraphFile.read(file);
+        assertEquals(CampusGraphFile.fingerprint(BUILDINGS, PATHS), compiled.getFingerprint());
+        assertEquals(parsed.buildingNames().size(), compiled.getBuildings().size());
+        CompactGraph<Point> graph = compiled.getGraph();
+        assertEquals(2067, graph.nodeNum());
+        assertEquals(5546, graph.edgeNum());
+        CampusMap loaded = CampusMap.load(file, SearchMode.DIJKSTRA);
+        assertEquals(parsed.buildingNames(), loaded.buildingNames());
+        for (String start : new String[] {"CSE", "KNE", "MGH"}) {
+            for (String end : new String[] {"CS2", "SUZ", "MGH"}) {
+                assertEquals(parsed.findShortestPath(start, end), loaded.findShortestPath(start, end));
+            }
+        }
+    }
+
+    /** Tests a file that is not a campus graph file is rejected and then replaced */
+    @Test
+    public void testCorruptFile() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("campus.graph");
+        Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+        try {
+            CampusGraphFile.read(file);
+            fail("read a corrupt file");
+        } catch (IOException e) {
+            // expected
+        }
+        CampusMap map = CampusMap.cached(BUILDINGS, PATHS, file, SearchMode.DIJKSTRA);
+        assertTrue(map.shortNameExists("CSE"));
+        assertEquals(CampusGraphFile.fingerprint(BUILDINGS, PATHS), CampusGraphFile.read(file).getFingerprint());
+    }
+
+    /** Tests huge building counts and string lengths in a file are rejected before allocating */
+    @Test
+    public void testCorruptLengths() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("campus.graph");
+        CampusMap.cached(BUILDINGS, PATHS, file, SearchMode.DIJKSTRA);
+        byte[] valid = Files.readAllBytes(file);
+        ByteBuffer header = ByteBuffer.wrap(valid).order(ByteOrder.LITTLE_ENDIAN);
+        int n = header.getInt(16);
+        int m = header.getInt(20);
+        int buildings = 16 + 12 + 16 * n + 4 * (n + 1) + 12 * m;
+
+        byte[] count = valid.clone();
+        ByteBuffer.wrap(count).order(ByteOrder.LITTLE_ENDIAN).putInt(24, Integer.MAX_VALUE);
+        assertCorrupt(file, count);
+
+        byte[] length = valid.clone();
+        ByteBuffer.wrap(length).order(ByteOrder.LITTLE_ENDIAN).putInt(buildings, Integer.MAX_VALUE - 8);
+        assertCorrupt(file, length);
+
+        byte[] negative = valid.clone();
+        ByteBuffer.wrap(negative).order(ByteOrder.LITTLE_ENDIAN).putInt(buildings, -1);
+        assertCorrupt(file, negative);
+    }
+
+    // helper method checking that reading the given bytes as a file throws an IOException
+    private static void assertCorrupt(Path file, byte[] bytes) throws IOException {
+        Files.write(file, bytes);
+        try {
+            CampusGraphFile.read(file);
+            fail("read a corrupt file");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package pathfinder.junitTests;
+
+import graph.DirectedLabeledGraph;
+import graph.ShortestPath;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.Dijkstra;
+import pathfinder.datastructures.Path;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * DijkstraTest is a glassbox test of Dijkstra.findPath over a DirectedLabeledGraph, which
+ * searches the graph in place instead of through a frozen graph.ShortestPath.
+ */
+public class DijkstraTest {
+    @Rule public Timeout globalTimeout = Timeout.seconds(10);
+
+    // helper method adding an edge between two nodes, adding the nodes first
+    private static void edge(DirectedLabeledGraph<String, Double> graph, String a, String b, double w) {
+        DirectedLabeledGraph.Node<String> parent = new DirectedLabeledGraph.Node<>(a);
+        DirectedLabeledGraph.Node<String> child = new DirectedLabeledGraph.Node<>(b);
+        graph.addNode(parent);
+        graph.addNode(child);
+        graph.addEdge(new DirectedLabeledGraph.Edge<>(parent, child, w));
+    }
+
+    /** Tests the path found is the one the frozen search finds, even among paths of equal cost */
+    @Test
+    public void testMatchesFrozenSearch() {
+        // weights of 0 to 2 make many paths of equal cost
+        Random random = new Random(331);
+        for (int k = 0; k < 20; k++) {
+            DirectedLabeledGraph<String, Double> graph = new DirectedLabeledGraph<>();
+            for (int i = 0; i < 30; i++) {
+                graph.addNode(new DirectedLabeledGraph.Node<>("n" + i));
+            }
+            for (int i = 0; i < 120; i++) {
+                edge(graph, "n" + random.nextInt(30), "n" + random.nextInt(30), random.nextInt(3));
+            }
+            ShortestPath<String> frozen = ShortestPath.of(graph, Double::doubleValue);
+            for (int i = 0; i < 30; i++) {
+                for (int j = 0; j < 30; j++) {
+                    Path<String> expected = Dijkstra.toPath(frozen.find("n" + i, "n" + j));
+                    assertEquals(expected, Dijkstra.findPath(graph, "n" + i, "n" + j));
+                }
+            }
+        }
+    }
+
+    /** Tests paths to the start, to unreachable nodes and to nodes not in the graph */
+    @Test
+    public void testSpecialPaths() {
+        DirectedLabeledGraph<String, Double> graph = new DirectedLabeledGraph<>();
+        edge(graph, "A", "B", 1);
+        edge(graph, "B", "A", 1);
+        graph.addNode(new DirectedLabeledGraph.Node<>("C"));
+        assertEquals(new Path<>("A"), Dijkstra.findPath(graph, "A", "A"));
+        assertEquals(new Path<>("A").extend("B", 1), Dijkstra.findPath(graph, "A", "B"));
+        assertNull(Dijkstra.findPath(graph, "A", "C"));
+        assertNull(Dijkstra.findPath(graph, "A", "Z"));
+        assertNull(Dijkstra.findPath(graph, "Z", "A"));
+    }
+
+    /** Tests a negative edge weight is searched over rather than rejected */
+    @Test
+    public void testNegativeWeightOffPath() {
+        DirectedLabeledGraph<String, Double> graph = new DirectedLabeledGraph<>();
+        edge(graph, "A", "B", 2);
+        edge(graph, "A", "C", -1);
+        edge(graph, "C", "C", -1);
+        assertEquals(new Path<>("A").extend("B", 2), Dijkstra.findPath(graph, "A", "B"));
+    }
+}
@@ -0,0 +1,133 @@
+package pathfinder.junitTests;
+
+import graph.CompactGraph;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.rules.Timeout;
+import pathfinder.CampusMap;
+import pathfinder.ParallelPathLoader;
+import pathfinder.SearchMode;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusPathsParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * ParallelPathLoaderTest is a glassbox test of the ParallelPathLoader class.
+ */
+public class ParallelPathLoaderTest {
+    @Rule public Timeout globalTimeout = Timeout.seconds(20);
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+    // helper method copying the campus paths file to disk
+    private Path campusPaths() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("campus_paths.csv");
+        try (InputStream stream = getClass().getResourceAsStream("/data/campus_paths.csv")) {
+            Files.copy(stream, file);
+        }
+        return file;
+    }
+
+    // helper method listing every edge of a graph as "source -> target : weight"
+    private static Set<String> edges(CompactGraph<Point> graph) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i < graph.edgeNum(); i++) {
+            result.add(graph.valueOf(graph.edgeSource(i)) + " -> " + graph.valueOf(graph.edgeTarget(i))
+                       + " : " + graph.edgeWeight(i));
+        }
+        return result;
+    }
+
+    /** Tests the loaded graph has the nodes and edges of the graph CampusMap parses */
+    @Test
+    public void testSameGraphAsParser() throws IOException {
+        Path file = campusPaths();
+        ParallelPathLoader loaded = ParallelPathLoader.load(file, ForkJoinPool.commonPool(), 4096);
+        CompactGraph<Point> graph = loaded.getGraph();
+        assertTrue(loaded.getChunks() > 10);
+        assertEquals(Files.size(file), loaded.getBytes());
+        assertTrue(loaded.megabytesPerSecond() > 0);
+        assertEquals(2067, graph.nodeNum());
+        assertEquals(5546, graph.edgeNum());
+
+        List<Point> firstSeen = new ArrayList<>();
+        Set<Point> seen = new HashSet<>();
+        List<String> lines = new ArrayList<>();
+        CampusPathsParser.parseCampusPaths("campus_paths.csv", (x1, y1, x2, y2, distance) -> {
+            for (Point i : new Point[] {new Point(x1, y1), new Point(x2, y2)}) {
+                if (seen.add(i)) {
+                    firstSeen.add(i);
+                }
+            }
+            lines.add(new Point(x1, y1) + " -> " + new Point(x2, y2) + " : " + distance);
+        });
+        assertEquals(firstSeen, graph.values());
+        assertEquals(new HashSet<>(lines), edges(graph));
+
+        CampusMap parsed = new CampusMap("campus_buildings.csv", "campus_paths.csv");
+        CampusMap fromFile = CampusMap.fromPathFile("campus_buildings.csv", file, SearchMode.DIJKSTRA);
+        for (String start : new String[] {"CSE", "KNE", "MGH"}) {
+            for (String end : new String[] {"CS2", "SUZ", "MGH"}) {
+                assertEquals(parsed.findShortestPath(start, end).getCost(),
+                             fromFile.findShortestPath(start, end).getCost(), 1e-9);
+            }
+        }
+    }
+
+    /** Tests the graph does not depend on how the file is split or how many threads load it */
+    @Test
+    public void testDeterministic() throws IOException {
+        Path file = campusPaths();
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool four = new ForkJoinPool(4);
+        try {
+            CompactGraph<Point> one = ParallelPathLoader.load(file, single, 1 << 30).getGraph();
+            for (long chunkBytes : new long[] {1, 100, 7919}) {
+                CompactGraph<Point> graph = ParallelPathLoader.load(file, four, chunkBytes).getGraph();
+                assertEquals(one.values(), graph.values());
+                for (int i = 0; i < one.edgeNum(); i++) {
+                    assertEquals(one.edgeSource(i), graph.edgeSource(i));
+                    assertEquals(one.edgeTarget(i), graph.edgeTarget(i));
+                    assertEquals(one.edgeWeight(i), graph.edgeWeight(i), 0);
+                }
+            }
+        } finally {
+            single.shutdown();
+            four.shutdown();
+        }
+    }
+
+    /** Tests empty files, files without a final newline, and malformed lines */
+    @Test
+    public void testEdgeCases() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("small.csv");
+        Files.write(file, new byte[0]);
+        assertEquals(0, ParallelPathLoader.load(file).getGraph().nodeNum());
+
+        Files.write(file, "1,1,2,2,5\n2,2,1,1,5\n1,1,2,2,5\n3,3,1,1,4".getBytes(StandardCharsets.UTF_8));
+        CompactGraph<Point> graph = ParallelPathLoader.load(file, ForkJoinPool.commonPool(), 8).getGraph();
+        assertEquals(3, graph.nodeNum());
+        assertEquals(3, graph.edgeNum());
+        assertEquals(new Point(3, 3), graph.valueOf(2));
+
+        Files.write(file, "1,1,2,2,5\n2,2,1,1\n3,3,1,1,4\n".getBytes(StandardCharsets.UTF_8));
+        try {
+            ParallelPathLoader.load(file, ForkJoinPool.commonPool(), 8);
+            fail("loaded a malformed file");
+        } catch (CampusPathsParser.ParserException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package pathfinder.junitTests;
+
+import graph.CompactGraph;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.BuildingCatalog;
+import pathfinder.CampusMap;
+import pathfinder.PointIndex;
+import pathfinder.SearchMode;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * PointIndexTest is a glassbox test of the PointIndex class and of routing between
+ * arbitrary coordinates in CampusMap.
+ */
+public class PointIndexTest {
+    @Rule public Timeout globalTimeout = Timeout.seconds(10);
+
+    private static CampusMap campus;
+    private static CompactGraph<Point> graph;
+
+    @BeforeClass
+    public static void setUp() {
+        campus = new CampusMap("campus_buildings.csv", "campus_paths.csv");
+        graph = campus.graph();
+    }
+
+    // helper method returning the squared distance between a node and a location
+    private static double distance(int id, double x, double y) {
+        double dx = graph.valueOf(id).getX() - x;
+        double dy = graph.valueOf(id).getY() - y;
+        return dx * dx + dy * dy;
+    }
+
+    /** Tests the nearest node is the one a scan of every node finds, ties going to the smaller id */
+    @Test
+    public void testNearestMatchesScan() {
+        PointIndex index = campus.index();
+        assertEquals(graph.nodeNum(), index.size());
+        Random random = new Random(331);
+        for (int k = 0; k < 2000; k++) {
+            double x = random.nextDouble() * 4500 - 250;
+            double y = random.nextDouble() * 3000 - 250;
+            int expected = 0;
+            for (int i = 1; i < graph.nodeNum(); i++) {
+                if (distance(i, x, y) < distance(expected, x, y)) {
+                    expected = i;
+                }
+            }
+            assertEquals(expected, index.nearest(x, y));
+        }
+        for (int i = 0; i < graph.nodeNum(); i += 7) {
+            Point p = graph.valueOf(i);
+            assertSame(p, index.nearestPoint(p.getX(), p.getY()));
+        }
+    }
+
+    /** Tests a radius query returns exactly the nodes in the circle, nearest first */
+    @Test
+    public void testWithinMatchesScan() {
+        PointIndex index = campus.index();
+        Random random = new Random(332);
+        for (int k = 0; k < 200; k++) {
+            double x = random.nextDouble() * 4000;
+            double y = random.nextDouble() * 2500;
+            double radius = random.nextDouble() * 150;
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < graph.nodeNum(); i++) {
+                if (distance(i, x, y) <= radius * radius) {
+                    expected.add(i);
+                }
+            }
+            expected.sort((a, b) -> {
+                int byDistance = Double.compare(distance(a, x, y), distance(b, x, y));
+                return byDistance != 0 ? byDistance : Integer.compare(a, b);
+            });
+            List<Point> actual = index.within(x, y, radius);
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(graph.valueOf(expected.get(i)), actual.get(i));
+            }
+        }
+        assertEquals(Collections.emptyList(), index.within(-1e6, -1e6, 10));
+    }
+
+    /** Tests empty graphs and invalid locations */
+    @Test
+    public void testEdgeCases() {
+        PointIndex empty = new PointIndex(CompactGraph.of(Collections.<Point>emptyList(),
+                new int[] {0}, new int[0], new double[0]));
+        assertEquals(-1, empty.nearest(1, 2));
+        assertNull(empty.nearestPoint(1, 2));
+        PointIndex one = new PointIndex(CompactGraph.of(Arrays.asList(new Point(3, 4)),
+                new int[] {0, 0}, new int[0], new double[0]));
+        assertEquals(new Point(3, 4), one.nearestPoint(-100, 100));
+        try {
+            one.nearest(Double.NaN, 0);
+            fail("accepted NaN");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            one.within(0, 0, -1);
+            fail("accepted a negative radius");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /** Tests routes between coordinates snap to the nearest nodes and match building routes */
+    @Test
+    public void testRouteBetweenCoordinates() {
+        BuildingCatalog.Building cse = campus.catalog().get("CSE");
+        BuildingCatalog.Building mgh = campus.catalog().get("MGH");
+        for (SearchMode mode : SearchMode.values()) {
+            assertEquals(campus.findRoute("CSE", "MGH", mode).getCost(),
+                    campus.findRoute(cse.getLocation().getX() + 0.5, cse.getLocation().getY() - 0.5,
+                            mgh.getLocation().getX(), mgh.getLocation().getY(), mode).getCost(), 1e-9);
+        }
+        Point near = campus.nearestNode(1000.25, 1200.75);
+        assertEquals(near, campus.findShortestPath(1000.25, 1200.75, 1000.25, 1200.75).getStart());
+        assertEquals(0, campus.findShortestPath(1000.25, 1200.75, near.getX(), near.getY()).getCost(), 0);
+    }
+}
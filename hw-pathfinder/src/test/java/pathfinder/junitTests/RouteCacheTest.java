@@ -0,0 +1,199 @@
+package pathfinder.junitTests;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.CampusMap;
+import pathfinder.RouteCache;
+import pathfinder.SearchMode;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * RouteCacheTest is a glassbox test of the RouteCache class and of the cache of paths
+ * in CampusMap.
+ */
+public class RouteCacheTest {
+    @Rule public Timeout globalTimeout = Timeout.seconds(20);
+
+    /** Tests values are computed once and the least recently used entry is evicted first */
+    @Test
+    public void testLeastRecentlyUsedEviction() {
+        RouteCache<String, Integer> cache = new RouteCache<>(3, 1);
+        AtomicInteger computed = new AtomicInteger();
+        for (String i : new String[] {"a", "b", "c", "a", "d"}) {
+            cache.get(i, key -> {
+                computed.incrementAndGet();
+                return key.length();
+            });
+        }
+        assertEquals(4, computed.get());
+        assertEquals(1, cache.hits());
+        assertEquals(4, cache.misses());
+        assertEquals(1, cache.evictions());
+        assertEquals(3, cache.size());
+        // "b" was the least recently used when "d" came in
+        assertFalse(cache.contains("b"));
+        assertTrue(cache.contains("a"));
+        assertTrue(cache.contains("c"));
+        assertTrue(cache.contains("d"));
+    }
+
+    /** Tests null values are cached and invalidation forgets every entry */
+    @Test
+    public void testNullAndInvalidate() {
+        RouteCache<Integer, String> cache = new RouteCache<>(100);
+        AtomicInteger computed = new AtomicInteger();
+        for (int k = 0; k < 3; k++) {
+            assertNull(cache.get(7, key -> {
+                computed.incrementAndGet();
+                return null;
+            }));
+        }
+        assertEquals(1, computed.get());
+        assertEquals(2, cache.hits());
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+        assertFalse(cache.contains(7));
+        assertEquals(2, cache.hits());
+    }
+
+    /** Tests the cache never holds more than its capacity, across every stripe */
+    @Test
+    public void testBounded() {
+        RouteCache<Integer, Integer> cache = new RouteCache<>(64, 16);
+        assertEquals(64, cache.capacity());
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(Integer.valueOf(2 * i), cache.get(i, key -> 2 * key));
+            assertTrue(cache.size() <= 64);
+        }
+        assertEquals(10000, cache.misses());
+        assertEquals(10000 - cache.size(), cache.evictions());
+        assertEquals(1, new RouteCache<Integer, Integer>(1, 16).capacity());
+    }
+
+    /** Tests threads sharing a cache all see the computed values and the counters add up */
+    @Test
+    public void testConcurrentUse() throws InterruptedException {
+        RouteCache<Integer, Integer> cache = new RouteCache<>(50);
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int seed = t;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 20000; i++) {
+                    int key = (i * 31 + seed) % 100;
+                    if (cache.get(key, k -> k * k) != key * key) {
+                        synchronized (failures) {
+                            failures.add(new AssertionError("wrong value for " + key));
+                        }
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread i : threads) {
+            i.join();
+        }
+        assertEquals(new ArrayList<Throwable>(), failures);
+        assertEquals(8 * 20000, cache.hits() + cache.misses());
+        assertTrue(cache.size() <= 50);
+    }
+
+    /** Tests a value still being computed when the cache is invalidated is neither shared nor cached */
+    @Test
+    public void testInvalidateDuringComputation() throws InterruptedException {
+        RouteCache<String, Integer> cache = new RouteCache<>(10);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Integer[] stale = new Integer[1];
+        Thread old = new Thread(() -> stale[0] = cache.get("a", key -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new AssertionError(e);
+            }
+            return 1;
+        }));
+        old.start();
+        started.await();
+        cache.invalidateAll();
+        // computed again rather than waiting for the computation from before
+        assertEquals(Integer.valueOf(2), cache.get("a", key -> 2));
+        release.countDown();
+        old.join();
+        assertEquals(Integer.valueOf(1), stale[0]);
+        assertEquals(Integer.valueOf(2), cache.get("a", key -> 3));
+        assertEquals(0, cache.coalesced());
+    }
+
+    /** Tests a value that finishes computing after an invalidation is not cached */
+    @Test
+    public void testInvalidateBeforeComputationEnds() throws InterruptedException {
+        RouteCache<String, Integer> cache = new RouteCache<>(10);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread old = new Thread(() -> cache.get("a", key -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new AssertionError(e);
+            }
+            return 1;
+        }));
+        old.start();
+        started.await();
+        cache.invalidateAll();
+        release.countDown();
+        old.join();
+        assertFalse(cache.contains("a"));
+        assertEquals(0, cache.size());
+        assertEquals(Integer.valueOf(2), cache.get("a", key -> 2));
+    }
+
+    /** Tests CampusMap serves a repeated pair from its cache, keeping modes apart */
+    @Test
+    public void testCampusMapCache() {
+        CampusMap campus = new CampusMap("campus_buildings.csv", "campus_paths.csv");
+        Path<Point> first = campus.findShortestPath("CSE", "MGH");
+        assertSame(first, campus.findShortestPath("CSE", "MGH"));
+        assertEquals(1, campus.routeCache().hits());
+        Path<Point> star = campus.findShortestPath("CSE", "MGH", SearchMode.A_STAR);
+        assertEquals(first.getCost(), star.getCost(), 1e-9);
+        assertEquals(2, campus.routeCache().misses());
+        try {
+            campus.findShortestPath("CSE", "NOT A BUILDING");
+            fail("found a path to a missing building");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertEquals(2, campus.routeCache().size());
+        campus.routeCache().invalidateAll();
+        assertNotSame(first, campus.findShortestPath("CSE", "MGH"));
+    }
+
+    /** Tests CampusMap reports the searches its cache could not spare, and only those */
+    @Test
+    public void testCampusMapReportsSearches() {
+        CampusMap campus = new CampusMap("campus_buildings.csv", "campus_paths.csv");
+        List<Double> costs = new ArrayList<>();
+        Path<Point> first = campus.findShortestPath("CSE", "MGH", SearchMode.DIJKSTRA,
+                                                    (route, nanos) -> costs.add(route.getCost()));
+        assertEquals(1, costs.size());
+        assertEquals(first.getCost(), costs.get(0), 0);
+        assertSame(first, campus.findShortestPath("CSE", "MGH", SearchMode.DIJKSTRA,
+                                                  (route, nanos) -> costs.add(route.getCost())));
+        assertSame(first, campus.findShortestPath("CSE", "MGH", SearchMode.DIJKSTRA));
+        assertEquals(1, costs.size());
+    }
+}
@@ -0,0 +1,161 @@
+package pathfinder.junitTests;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.RouteCache;
+import pathfinder.SingleFlight;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * SingleFlightTest is a glassbox test of the SingleFlight class and of how RouteCache
+ * coalesces concurrent misses of the same key.
+ */
+public class SingleFlightTest {
+    @Rule public Timeout globalTimeout = Timeout.seconds(20);
+
+    private static final int WAITERS = 16;
+
+    // helper method starting threads that each run the task, returning them
+    private static List<Thread> start(int count, Runnable task) {
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Thread thread = new Thread(task);
+            threads.add(thread);
+            thread.start();
+        }
+        return threads;
+    }
+
+    // helper method waiting until the flight has the given number of coalesced calls
+    private static void awaitCoalesced(SingleFlight<?, ?> flight, int count) throws InterruptedException {
+        while (flight.coalesced() < count) {
+            Thread.sleep(1);
+        }
+    }
+
+    /** Tests callers arriving during a computation share its result */
+    @Test
+    public void testConcurrentCallsShareOneComputation() throws InterruptedException {
+        SingleFlight<String, Object> flight = new SingleFlight<>();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger computed = new AtomicInteger();
+        Object result = new Object();
+        List<Object> seen = new ArrayList<>();
+        Runnable call = () -> {
+            Object value = flight.run("CSE -> MGH", key -> {
+                computed.incrementAndGet();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return result;
+            });
+            synchronized (seen) {
+                seen.add(value);
+            }
+        };
+        List<Thread> threads = start(1, call);
+        while (flight.inFlight() == 0) {
+            Thread.sleep(1);
+        }
+        threads.addAll(start(WAITERS, call));
+        awaitCoalesced(flight, WAITERS);
+        release.countDown();
+        for (Thread i : threads) {
+            i.join();
+        }
+        assertEquals(1, computed.get());
+        assertEquals(1, flight.executions());
+        assertEquals(WAITERS, flight.coalesced());
+        assertEquals(0, flight.inFlight());
+        assertEquals(WAITERS + 1, seen.size());
+        for (Object i : seen) {
+            assertSame(result, i);
+        }
+        // nothing is remembered once the computation is done
+        assertEquals("again", flight.run("CSE -> MGH", key -> "again"));
+        assertEquals(2, flight.executions());
+    }
+
+    /** Tests a failed computation fails every caller sharing it, and is not remembered */
+    @Test
+    public void testFailureIsShared() throws InterruptedException {
+        SingleFlight<Integer, String> flight = new SingleFlight<>();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger failures = new AtomicInteger();
+        AtomicReference<Throwable> unexpected = new AtomicReference<>();
+        Runnable call = () -> {
+            try {
+                flight.run(7, key -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw new IllegalArgumentException("no building " + key);
+                });
+                unexpected.set(new AssertionError("no exception"));
+            } catch (IllegalArgumentException e) {
+                failures.incrementAndGet();
+            } catch (Throwable e) {
+                unexpected.set(e);
+            }
+        };
+        List<Thread> threads = start(1, call);
+        while (flight.inFlight() == 0) {
+            Thread.sleep(1);
+        }
+        threads.addAll(start(WAITERS, call));
+        awaitCoalesced(flight, WAITERS);
+        release.countDown();
+        for (Thread i : threads) {
+            i.join();
+        }
+        assertNull(unexpected.get());
+        assertEquals(WAITERS + 1, failures.get());
+        assertEquals("7", flight.run(7, String::valueOf));
+    }
+
+    /** Tests threads missing the same key of a RouteCache at once compute it once */
+    @Test
+    public void testRouteCacheCoalescesMisses() throws InterruptedException {
+        RouteCache<String, Integer> cache = new RouteCache<>(16);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger computed = new AtomicInteger();
+        Runnable call = () -> cache.get("CSE", key -> {
+            computed.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return key.length();
+        });
+        List<Thread> threads = start(1, call);
+        while (computed.get() == 0) {
+            Thread.sleep(1);
+        }
+        threads.addAll(start(WAITERS, call));
+        while (cache.coalesced() < WAITERS) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+        for (Thread i : threads) {
+            i.join();
+        }
+        assertEquals(1, computed.get());
+        assertEquals(WAITERS + 1, cache.misses());
+        assertEquals(WAITERS, cache.coalesced());
+        assertEquals(Integer.valueOf(3), cache.get("CSE", key -> -1));
+        assertEquals(1, cache.hits());
+    }
+}
@@ -5,9 +5,12 @@ import org.junit.Test;
 import pathfinder.datastructures.Path;
 import pathfinder.datastructures.Point;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 
 public class TestPath {
@@ -106,4 +109,45 @@ public class TestPath {
         assertEquals(path2.hashCode(), path2.hashCode());
         assertEquals(path3.hashCode(), path3.hashCode());
     }
+
+    @Test
+    public void testSharedPrefix() {
+        Path<Point> prefix = new Path<>(new Point(1.0, 2.0)).extend(new Point(3.0, 2.0), 2.0D);
+        Path<Point> left = prefix.extend(new Point(3.0, 4.0), 2.0D);
+        Path<Point> right = prefix.extend(new Point(5.0, 2.0), 2.0D);
+        assertEquals(new Point(3.0, 2.0), prefix.getEnd());
+        assertEquals(2.0D, prefix.getCost(), EPSILON);
+        assertEquals(new Point(3.0, 4.0), left.getEnd());
+        assertEquals(new Point(5.0, 2.0), right.getEnd());
+        assertNotEquals(left, right);
+        assertEquals("(1.0, 2.0) =(2.000)=> (3.0, 2.0) =(2.000)=> (3.0, 4.0)", left.toString());
+        Iterator<Path<Point>.Segment> iterator = right.iterator();
+        assertEquals(new Point(1.0, 2.0), iterator.next().getStart());
+        assertEquals(new Point(3.0, 2.0), iterator.next().getStart());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testSeparatelyBuiltPathsEqual() {
+        Path<Point> shared = new Path<>(new Point(1.0, 2.0)).extend(new Point(3.0, 2.0), 2.0D);
+        Path<Point> first = shared.extend(new Point(3.0, 4.0), 2.0D);
+        Path<Point> second = new Path<>(new Point(1.0, 2.0)).extend(new Point(3.0, 2.0), 2.0D)
+                                                           .extend(new Point(3.0, 4.0), 2.0D);
+        assertEquals(first, second);
+        assertEquals(second, first);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertEquals(first.toString(), second.toString());
+        assertNotEquals(first, shared);
+    }
+
+    @Test
+    public void testHashCodeMatchesSegmentList() {
+        Path<Point> path = new Path<>(new Point(1.0, 2.0)).extend(new Point(3.0, 2.0), 2.0D)
+                                                         .extend(new Point(3.0, 4.0), 2.0D);
+        List<Path<Point>.Segment> segments = new ArrayList<>();
+        for(Path<Point>.Segment segment : path) {
+            segments.add(segment);
+        }
+        assertEquals(31 * path.getStart().hashCode() + segments.hashCode(), path.hashCode());
+    }
 }
@@ -0,0 +1,81 @@
+package pathfinder.junitTests.datastructures;
+
+import org.junit.Test;
+import pathfinder.datastructures.Point;
+import pathfinder.datastructures.PointTable;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class TestPointTable {
+
+    @Test
+    public void testInternGivesDenseIdsInOrder() {
+        PointTable table = new PointTable();
+        assertEquals(0, table.intern(1.5, 2.5));
+        assertEquals(1, table.intern(2.5, 1.5));
+        assertEquals(0, table.intern(1.5, 2.5));
+        assertEquals(2, table.intern(new Point(0, 0)));
+        assertEquals(3, table.size());
+        assertEquals(1, table.idOf(new Point(2.5, 1.5)));
+        assertEquals(-1, table.idOf(3, 3));
+        assertEquals(new Point(2.5, 1.5), table.pointOf(1));
+        assertEquals(2.5, table.xOf(1), 0);
+        assertEquals(1.5, table.yOf(1), 0);
+        assertEquals(3, table.points().size());
+        assertEquals(new Point(0, 0), table.points().get(2));
+    }
+
+    @Test
+    public void testCanonicalInstance() {
+        PointTable table = new PointTable();
+        Point first = new Point(4, 5);
+        table.intern(first);
+        assertSame(first, table.pointOf(table.intern(4, 5)));
+        assertSame(first, table.pointOf(table.intern(new Point(4, 5))));
+    }
+
+    @Test
+    public void testMatchesPointEquality() {
+        PointTable table = new PointTable();
+        int zero = table.intern(0.0, 0.0);
+        // Point#equals tells 0.0 and -0.0 apart, so the table does too
+        assertNotEquals(zero, table.intern(-0.0, 0.0));
+        assertNotEquals(new Point(0.0, 0.0), new Point(-0.0, 0.0));
+        try {
+            table.intern(Double.NaN, 0);
+            fail("interned NaN");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    public void testGrowsAndKeepsIds() {
+        PointTable table = new PointTable(4);
+        Random random = new Random(331);
+        double[][] coordinates = new double[5000][];
+        for (int i = 0; i < coordinates.length; i++) {
+            coordinates[i] = new double[] {random.nextInt(100) * 10.5, random.nextInt(100) * 0.25};
+        }
+        int[] ids = new int[coordinates.length];
+        for (int i = 0; i < coordinates.length; i++) {
+            ids[i] = table.intern(coordinates[i][0], coordinates[i][1]);
+        }
+        for (int i = 0; i < coordinates.length; i++) {
+            assertEquals(ids[i], table.idOf(coordinates[i][0], coordinates[i][1]));
+            assertEquals(new Point(coordinates[i][0], coordinates[i][1]), table.pointOf(ids[i]));
+        }
+        try {
+            table.pointOf(table.size());
+            fail("found a point past the end");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+}
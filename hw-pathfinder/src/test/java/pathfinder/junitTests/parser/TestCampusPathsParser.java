@@ -0,0 +1,144 @@
+package pathfinder.junitTests.parser;
+
+import org.junit.Test;
+import pathfinder.parser.CampusPathsParser;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class TestCampusPathsParser {
+
+    // helper method parsing text as a campus paths file into one array per line
+    private static List<double[]> parse(String text) {
+        List<double[]> result = new ArrayList<>();
+        CampusPathsParser.parseCampusPaths(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)),
+                (x1, y1, x2, y2, distance) -> result.add(new double[] {x1, y1, x2, y2, distance}));
+        return result;
+    }
+
+    // helper method checking that text is rejected
+    private static void assertRejected(String text) {
+        try {
+            parse(text);
+            fail("parsed " + text);
+        } catch (CampusPathsParser.ParserException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testCampusFileMatchesSplitAndParseDouble() throws Exception {
+        List<double[]> expected = new ArrayList<>();
+        try (InputStream stream = getClass().getResourceAsStream("/data/campus_paths.csv")) {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                String[] fields = line.split(",");
+                double[] values = new double[fields.length];
+                for (int i = 0; i < fields.length; i++) {
+                    values[i] = Double.parseDouble(fields[i]);
+                }
+                expected.add(values);
+            }
+        }
+        List<double[]> actual = new ArrayList<>();
+        CampusPathsParser.parseCampusPaths("campus_paths.csv",
+                (x1, y1, x2, y2, distance) -> actual.add(new double[] {x1, y1, x2, y2, distance}));
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i), actual.get(i), 0);
+        }
+        assertEquals(expected.size(), CampusPathsParser.parseCampusPaths("campus_paths.csv").size());
+    }
+
+    @Test
+    public void testNumbersMatchParseDouble() {
+        Random random = new Random(331);
+        String[] samples = new String[5000];
+        for (int i = 0; i < samples.length; i++) {
+            switch (i % 5) {
+                case 0: samples[i] = Double.toString(random.nextDouble() * 4000); break;
+                case 1: samples[i] = Double.toString(-random.nextDouble() * Math.pow(10, random.nextInt(30) - 10)); break;
+                case 2: samples[i] = String.format("%.5f", random.nextGaussian() * 1e3); break;
+                case 3: samples[i] = Long.toString(random.nextLong()); break;
+                default: samples[i] = "0." + (random.nextInt(1000000) + 1) + "e" + (random.nextInt(10) - 5); break;
+            }
+        }
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < samples.length; i += 5) {
+            text.append(String.join(",", samples[i], samples[i + 1], samples[i + 2], samples[i + 3], samples[i + 4]));
+            text.append('\n');
+        }
+        List<double[]> lines = parse(text.toString());
+        assertEquals(samples.length / 5, lines.size());
+        for (int i = 0; i < samples.length; i++) {
+            assertEquals(samples[i], Double.doubleToLongBits(Double.parseDouble(samples[i])),
+                    Double.doubleToLongBits(lines.get(i / 5)[i % 5]));
+        }
+    }
+
+    @Test
+    public void testLineEndings() {
+        List<double[]> lines = parse("1,2,3,4,5\r\n-1.5,.5,6.,0,-0.0\r7,8,9,10,11");
+        assertEquals(3, lines.size());
+        assertArrayEquals(new double[] {1, 2, 3, 4, 5}, lines.get(0), 0);
+        assertArrayEquals(new double[] {-1.5, 0.5, 6, 0, -0.0}, lines.get(1), 0);
+        assertEquals(Double.doubleToLongBits(-0.0), Double.doubleToLongBits(lines.get(1)[4]));
+        assertArrayEquals(new double[] {7, 8, 9, 10, 11}, lines.get(2), 0);
+        assertEquals(0, parse("").size());
+    }
+
+    @Test
+    public void testMalformedLines() {
+        assertRejected("1,2,3,4\n");
+        assertRejected("1,2,3,4,5,6\n");
+        assertRejected("1,2,3,4,5\n\n1,2,3,4,5\n");
+        assertRejected("1,2,3,x,5\n");
+        assertRejected("1,2,3,,5\n");
+        assertRejected("1,2,3,4.5.6,5\n");
+    }
+
+    @Test
+    public void testTrailingCommas() {
+        List<double[]> lines = parse("1,2,3,4,5,\n6,7,8,9,10,,,\r\n11,12,13,14,15,");
+        assertEquals(3, lines.size());
+        assertArrayEquals(new double[] {1, 2, 3, 4, 5}, lines.get(0), 0);
+        assertArrayEquals(new double[] {6, 7, 8, 9, 10}, lines.get(1), 0);
+        assertArrayEquals(new double[] {11, 12, 13, 14, 15}, lines.get(2), 0);
+        assertRejected("1,2,3,4,5,,6\n");
+        assertRejected("1,2,3,4,,\n");
+    }
+
+    @Test
+    public void testAcceptsWhatSplitAccepts() {
+        String[] lines = {"1,2,3,4,5", "1,2,3,4,5,", "1,2,3,4,5,,", "1,2,3,4,5,6", "1,2,3,4,5,,6",
+                          "1,2,3,4", "1,2,3,4,", "1,2,3,4,,", ",1,2,3,4", "1,2,,3,4,5"};
+        for (String line : lines) {
+            String[] fields = line.split(",");
+            boolean splitAccepts = fields.length == 5;
+            for (int i = 0; splitAccepts && i < fields.length; i++) {
+                try {
+                    Double.parseDouble(fields[i]);
+                } catch (NumberFormatException e) {
+                    splitAccepts = false;
+                }
+            }
+            boolean scannerAccepts;
+            try {
+                scannerAccepts = parse(line + "\n").size() == 1;
+            } catch (CampusPathsParser.ParserException e) {
+                scannerAccepts = false;
+            }
+            assertEquals(line, splitAccepts, scannerAccepts);
+        }
+    }
+}